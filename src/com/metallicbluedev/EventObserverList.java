@@ -0,0 +1,124 @@
+package com.metallicbluedev;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Liste des écouteurs d'un {@link EventObservable}.
+ * <p>
+ * Copie à l'écriture: l'ajout et la suppression d'un écouteur remplacent le tableau des écouteurs,
+ * la notification parcourt le tableau courant sans verrou ni allocation.
+ * Un écouteur ajouté ou supprimé pendant une notification est pris en compte à la notification suivante.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ * @param <E>
+ * @param <L>
+ */
+public final class EventObserverList<E extends EventObject, L extends EventObserver<E>> {
+
+    private static final EventObserver<?>[] EMPTY_OBSERVERS = new EventObserver<?>[0];
+
+    /**
+     * Les écouteurs, remplacés à chaque modification.
+     */
+    private volatile EventObserver<?>[] observers = EMPTY_OBSERVERS;
+
+    public EventObserverList() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Ajoute un écouteur.
+     *
+     * @param listener
+     */
+    public synchronized void add(L listener) {
+        if (listener != null) {
+            EventObserver<?>[] current = observers;
+            EventObserver<?>[] newObservers = Arrays.copyOf(current, current.length + 1);
+            newObservers[current.length] = listener;
+            observers = newObservers;
+        }
+    }
+
+    /**
+     * Supprime un écouteur (sa dernière inscription s'il a été ajouté plusieurs fois).
+     *
+     * @param listener
+     * @return
+     */
+    public synchronized boolean remove(L listener) {
+        EventObserver<?>[] current = observers;
+        int index = current.length - 1;
+
+        while (index >= 0 && current[index] != listener) {
+            index--;
+        }
+
+        if (index >= 0) {
+            EventObserver<?>[] newObservers = (current.length == 1) ? EMPTY_OBSERVERS : new EventObserver<?>[current.length - 1];
+            System.arraycopy(current, 0, newObservers, 0, index);
+            System.arraycopy(current, index + 1, newObservers, index, current.length - index - 1);
+            observers = newObservers;
+        }
+        return index >= 0;
+    }
+
+    /**
+     * Supprime tous les écouteurs.
+     */
+    public synchronized void clear() {
+        observers = EMPTY_OBSERVERS;
+    }
+
+    /**
+     * Détermine si aucun écouteur n'est inscrit.
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return observers.length == 0;
+    }
+
+    /**
+     * Retourne le nombre d'écouteurs.
+     *
+     * @return
+     */
+    public int size() {
+        return observers.length;
+    }
+
+    /**
+     * Notifie l'événement aux écouteurs, dans l'ordre d'inscription, sur le thread courant.
+     *
+     * @param event
+     */
+    @SuppressWarnings("unchecked")
+    public void notifyObservers(E event) {
+        for (EventObserver<?> observer : observers) {
+            ((L) observer).onChanged(event);
+        }
+    }
+
+    /**
+     * Notifie l'événement aux écouteurs sur l'exécuteur demandé.
+     * Les écouteurs inscrits au moment de l'appel sont notifiés, dans l'ordre d'inscription.
+     *
+     * @param event
+     * @param executor
+     */
+    @SuppressWarnings("unchecked")
+    public void notifyObservers(E event, Executor executor) {
+        EventObserver<?>[] current = observers;
+
+        if (current.length > 0) {
+            executor.execute(() -> {
+                for (EventObserver<?> observer : current) {
+                    ((L) observer).onChanged(event);
+                }
+            });
+        }
+    }
+}
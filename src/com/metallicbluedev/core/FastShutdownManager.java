@@ -5,7 +5,6 @@ import com.metallicbluedev.factory.*;
 import com.metallicbluedev.logger.*;
 import com.metallicbluedev.threading.*;
 import com.metallicbluedev.utils.*;
-import javax.swing.event.*;
 
 /**
  * Gestionnaire de fermeture.
@@ -20,7 +19,7 @@ import javax.swing.event.*;
  * <li>Arrêt de l'application au bout d'un certain temps</li>
  * </ul>
  *
- * @version 2.02.01
+ * @version 2.03.00
  * @author Sebastien Villemain
  */
 public final class FastShutdownManager extends Thread implements EntityProcess, EventObservable<FastShutdownListener> {
@@ -38,16 +37,16 @@ public final class FastShutdownManager extends Thread implements EntityProcess,
     /**
      * Liste des écouteurs d'événements.
      */
-    private final EventListenerList listeners;
+    private final EventObserverList<FastShutdownEvent, FastShutdownListener> listeners;
 
     protected FastShutdownManager() {
         super();
-        listeners = new EventListenerList();
+        listeners = new EventObserverList<>();
     }
 
     @Override
     public void addListener(FastShutdownListener listener) {
-        listeners.add(FastShutdownListener.class, listener);
+        listeners.add(listener);
     }
 
     @Override
@@ -57,7 +56,7 @@ public final class FastShutdownManager extends Thread implements EntityProcess,
 
     @Override
     public void removeListener(FastShutdownListener listener) {
-        listeners.remove(FastShutdownListener.class, listener);
+        listeners.remove(listener);
     }
 
     @Override
@@ -160,13 +159,11 @@ public final class FastShutdownManager extends Thread implements EntityProcess,
     }
 
     private void stopServices() {
-        Thread[] threads = new Thread[Thread.activeCount()];
-        int count = Thread.enumerate(threads);
+        // Les threads virtuels sont inclus
+        Thread[] threads = SystemHelper.getServices();
 
         // Arrêt des services encore en cours d'utilisation
-        for (int i = 0; i < count; i++) {
-            Thread thread = threads[i];
-
+        for (Thread thread : threads) {
             if (!canManage(thread)) {
                 continue;
             }
@@ -190,9 +187,7 @@ public final class FastShutdownManager extends Thread implements EntityProcess,
     private void shutdownByProcess() {
         FastShutdownEvent event = new FastShutdownEvent(this);
 
-        for (FastShutdownListener listener : listeners.getListeners(FastShutdownListener.class)) {
-            listener.onChanged(event);
-        }
+        listeners.notifyObservers(event);
     }
 
     @Override
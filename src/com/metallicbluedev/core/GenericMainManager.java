@@ -9,7 +9,7 @@ import java.util.*;
 /**
  * Gestion d'un point d'entrée d'une application.
  *
- * @version 2.00.00
+ * @version 2.02.00
  * @author Sebastien Villemain
  */
 public abstract class GenericMainManager implements MainManager {
@@ -32,7 +32,12 @@ public abstract class GenericMainManager implements MainManager {
     /**
      * Nouvel état de l'application.
      */
-    private AppMainMode nextMode = AppMainMode.STOPPED;
+    private volatile AppMainMode nextMode = AppMainMode.STOPPED;
+
+    /**
+     * Verrou signalant le changement d'état de l'application.
+     */
+    private final Object nextModeLock = new Object();
 
     private String[] commands = null;
 
@@ -136,29 +141,42 @@ public abstract class GenericMainManager implements MainManager {
 
     @Override
     public final void start() {
-        nextMode = AppMainMode.STARTING;
+        changeNextMode(AppMainMode.STARTING);
     }
 
     @Override
     public final void restart(boolean hardRestart) {
         this.hardRestart = hardRestart;
-        nextMode = AppMainMode.RESTARTING;
-
+        changeNextMode(AppMainMode.RESTARTING);
     }
 
     @Override
     public final void stop() {
-        nextMode = AppMainMode.STOPPING;
+        changeNextMode(AppMainMode.STOPPING);
     }
 
     @Override
     public final void update() {
-        nextMode = AppMainMode.UPDATING;
+        changeNextMode(AppMainMode.UPDATING);
     }
 
     private void setNextMode(AppMainMode testMode, AppMainMode nextMode) {
-        if (this.nextMode == testMode) {
+        synchronized (nextModeLock) {
+            if (this.nextMode == testMode) {
+                changeNextMode(nextMode);
+            }
+        }
+    }
+
+    /**
+     * Change le nouvel état de l'application et réveille la boucle principale.
+     *
+     * @param nextMode
+     */
+    private void changeNextMode(AppMainMode nextMode) {
+        synchronized (nextModeLock) {
             this.nextMode = nextMode;
+            nextModeLock.notifyAll();
         }
     }
 
@@ -360,7 +378,7 @@ public abstract class GenericMainManager implements MainManager {
                 MainProcess process = FactoryManager.getInstance(type);
 
                 if (!process.running()) {
-                    LoggerManager.getInstance().addDebug("Starting " + process.getName());
+                    LoggerManager.getInstance().addDebug("Starting {0}", process.getName());
                     process.start();
                 }
             } catch (Exception e) {
@@ -386,7 +404,7 @@ public abstract class GenericMainManager implements MainManager {
                 MainProcess process = FactoryManager.getInstance(type);
 
                 if (process.canRunInMain()) {
-                    LoggerManager.getInstance().addDebug("Running " + process.getName());
+                    LoggerManager.getInstance().addDebug("Running {0}", process.getName());
                     process.run();
                 }
             } catch (Exception e) {
@@ -410,7 +428,7 @@ public abstract class GenericMainManager implements MainManager {
                 MainProcess process = FactoryManager.getInstance(type);
 
                 if (process.running()) {
-                    LoggerManager.getInstance().addDebug("Stopping " + process.getName());
+                    LoggerManager.getInstance().addDebug("Stopping {0}", process.getName());
                     process.stop();
                 }
             } catch (Exception e) {
@@ -433,11 +451,19 @@ public abstract class GenericMainManager implements MainManager {
         }
     }
 
+    /**
+     * Attente d'un changement d'état de l'application.
+     * La boucle principale est réveillée dès le changement au lieu de scruter l'état.
+     */
     private void waitNextMode() {
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException ex) {
-            LoggerManager.getInstance().addError(ex);
+        synchronized (nextModeLock) {
+            try {
+                while (running && nextMode == AppMainMode.STOPPED) {
+                    nextModeLock.wait();
+                }
+            } catch (InterruptedException ex) {
+                LoggerManager.getInstance().addError(ex);
+            }
         }
     }
 
@@ -561,8 +587,8 @@ public abstract class GenericMainManager implements MainManager {
             // Arrêt de la mesure des performances
             FactoryManager.dispose(PerformanceMeasurement.class);
 
-            LoggerManager.getInstance().addDebug("Attempt to clean the remaining instances of "
-                                                 + ((applicationName != null) ? applicationName : "application"));
+            LoggerManager.getInstance().addDebug("Attempt to clean the remaining instances of {0}",
+                                                 (applicationName != null) ? applicationName : "application");
             LoggerManager.getInstance().setLevelOff();
 
             // Recherche du gestionnaire de fermeture
@@ -12,12 +12,18 @@ import static java.lang.Thread.State.TIMED_WAITING;
 import static java.lang.Thread.State.WAITING;
 import java.lang.management.*;
 import java.util.*;
+import java.util.concurrent.*;
 import javax.management.*;
 
 /**
  * Mesure les performances Java.
+ * <p>
+ * Les mesures sont planifiées par le {@link TaskScheduler} partagé.
+ * <p>
+ * A chaque mesure, l'utilisation du processeur par les threads d'un {@link ThreadPool}
+ * est transmise au groupe qui applique son quota ({@link ThreadPool#setCpuQuota(int)}).
  *
- * @version 1.12.01
+ * @version 1.15.01
  * @author Sebastien Villemain
  */
 public final class PerformanceMeasurement implements ServiceProcess, EntityProcess {
@@ -33,9 +39,25 @@ public final class PerformanceMeasurement implements ServiceProcess, EntityProce
     private long intervalOfMeasure = 3000;
 
     /**
-     * L'identifiant du thread mesurant les performances.
+     * La mesure planifiée.
      */
-    private long threadId = 0;
+    private volatile ScheduledFuture<?> measureTask = null;
+
+    /**
+     * La console de mesure des threads, initialisée à la première mesure.
+     */
+    private ThreadMXBean threadBean = null;
+
+    /**
+     * Date de la dernière mesure (en nanosecondes).
+     */
+    private long lastUpdateTime = 0;
+
+    /**
+     * Détermine si une première mesure sert de référence.
+     * L'origine de {@link System#nanoTime()} est arbitraire: la date ne peut pas servir d'indicateur.
+     */
+    private boolean lastUpdateDefined = false;
 
     /**
      * Valeur de cache pour le temps d'utilisation du CPU.
@@ -74,47 +96,50 @@ public final class PerformanceMeasurement implements ServiceProcess, EntityProce
      *
      * @param intervalOfMeasure
      */
-    public void setIntervalOfMeasure(long intervalOfMeasure) {
+    public synchronized void setIntervalOfMeasure(long intervalOfMeasure) {
         if (intervalOfMeasure < 1) {
             intervalOfMeasure = 1;
         }
         this.intervalOfMeasure = intervalOfMeasure * 1000;
+
+        // Prise en compte du nouvel intervalle
+        if (running()) {
+            measureTask.cancel(false);
+            measureTask = scheduleMeasure();
+        }
     }
 
     /**
      * Création ou mise à jour des points de mesures.
+     * Chaque appel correspond à une mesure.
      */
     @Override
     public final void run() {
-        waitMainManagerStarted();
-
-        LoggerManager.getInstance().addDebug("Performance measurement is enabled.");
+        // Démarrage différé pour ne pas altérer les performances
+        if (running() && isMainManagerStarted()) {
+            try {
+                if (threadBean == null) {
+                    LoggerManager.getInstance().addDebug("Performance measurement is enabled.");
 
-        memoryNotification();
+                    memoryNotification();
 
-        try {
-            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
-            bean.setThreadContentionMonitoringEnabled(true);
-            bean.setThreadCpuTimeEnabled(true);
+                    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                    bean.setThreadContentionMonitoringEnabled(true);
+                    bean.setThreadCpuTimeEnabled(true);
+                    threadBean = bean;
+                }
 
-            while (running()) {
-                update(bean);
+                update(threadBean);
 
                 double usage = getUsage();
 
                 if (usage >= 50) {
-                    LoggerManager.getInstance().addDebug("CPU usage: " + usage + "%");
-                }
-
-                try {
-                    Thread.sleep(intervalOfMeasure);
-                } catch (InterruptedException ex) {
-                    LoggerManager.getInstance().addError(ex);
-                    break;
+                    LoggerManager.getInstance().addDebug("CPU usage: {0}%", usage);
                 }
+            } catch (UnsupportedOperationException e) {
+                LoggerManager.getInstance().addWarning("Performance measurement is not supported.");
+                stop();
             }
-        } catch (UnsupportedOperationException e) {
-            LoggerManager.getInstance().addWarning("Performance measurement is not supported.");
         }
     }
 
@@ -294,28 +319,26 @@ public final class PerformanceMeasurement implements ServiceProcess, EntityProce
     }
 
     @Override
-    public final void start() {
-        if (threadId <= 0) {
-            Thread monitor = new ThreadHolderTask(this);
-            monitor.setPriority(Thread.MIN_PRIORITY);
-            monitor.setDaemon(true);
-
-            threadId = monitor.threadId();
-            monitor.start();
+    public final synchronized void start() {
+        if (!running()) {
+            measureTask = scheduleMeasure();
         }
     }
 
     @Override
-    public final void stop() {
-        if (threadId > 0) {
-            threadId = -1;
+    public final synchronized void stop() {
+        if (running()) {
+            measureTask.cancel(false);
+            measureTask = null;
             history.clear();
+            lastUpdateDefined = false;
         }
     }
 
     @Override
     public final boolean running() {
-        return (threadId > 0);
+        ScheduledFuture<?> task = measureTask;
+        return (task != null && !task.isDone());
     }
 
     @Override
@@ -347,9 +370,7 @@ public final class PerformanceMeasurement implements ServiceProcess, EntityProce
 
     public void waitMainManagerStarted() {
         // Démarrage différé pour ne pas altérer les performances
-        while (running()
-               && FactoryManager.hasInstance(MainManager.class)
-               && !MainManager.getInstance().started()) {
+        while (running() && !isMainManagerStarted()) {
             try {
                 Thread.sleep(2000);
             } catch (InterruptedException e) {
@@ -358,6 +379,26 @@ public final class PerformanceMeasurement implements ServiceProcess, EntityProce
         }
     }
 
+    /**
+     * Planification des mesures.
+     *
+     * @return
+     */
+    private ScheduledFuture<?> scheduleMeasure() {
+        return TaskScheduler.getInstance().scheduleWithFixedDelay(this::run, intervalOfMeasure, intervalOfMeasure, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Détermine si le gestionnaire principal est démarré.
+     * Sans gestionnaire principal, retourne <code>true</code>.
+     *
+     * @return
+     */
+    private static boolean isMainManagerStarted() {
+        return !FactoryManager.hasInstance(MainManager.class)
+               || MainManager.getInstance().started();
+    }
+
     /**
      * Vérification de la mémoire utilisable.
      */
@@ -379,10 +420,21 @@ public final class PerformanceMeasurement implements ServiceProcess, EntityProce
      */
     private void update(ThreadMXBean bean) throws UnsupportedOperationException {
         Thread[] services = SystemHelper.getServices();
+        long now = System.nanoTime();
+
+        // Temps processeur consommé par les threads de chaque groupe depuis la dernière mesure
+        Map<ThreadPool, Long> poolCpuTimes = new HashMap<>();
 
         // Mesure des performances
+        long measureThreadId = Thread.currentThread().threadId();
+
         for (Thread service : services) {
-            if (service.threadId() == threadId) {
+            if (service.threadId() == measureThreadId) {
+                continue;
+            }
+
+            // Le temps processeur d'un thread virtuel n'est pas mesurable (il est attribué au thread porteur)
+            if (service.isVirtual()) {
                 continue;
             }
 
@@ -394,6 +446,11 @@ public final class PerformanceMeasurement implements ServiceProcess, EntityProce
             long cpu = bean.getThreadCpuTime(service.threadId());
             long user = bean.getThreadUserTime(service.threadId());
 
+            if (service.getThreadGroup() instanceof ThreadPool pool) {
+                long poolCpuTime = (times != null && cpu > times.endCpuTime) ? cpu - times.endCpuTime : 0;
+                poolCpuTimes.merge(pool, poolCpuTime, Long::sum);
+            }
+
             if (times == null) {
                 if (service.threadId() > 0) {
                     times = new MeasureTimes(service.threadId(), cpu, user);
@@ -450,6 +507,31 @@ public final class PerformanceMeasurement implements ServiceProcess, EntityProce
         cpuTimeCache = -1;
         userTimeCache = -1;
         cpuUsageCache = -1;
+
+        updatePoolUsages(poolCpuTimes, now);
+    }
+
+    /**
+     * Transmission de l'utilisation du processeur aux groupes de threads.
+     *
+     * @param poolCpuTimes
+     * @param now
+     */
+    private void updatePoolUsages(Map<ThreadPool, Long> poolCpuTimes, long now) {
+        long elapsedTime = now - lastUpdateTime;
+
+        // La première mesure sert de référence
+        if (lastUpdateDefined && elapsedTime > 0) {
+            double totalTime = (double) elapsedTime * Runtime.getRuntime().availableProcessors();
+
+            for (Map.Entry<ThreadPool, Long> poolCpuTime : poolCpuTimes.entrySet()) {
+                double usage = MathHelper.bindValue((100 * poolCpuTime.getValue()) / totalTime, 0, 100);
+                poolCpuTime.getKey().updateCpuUsage(usage, elapsedTime, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        lastUpdateTime = now;
+        lastUpdateDefined = true;
     }
 
     /**
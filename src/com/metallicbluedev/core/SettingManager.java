@@ -2,7 +2,9 @@ package com.metallicbluedev.core;
 
 import com.metallicbluedev.*;
 import com.metallicbluedev.factory.*;
+import com.metallicbluedev.logger.*;
 import java.nio.file.*;
+import java.util.logging.*;
 
 /**
  *
@@ -40,6 +42,63 @@ public interface SettingManager extends EntityProcess, EventObservable<SettingLi
 
     public int getLogMaxLength();
 
+    /**
+     * Retourne le nombre de messages conservés en mémoire par le journal.
+     *
+     * @return
+     */
+    public int getLogHistoryCapacity();
+
+    /**
+     * Retourne le format des lignes du journal.
+     *
+     * @return
+     */
+    public LoggerOutputFormat getLogOutputFormat();
+
+    /**
+     * Retourne l'intervalle entre deux écritures groupées dans le fichier journal (en millisecondes).
+     *
+     * @return
+     */
+    public int getLogFlushInterval();
+
+    /**
+     * Retourne le nombre maximum de messages semblables publiés par intervalle pour le niveau demandé.
+     *
+     * @param level {@link Level#FINE}, {@link Level#INFO}, {@link Level#WARNING} ou {@link Level#SEVERE}.
+     * @return Nombre de messages, 0 sans limite.
+     */
+    public int getLogRateLimit(Level level);
+
+    /**
+     * Retourne la durée de l'intervalle de limitation des messages semblables (en millisecondes).
+     *
+     * @return
+     */
+    public int getLogRateLimitInterval();
+
+    /**
+     * Détermine si les fichiers journaux archivés sont compressés.
+     *
+     * @return
+     */
+    public boolean isLogCompressBackup();
+
+    /**
+     * Retourne la taille cumulée maximum des fichiers journaux archivés.
+     *
+     * @return En octets, 0 sans limite.
+     */
+    public long getLogBackupMaxTotalLength();
+
+    /**
+     * Retourne l'âge maximum des fichiers journaux archivés.
+     *
+     * @return En jours, 0 sans limite.
+     */
+    public int getLogBackupMaxAge();
+
     public static SettingManager getInstance() {
         return FactoryManager.getInstance(SettingManager.class);
     }
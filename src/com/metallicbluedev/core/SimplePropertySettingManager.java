@@ -1,10 +1,11 @@
 package com.metallicbluedev.core;
 
+import com.metallicbluedev.*;
 import com.metallicbluedev.factory.*;
 import com.metallicbluedev.io.*;
 import com.metallicbluedev.logger.*;
 import java.nio.file.*;
-import javax.swing.event.*;
+import java.util.logging.*;
 
 /**
  *
@@ -15,12 +16,12 @@ public class SimplePropertySettingManager implements SettingManager {
     /**
      * Liste des écouteurs d'événements.
      */
-    private final EventListenerList listeners;
+    private final EventObserverList<SettingEvent, SettingListener> listeners;
 
     private final SimplePropertyInfo propertyInfo;
 
     protected SimplePropertySettingManager() {
-        listeners = new EventListenerList();
+        listeners = new EventObserverList<>();
 
         if (!FactoryManager.hasInstance(MainManager.class)) {
             throw new IllegalStateException("MainManager is null");
@@ -32,12 +33,12 @@ public class SimplePropertySettingManager implements SettingManager {
 
     @Override
     public void addListener(SettingListener listener) {
-        listeners.add(SettingListener.class, listener);
+        listeners.add(listener);
     }
 
     @Override
     public void removeListener(SettingListener listener) {
-        listeners.remove(SettingListener.class, listener);
+        listeners.remove(listener);
     }
 
     @Override
@@ -80,6 +81,66 @@ public class SimplePropertySettingManager implements SettingManager {
         return propertyInfo.getInt("LogMaxLength", 1572864);
     }
 
+    @Override
+    public int getLogHistoryCapacity() {
+        return propertyInfo.getInt("LogHistoryCapacity", LoggerManager.DEFAULT_HISTORY_CAPACITY);
+    }
+
+    @Override
+    public int getLogFlushInterval() {
+        return propertyInfo.getInt("LogFlushInterval", LoggerManager.DEFAULT_FLUSH_INTERVAL);
+    }
+
+    @Override
+    public int getLogRateLimit(Level level) {
+        int limit = 0;
+
+        if (level == Level.FINE) {
+            limit = propertyInfo.getInt("LogDebugRateLimit", 0);
+        } else if (level == Level.INFO) {
+            limit = propertyInfo.getInt("LogInformationRateLimit", 0);
+        } else if (level == Level.WARNING) {
+            limit = propertyInfo.getInt("LogWarningRateLimit", 0);
+        } else if (level == Level.SEVERE) {
+            limit = propertyInfo.getInt("LogErrorRateLimit", 0);
+        }
+        return limit;
+    }
+
+    @Override
+    public int getLogRateLimitInterval() {
+        return propertyInfo.getInt("LogRateLimitInterval", LoggerManager.DEFAULT_RATE_LIMIT_INTERVAL);
+    }
+
+    @Override
+    public boolean isLogCompressBackup() {
+        return propertyInfo.getBoolean("LogCompressBackup", true);
+    }
+
+    @Override
+    public long getLogBackupMaxTotalLength() {
+        return propertyInfo.getLong("LogBackupMaxTotalLength", 0);
+    }
+
+    @Override
+    public int getLogBackupMaxAge() {
+        return propertyInfo.getInt("LogBackupMaxAge", 0);
+    }
+
+    @Override
+    public LoggerOutputFormat getLogOutputFormat() {
+        String name = propertyInfo.getString("LogOutputFormat", LoggerOutputFormat.TEXT.name());
+        LoggerOutputFormat format = LoggerOutputFormat.TEXT;
+
+        // Le journal lit ce format pendant son initialisation: une valeur inconnue est ignorée sans journalisation
+        for (LoggerOutputFormat value : LoggerOutputFormat.values()) {
+            if (value.name().equalsIgnoreCase(name.trim())) {
+                format = value;
+            }
+        }
+        return format;
+    }
+
     @Override
     public void createProcess() {
         propertyInfo.load();
@@ -1,11 +1,12 @@
 package com.metallicbluedev.core;
 
+import com.metallicbluedev.*;
 import com.metallicbluedev.dto.*;
 import com.metallicbluedev.factory.*;
 import com.metallicbluedev.io.*;
 import com.metallicbluedev.logger.*;
 import java.nio.file.*;
-import javax.swing.event.*;
+import java.util.logging.*;
 
 /**
  *
@@ -17,12 +18,12 @@ public class XmlSettingManager<E extends AppSettings> implements SettingManager
     /**
      * Liste des écouteurs d'événements.
      */
-    private final EventListenerList listeners;
+    private final EventObserverList<SettingEvent, SettingListener> listeners;
 
     private final XmlPropertyInfo<E> propertyInfo;
 
     protected XmlSettingManager(Class<E> type) {
-        listeners = new EventListenerList();
+        listeners = new EventObserverList<>();
 
         if (!FactoryManager.hasInstance(MainManager.class)) {
             throw new IllegalStateException("MainManager is null");
@@ -34,12 +35,12 @@ public class XmlSettingManager<E extends AppSettings> implements SettingManager
 
     @Override
     public void addListener(SettingListener listener) {
-        listeners.add(SettingListener.class, listener);
+        listeners.add(listener);
     }
 
     @Override
     public void removeListener(SettingListener listener) {
-        listeners.remove(SettingListener.class, listener);
+        listeners.remove(listener);
     }
 
     @Override
@@ -87,6 +88,58 @@ public class XmlSettingManager<E extends AppSettings> implements SettingManager
         return getSettings().getLogMaxLength();
     }
 
+    @Override
+    public int getLogHistoryCapacity() {
+        return getSettings().getLogHistoryCapacity();
+    }
+
+    @Override
+    public int getLogFlushInterval() {
+        return getSettings().getLogFlushInterval();
+    }
+
+    @Override
+    public int getLogRateLimit(Level level) {
+        int limit = 0;
+
+        if (level == Level.FINE) {
+            limit = getSettings().getLogDebugRateLimit();
+        } else if (level == Level.INFO) {
+            limit = getSettings().getLogInformationRateLimit();
+        } else if (level == Level.WARNING) {
+            limit = getSettings().getLogWarningRateLimit();
+        } else if (level == Level.SEVERE) {
+            limit = getSettings().getLogErrorRateLimit();
+        }
+        return limit;
+    }
+
+    @Override
+    public int getLogRateLimitInterval() {
+        return getSettings().getLogRateLimitInterval();
+    }
+
+    @Override
+    public boolean isLogCompressBackup() {
+        return getSettings().isLogCompressBackup();
+    }
+
+    @Override
+    public long getLogBackupMaxTotalLength() {
+        return getSettings().getLogBackupMaxTotalLength();
+    }
+
+    @Override
+    public int getLogBackupMaxAge() {
+        return getSettings().getLogBackupMaxAge();
+    }
+
+    @Override
+    public LoggerOutputFormat getLogOutputFormat() {
+        LoggerOutputFormat format = getSettings().getLogOutputFormat();
+        return (format != null) ? format : LoggerOutputFormat.TEXT;
+    }
+
     @Override
     public void createProcess() {
         propertyInfo.load();
@@ -1,5 +1,6 @@
 package com.metallicbluedev.dto;
 
+import com.metallicbluedev.logger.*;
 import jakarta.xml.bind.annotation.*;
 
 /**
@@ -12,6 +13,17 @@ public class AppSettings {
     private boolean writeLogFile = true;
     private int logMaxBackup = 10;
     private int logMaxLength = 1572864;
+    private int logHistoryCapacity = 1000;
+    private LoggerOutputFormat logOutputFormat = LoggerOutputFormat.TEXT;
+    private int logFlushInterval = 200;
+    private int logDebugRateLimit = 0;
+    private int logInformationRateLimit = 0;
+    private int logWarningRateLimit = 0;
+    private int logErrorRateLimit = 0;
+    private int logRateLimitInterval = 10000;
+    private boolean logCompressBackup = true;
+    private long logBackupMaxTotalLength = 0;
+    private int logBackupMaxAge = 0;
     private boolean autoStartPerformanceMeasurement = false;
     private float performanceMeasurementWaitUserFactor = 1F;
 
@@ -23,6 +35,50 @@ public class AppSettings {
         return logMaxLength;
     }
 
+    public int getLogHistoryCapacity() {
+        return logHistoryCapacity;
+    }
+
+    public int getLogDebugRateLimit() {
+        return logDebugRateLimit;
+    }
+
+    public int getLogInformationRateLimit() {
+        return logInformationRateLimit;
+    }
+
+    public int getLogWarningRateLimit() {
+        return logWarningRateLimit;
+    }
+
+    public int getLogErrorRateLimit() {
+        return logErrorRateLimit;
+    }
+
+    public int getLogRateLimitInterval() {
+        return logRateLimitInterval;
+    }
+
+    public boolean isLogCompressBackup() {
+        return logCompressBackup;
+    }
+
+    public long getLogBackupMaxTotalLength() {
+        return logBackupMaxTotalLength;
+    }
+
+    public int getLogBackupMaxAge() {
+        return logBackupMaxAge;
+    }
+
+    public int getLogFlushInterval() {
+        return logFlushInterval;
+    }
+
+    public LoggerOutputFormat getLogOutputFormat() {
+        return logOutputFormat;
+    }
+
     public float getPerformanceMeasurementWaitUserFactor() {
         return performanceMeasurementWaitUserFactor;
     }
@@ -47,6 +103,50 @@ public class AppSettings {
         this.logMaxLength = logMaxLength;
     }
 
+    public void setLogHistoryCapacity(int logHistoryCapacity) {
+        this.logHistoryCapacity = logHistoryCapacity;
+    }
+
+    public void setLogDebugRateLimit(int logDebugRateLimit) {
+        this.logDebugRateLimit = logDebugRateLimit;
+    }
+
+    public void setLogInformationRateLimit(int logInformationRateLimit) {
+        this.logInformationRateLimit = logInformationRateLimit;
+    }
+
+    public void setLogWarningRateLimit(int logWarningRateLimit) {
+        this.logWarningRateLimit = logWarningRateLimit;
+    }
+
+    public void setLogErrorRateLimit(int logErrorRateLimit) {
+        this.logErrorRateLimit = logErrorRateLimit;
+    }
+
+    public void setLogRateLimitInterval(int logRateLimitInterval) {
+        this.logRateLimitInterval = logRateLimitInterval;
+    }
+
+    public void setLogCompressBackup(boolean logCompressBackup) {
+        this.logCompressBackup = logCompressBackup;
+    }
+
+    public void setLogBackupMaxTotalLength(long logBackupMaxTotalLength) {
+        this.logBackupMaxTotalLength = logBackupMaxTotalLength;
+    }
+
+    public void setLogBackupMaxAge(int logBackupMaxAge) {
+        this.logBackupMaxAge = logBackupMaxAge;
+    }
+
+    public void setLogFlushInterval(int logFlushInterval) {
+        this.logFlushInterval = logFlushInterval;
+    }
+
+    public void setLogOutputFormat(LoggerOutputFormat logOutputFormat) {
+        this.logOutputFormat = logOutputFormat;
+    }
+
     public void setPerformanceMeasurementWaitUserFactor(float performanceMeasurementWaitUserFactor) {
         this.performanceMeasurementWaitUserFactor = performanceMeasurementWaitUserFactor;
     }
@@ -11,7 +11,7 @@ import java.util.concurrent.*;
 /**
  * Gestionnaire d'instance.
  *
- * @version 3.00.00
+ * @version 3.01.00
  * @author Sebastien Villemain
  */
 public class FactoryManager {
@@ -91,11 +91,12 @@ public class FactoryManager {
                     manager.createProcess();
 
                     if (canUseLogging()) {
-                        LoggerManager.getInstance().addDebug("Ready to use " + getFullName(superClass, null, manager) + ".");
+                        E readyManager = manager;
+                        LoggerManager.getInstance().addDebugLazy(() -> "Ready to use " + getFullName(superClass, null, readyManager) + ".");
                     }
                 } else {
                     if (canUseLogging()) {
-                        LoggerManager.getInstance().addDebug("Unable to load class " + type.toString() + ".");
+                        LoggerManager.getInstance().addDebug("Unable to load class {0}.", type);
                     }
                 }
             }
@@ -172,7 +173,7 @@ public class FactoryManager {
             Class<? extends EntityProcess> superClass = getSuperclass(entity.getClass());
 
             if (canUseLogging()) {
-                LoggerManager.getInstance().addDebug("Destroy " + getFullName(superClass, null, entity) + ".");
+                LoggerManager.getInstance().addDebugLazy(() -> "Destroy " + getFullName(superClass, null, entity) + ".");
             }
 
             entity.destroyProcess();
@@ -388,7 +389,7 @@ public class FactoryManager {
     @SuppressWarnings("unchecked")
     private static <E extends EntityProcess> E makeInstance(Class<? extends EntityProcess> type) {
         if (canUseLogging()) {
-            LoggerManager.getInstance().addDebug("Make new instance " + getFullName(null, type, null) + ".");
+            LoggerManager.getInstance().addDebugLazy(() -> "Make new instance " + getFullName(null, type, null) + ".");
         }
 
         EntityProcess instance = null;
@@ -76,6 +76,16 @@ public final class SimplePropertyInfo {
         return value;
     }
 
+    public long getLong(String name, long defaultValue) {
+        long value = defaultValue;
+        String valueString = getString(name, null);
+
+        if (valueString != null) {
+            value = ConvertHelper.toLong(valueString, defaultValue);
+        }
+        return value;
+    }
+
     public boolean getBoolean(String name, boolean defaultValue) {
         boolean value = defaultValue;
         String valueString = getString(name, null);
@@ -2,9 +2,18 @@ package com.metallicbluedev.logger;
 
 import com.metallicbluedev.*;
 import com.metallicbluedev.factory.*;
+import java.util.function.*;
 import java.util.logging.*;
 
 /**
+ * Journal d'événement central.
+ * <p>
+ * Un message dont le niveau n'est pas accepté est rejeté dès l'appel.
+ * Pour éviter de construire inutilement le message, utiliser les gardes ({@link #isDebugEnabled()}),
+ * les messages différés ({@link #addDebugLazy(Supplier)}) ou les modèles ({@link #addDebug(String, Object...)}):
+ * les paramètres d'un modèle sont mis en forme par le thread de publication
+ * (syntaxe {@link java.text.MessageFormat}: <code>{0}</code>, <code>{1}</code>...).
+ * Dans une boucle, le journal peut être conservé dans une variable locale pour éviter sa recherche à chaque appel.
  *
  * @author Sébastien Villemain
  */
@@ -50,6 +59,42 @@ public interface CentralizedLoggerManager extends EntityProcess, EventObservable
      */
     public void addMessage(LogRecord message);
 
+    /**
+     * Détermine si les messages de ce niveau sont acceptés.
+     *
+     * @param level
+     * @return
+     */
+    public boolean isLoggable(Level level);
+
+    /**
+     * Détermine si les messages de debug sont acceptés.
+     *
+     * @return
+     */
+    public boolean isDebugEnabled();
+
+    /**
+     * Détermine si les messages d'information sont acceptés.
+     *
+     * @return
+     */
+    public boolean isInformationEnabled();
+
+    /**
+     * Détermine si les messages d'avertissement sont acceptés.
+     *
+     * @return
+     */
+    public boolean isWarningEnabled();
+
+    /**
+     * Détermine si les messages d'erreur sont acceptés.
+     *
+     * @return
+     */
+    public boolean isErrorEnabled();
+
     /**
      * Ajout d'un message de debug.
      *
@@ -57,6 +102,21 @@ public interface CentralizedLoggerManager extends EntityProcess, EventObservable
      */
     public void addDebug(String message);
 
+    /**
+     * Ajout d'un message de debug construit uniquement si le niveau est accepté.
+     *
+     * @param message
+     */
+    public void addDebugLazy(Supplier<String> message);
+
+    /**
+     * Ajout d'un message de debug mis en forme uniquement si le niveau est accepté.
+     *
+     * @param pattern
+     * @param arguments
+     */
+    public void addDebug(String pattern, Object... arguments);
+
     /**
      * Ajout d'un message d'information.
      *
@@ -64,6 +124,21 @@ public interface CentralizedLoggerManager extends EntityProcess, EventObservable
      */
     public void addInformation(String message);
 
+    /**
+     * Ajout d'un message d'information construit uniquement si le niveau est accepté.
+     *
+     * @param message
+     */
+    public void addInformationLazy(Supplier<String> message);
+
+    /**
+     * Ajout d'un message d'information mis en forme uniquement si le niveau est accepté.
+     *
+     * @param pattern
+     * @param arguments
+     */
+    public void addInformation(String pattern, Object... arguments);
+
     /**
      * Ajout d'un message d'avertissement.
      *
@@ -71,6 +146,21 @@ public interface CentralizedLoggerManager extends EntityProcess, EventObservable
      */
     public void addWarning(String message);
 
+    /**
+     * Ajout d'un message d'avertissement construit uniquement si le niveau est accepté.
+     *
+     * @param message
+     */
+    public void addWarningLazy(Supplier<String> message);
+
+    /**
+     * Ajout d'un message d'avertissement mis en forme uniquement si le niveau est accepté.
+     *
+     * @param pattern
+     * @param arguments
+     */
+    public void addWarning(String pattern, Object... arguments);
+
     /**
      * Ajout d'un message d'erreur.
      *
@@ -78,6 +168,13 @@ public interface CentralizedLoggerManager extends EntityProcess, EventObservable
      */
     public void addError(String message);
 
+    /**
+     * Ajout d'un message d'erreur construit uniquement si le niveau est accepté.
+     *
+     * @param message
+     */
+    public void addErrorLazy(Supplier<String> message);
+
     /**
      * Ajout d'un message d'erreur.
      *
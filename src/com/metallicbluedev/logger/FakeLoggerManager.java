@@ -1,5 +1,6 @@
 package com.metallicbluedev.logger;
 
+import java.util.function.*;
 import java.util.logging.*;
 
 /**
@@ -20,14 +21,34 @@ public class FakeLoggerManager implements CentralizedLoggerManager {
     public void addError(String message) {
     }
 
+    @Override
+    public void addErrorLazy(Supplier<String> message) {
+    }
+
     @Override
     public void addDebug(String message) {
     }
 
+    @Override
+    public void addDebugLazy(Supplier<String> message) {
+    }
+
+    @Override
+    public void addDebug(String pattern, Object... arguments) {
+    }
+
     @Override
     public void addInformation(String message) {
     }
 
+    @Override
+    public void addInformationLazy(Supplier<String> message) {
+    }
+
+    @Override
+    public void addInformation(String pattern, Object... arguments) {
+    }
+
     @Override
     public void addListener(LoggerListener listener) {
     }
@@ -40,6 +61,39 @@ public class FakeLoggerManager implements CentralizedLoggerManager {
     public void addWarning(String message) {
     }
 
+    @Override
+    public void addWarningLazy(Supplier<String> message) {
+    }
+
+    @Override
+    public void addWarning(String pattern, Object... arguments) {
+    }
+
+    @Override
+    public boolean isLoggable(Level level) {
+        return false;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isInformationEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isWarningEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return false;
+    }
+
     @Override
     public void setLevelOff() {
     }
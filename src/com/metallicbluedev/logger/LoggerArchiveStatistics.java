@@ -0,0 +1,175 @@
+package com.metallicbluedev.logger;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Statistiques de l'archivage des fichiers journaux.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public final class LoggerArchiveStatistics {
+
+    /**
+     * Nombre de fichiers archivés.
+     */
+    private final LongAdder archivedCount = new LongAdder();
+
+    /**
+     * Taille cumulée des fichiers archivés, avant compression.
+     */
+    private final LongAdder archivedLength = new LongAdder();
+
+    /**
+     * Taille cumulée des archives produites.
+     */
+    private final LongAdder compressedLength = new LongAdder();
+
+    /**
+     * Durée cumulée de l'archivage (en nanosecondes).
+     */
+    private final LongAdder archiveTime = new LongAdder();
+
+    /**
+     * Nombre d'archives supprimées par la politique de conservation.
+     */
+    private final LongAdder deletedCount = new LongAdder();
+
+    /**
+     * Nombre d'archivages en échec.
+     */
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * Nombre de fichiers en attente d'archivage.
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    LoggerArchiveStatistics() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Retourne le nombre de fichiers archivés.
+     *
+     * @return
+     */
+    public long getArchivedCount() {
+        return archivedCount.sum();
+    }
+
+    /**
+     * Retourne la taille cumulée des fichiers archivés, avant compression (en octets).
+     *
+     * @return
+     */
+    public long getArchivedLength() {
+        return archivedLength.sum();
+    }
+
+    /**
+     * Retourne la taille cumulée des archives produites (en octets).
+     *
+     * @return
+     */
+    public long getCompressedLength() {
+        return compressedLength.sum();
+    }
+
+    /**
+     * Retourne le taux de compression: la taille des archives rapportée à celle des fichiers archivés.
+     *
+     * @return Entre 0 et 1, 1 sans archive.
+     */
+    public double getCompressionRatio() {
+        long length = getArchivedLength();
+        return (length > 0) ? (double) getCompressedLength() / length : 1;
+    }
+
+    /**
+     * Retourne la durée cumulée de l'archivage.
+     *
+     * @param unit
+     * @return
+     */
+    public long getArchiveTime(TimeUnit unit) {
+        return unit.convert(archiveTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Retourne le nombre d'archives supprimées par la politique de conservation.
+     *
+     * @return
+     */
+    public long getDeletedCount() {
+        return deletedCount.sum();
+    }
+
+    /**
+     * Retourne le nombre d'archivages en échec.
+     *
+     * @return
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * Retourne le nombre de fichiers en attente d'archivage.
+     *
+     * @return
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Remise à zéro des compteurs.
+     */
+    public void reset() {
+        archivedCount.reset();
+        archivedLength.reset();
+        compressedLength.reset();
+        archiveTime.reset();
+        deletedCount.reset();
+        failedCount.reset();
+    }
+
+    /**
+     * Retourne le résumé des statistiques.
+     *
+     * @return
+     */
+    public String getInformation() {
+        return "Archived=" + getArchivedCount()
+               + " ArchivedLength=" + getArchivedLength()
+               + " CompressedLength=" + getCompressedLength()
+               + " CompressionRatio=" + Math.round(getCompressionRatio() * 100) + "%"
+               + " ArchiveTime=" + getArchiveTime(TimeUnit.MILLISECONDS) + "ms"
+               + " Deleted=" + getDeletedCount()
+               + " Failed=" + getFailedCount()
+               + " Pending=" + getPendingCount();
+    }
+
+    void onQueued() {
+        pendingCount.incrementAndGet();
+    }
+
+    void onArchived(long length, long archiveLength, long duration) {
+        pendingCount.decrementAndGet();
+        archivedCount.increment();
+        archivedLength.add(length);
+        compressedLength.add(archiveLength);
+        archiveTime.add(duration);
+    }
+
+    void onFailed() {
+        pendingCount.decrementAndGet();
+        failedCount.increment();
+    }
+
+    void onDeleted() {
+        deletedCount.increment();
+    }
+}
@@ -0,0 +1,459 @@
+package com.metallicbluedev.logger;
+
+import com.metallicbluedev.threading.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+import java.util.zip.*;
+
+/**
+ * Archivage des fichiers journaux par un thread de faible priorité.
+ * <p>
+ * Le flux du fichier journal renomme simplement le fichier plein (<code>.pending</code>)
+ * avant d'en ouvrir un nouveau: il n'attend jamais l'archivage.
+ * Le thread d'archivage décale ensuite les générations, compresse le fichier (gzip)
+ * en génération 1 puis applique la politique de conservation:
+ * nombre de générations, taille cumulée et âge des archives.
+ * Les fichiers en attente lors d'un arrêt sont archivés au démarrage suivant.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+final class LoggerArchiver implements ServiceProcess {
+
+    /**
+     * Extension des archives compressées.
+     */
+    static final String ARCHIVE_EXTENSION = ".gz";
+
+    /**
+     * Extension des fichiers en attente d'archivage.
+     */
+    private static final String PENDING_EXTENSION = ".pending";
+
+    /**
+     * Taille du tampon de compression.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Temps accordé aux archivages en attente lors de l'arrêt (en secondes).
+     */
+    private static final int SHUTDOWN_TIMEOUT = 10;
+
+    /**
+     * Demande d'arrêt du thread.
+     */
+    private static final Segment STOP = new Segment(null, null);
+
+    /**
+     * Les fichiers à archiver, dans l'ordre de l'archivage.
+     */
+    private final BlockingQueue<Segment> segments = new LinkedBlockingQueue<>();
+
+    /**
+     * Les fichiers en attente déjà demandés, qui ne sont pas repris.
+     */
+    private final Set<Path> queuedPaths = ConcurrentHashMap.newKeySet();
+
+    private final LoggerArchiveStatistics statistics;
+
+    /**
+     * Détermine si les archives sont compressées.
+     */
+    private volatile boolean compress = true;
+
+    /**
+     * Taille cumulée maximum des archives (0 sans limite).
+     */
+    private volatile long maxTotalLength = 0;
+
+    /**
+     * Age maximum des archives (en millisecondes, 0 sans limite).
+     */
+    private volatile long maxAge = 0;
+
+    /**
+     * Dernier horodatage d'un fichier en attente.
+     */
+    private long lastPendingStamp = 0;
+
+    /**
+     * Détermine si le thread d'archivage est démarré.
+     */
+    private volatile boolean running = false;
+
+    /**
+     * Le thread d'archivage.
+     */
+    private Thread thread = null;
+
+    LoggerArchiver(LoggerArchiveStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Change la compression des archives.
+     *
+     * @param compress
+     */
+    void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    /**
+     * Détermine si les archives sont compressées.
+     *
+     * @return
+     */
+    boolean isCompress() {
+        return compress;
+    }
+
+    /**
+     * Change la taille cumulée maximum des archives.
+     *
+     * @param maxTotalLength En octets, 0 sans limite.
+     */
+    void setMaxTotalLength(long maxTotalLength) {
+        this.maxTotalLength = Math.max(0, maxTotalLength);
+    }
+
+    /**
+     * Retourne la taille cumulée maximum des archives (en octets, 0 sans limite).
+     *
+     * @return
+     */
+    long getMaxTotalLength() {
+        return maxTotalLength;
+    }
+
+    /**
+     * Change l'âge maximum des archives.
+     *
+     * @param maxAge
+     * @param unit
+     */
+    void setMaxAge(long maxAge, TimeUnit unit) {
+        this.maxAge = Math.max(0, unit.toMillis(maxAge));
+    }
+
+    /**
+     * Retourne l'âge maximum des archives (0 sans limite).
+     *
+     * @param unit
+     * @return
+     */
+    long getMaxAge(TimeUnit unit) {
+        return unit.convert(maxAge, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retourne un nouveau chemin d'attente pour le fichier courant du flux.
+     *
+     * @param handler
+     * @return
+     */
+    synchronized Path getPendingPath(LoggerFileHandler handler) {
+        // Horodatage croissant: les fichiers en attente sont archivés dans leur ordre de création
+        lastPendingStamp = Math.max(System.currentTimeMillis(), lastPendingStamp + 1);
+
+        Path current = handler.getGenerationPath(0);
+        return current.resolveSibling(current.getFileName() + "." + lastPendingStamp + PENDING_EXTENSION);
+    }
+
+    /**
+     * Demande l'archivage d'un fichier en attente.
+     *
+     * @param handler
+     * @param pendingPath
+     */
+    void archive(LoggerFileHandler handler, Path pendingPath) {
+        Path absolutePath = pendingPath.toAbsolutePath();
+
+        if (queuedPaths.add(absolutePath)) {
+            statistics.onQueued();
+            submit(new Segment(handler, absolutePath));
+        }
+    }
+
+    /**
+     * Reprise des fichiers restés en attente et application de la politique de conservation.
+     *
+     * @param handler
+     */
+    void recover(LoggerFileHandler handler) {
+        Path current = handler.getGenerationPath(0).toAbsolutePath();
+        Path folder = current.getParent();
+        String prefix = current.getFileName() + ".";
+        List<Path> pendingPaths = Collections.emptyList();
+
+        if (folder != null && Files.isDirectory(folder)) {
+            try (Stream<Path> files = Files.list(folder)) {
+                pendingPaths = files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(PENDING_EXTENSION);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+            } catch (IOException ex) {
+                LoggerManager.getInstance().addError(ex);
+            }
+        }
+
+        for (Path pendingPath : pendingPaths) {
+            archive(handler, pendingPath);
+        }
+
+        // Sans fichier en attente, les archives trop anciennes sont tout de même supprimées
+        if (pendingPaths.isEmpty() && (maxTotalLength > 0 || maxAge > 0)) {
+            submit(new Segment(handler, null));
+        }
+    }
+
+    @Override
+    public void run() {
+        boolean stopped = false;
+
+        while (!stopped) {
+            Segment segment;
+
+            try {
+                segment = segments.take();
+            } catch (InterruptedException ex) {
+                segment = STOP;
+            }
+
+            if (segment == STOP) {
+                stopped = true;
+            } else {
+                process(segment);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!running) {
+            running = true;
+            thread = new ThreadHolderTask(this, LoggerArchiver.class.getSimpleName());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+    }
+
+    /**
+     * Arrêt du thread après l'archivage des fichiers en attente.
+     */
+    @Override
+    public void stop() {
+        Thread currentThread;
+
+        synchronized (this) {
+            currentThread = thread;
+
+            if (running) {
+                running = false;
+                thread = null;
+                segments.add(STOP);
+            }
+        }
+
+        if (currentThread != null) {
+            try {
+                currentThread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean running() {
+        return running;
+    }
+
+    private void submit(Segment segment) {
+        segments.add(segment);
+        start();
+    }
+
+    /**
+     * Archivage d'un fichier puis application de la politique de conservation.
+     *
+     * @param segment
+     */
+    private void process(Segment segment) {
+        LoggerFileHandler handler = segment.handler;
+        int count = handler.getCount();
+
+        if (segment.pendingPath != null) {
+            long startTime = System.nanoTime();
+
+            try {
+                long length = Files.size(segment.pendingPath);
+                shiftGenerations(handler, count);
+                long archiveLength = moveToArchive(segment.pendingPath, handler.getGenerationPath(1));
+                statistics.onArchived(length, archiveLength, System.nanoTime() - startTime);
+            } catch (IOException | RuntimeException ex) {
+                statistics.onFailed();
+                LoggerManager.getInstance().addError(ex);
+            } finally {
+                queuedPaths.remove(segment.pendingPath);
+            }
+        }
+
+        try {
+            applyRetention(handler, count);
+        } catch (IOException | RuntimeException ex) {
+            LoggerManager.getInstance().addError(ex);
+        }
+    }
+
+    /**
+     * Décalage des générations archivées, la plus ancienne est supprimée.
+     *
+     * @param handler
+     * @param count
+     * @throws IOException
+     */
+    private void shiftGenerations(LoggerFileHandler handler, int count) throws IOException {
+        deleteGeneration(handler, count - 1);
+
+        for (int generation = count - 2; generation >= 1; generation--) {
+            for (Path source : getArchivePaths(handler, generation)) {
+                Path target = handler.getGenerationPath(generation + 1);
+
+                if (source.getFileName().toString().endsWith(ARCHIVE_EXTENSION)) {
+                    target = toArchivePath(target);
+                }
+
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Archivage du fichier en attente à la génération 1.
+     *
+     * @param pendingPath
+     * @param target
+     * @return La taille de l'archive.
+     * @throws IOException
+     */
+    private long moveToArchive(Path pendingPath, Path target) throws IOException {
+        long archiveLength;
+
+        if (compress) {
+            Path archivePath = toArchivePath(target);
+            Path temporaryPath = archivePath.resolveSibling(archivePath.getFileName() + ".tmp");
+
+            try (InputStream input = Files.newInputStream(pendingPath);
+                 OutputStream output = new GZIPOutputStream(Files.newOutputStream(temporaryPath), BUFFER_SIZE)) {
+                input.transferTo(output);
+            }
+
+            // L'âge de l'archive reste celui de la dernière écriture du journal
+            Files.setLastModifiedTime(temporaryPath, Files.getLastModifiedTime(pendingPath));
+            Files.move(temporaryPath, archivePath, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(pendingPath);
+            archiveLength = Files.size(archivePath);
+        } else {
+            Files.move(pendingPath, target, StandardCopyOption.REPLACE_EXISTING);
+            archiveLength = Files.size(target);
+        }
+        return archiveLength;
+    }
+
+    /**
+     * Suppression des archives au-delà de la taille cumulée ou de l'âge maximum.
+     * Les générations sont parcourues de la plus récente à la plus ancienne:
+     * une archive supprimée entraîne la suppression des plus anciennes.
+     *
+     * @param handler
+     * @param count
+     * @throws IOException
+     */
+    private void applyRetention(LoggerFileHandler handler, int count) throws IOException {
+        long currentMaxTotalLength = maxTotalLength;
+        long currentMaxAge = maxAge;
+
+        if (currentMaxTotalLength > 0 || currentMaxAge > 0) {
+            long oldestTime = System.currentTimeMillis() - currentMaxAge;
+            long totalLength = 0;
+            boolean retained = true;
+
+            for (int generation = 1; generation < count; generation++) {
+                for (Path archivePath : getArchivePaths(handler, generation)) {
+                    if (retained) {
+                        long length = Files.size(archivePath);
+                        totalLength += length;
+
+                        retained = (currentMaxTotalLength <= 0 || totalLength <= currentMaxTotalLength)
+                                   && (currentMaxAge <= 0 || Files.getLastModifiedTime(archivePath).toMillis() >= oldestTime);
+                    }
+
+                    if (!retained) {
+                        Files.deleteIfExists(archivePath);
+                        statistics.onDeleted();
+                    }
+                }
+            }
+        }
+    }
+
+    private void deleteGeneration(LoggerFileHandler handler, int generation) throws IOException {
+        for (Path archivePath : getArchivePaths(handler, generation)) {
+            Files.deleteIfExists(archivePath);
+            statistics.onDeleted();
+        }
+    }
+
+    /**
+     * Retourne les fichiers existants d'une génération archivée, compressée ou non.
+     *
+     * @param handler
+     * @param generation
+     * @return
+     */
+    private static List<Path> getArchivePaths(LoggerFileHandler handler, int generation) {
+        List<Path> archivePaths = new ArrayList<>(2);
+        Path path = handler.getGenerationPath(generation);
+        Path archivePath = toArchivePath(path);
+
+        if (Files.exists(path)) {
+            archivePaths.add(path);
+        }
+
+        if (Files.exists(archivePath)) {
+            archivePaths.add(archivePath);
+        }
+        return archivePaths;
+    }
+
+    private static Path toArchivePath(Path path) {
+        return path.resolveSibling(path.getFileName() + ARCHIVE_EXTENSION);
+    }
+
+    /**
+     * Fichier en attente d'archivage.
+     */
+    private static final class Segment {
+
+        private final LoggerFileHandler handler;
+
+        /**
+         * Le fichier en attente, <code>null</code> pour appliquer seulement la politique de conservation.
+         */
+        private final Path pendingPath;
+
+        private Segment(LoggerFileHandler handler, Path pendingPath) {
+            this.handler = handler;
+            this.pendingPath = pendingPath;
+        }
+    }
+}
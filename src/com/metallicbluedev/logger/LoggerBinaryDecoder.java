@@ -0,0 +1,439 @@
+package com.metallicbluedev.logger;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.text.*;
+import java.time.*;
+import java.util.*;
+import java.util.logging.*;
+import java.util.zip.*;
+
+/**
+ * Lecture d'un fichier journal binaire ({@link LoggerOutputFormat#BINARY}).
+ * <p>
+ * Les messages sont rendus au format texte de {@link LoggerFormatter}.
+ * En ligne de commande, les fichiers demandés sont écrits sur la sortie standard,
+ * y compris les archives compressées (<code>.gz</code>):
+ * <pre>
+ * java com.metallicbluedev.logger.LoggerBinaryDecoder App.log [App.log.1.gz ...]
+ * </pre>
+ *
+ * @version 1.01.01
+ * @author Sebastien Villemain
+ */
+public final class LoggerBinaryDecoder implements Closeable {
+
+    /**
+     * Le flux du fichier.
+     */
+    private final DataInputStream input;
+
+    /**
+     * Mise en forme du texte.
+     */
+    private final LoggerFormatter formatter = new LoggerFormatter();
+
+    /**
+     * Les chaînes du dictionnaire, dans l'ordre de leur définition.
+     */
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * Les piles d'appel, dans l'ordre de leur définition.
+     */
+    private final List<StackTraceElement[]> traces = new ArrayList<>();
+
+    /**
+     * Les niveaux déjà relus.
+     */
+    private final Map<String, Level> levels = new HashMap<>();
+
+    /**
+     * Date du message précédent (en millisecondes).
+     */
+    private long lastMillis = 0;
+
+    /**
+     * Détermine si le premier en-tête est lu.
+     */
+    private boolean headerRead = false;
+
+    /**
+     * Nouvelle lecture du flux.
+     *
+     * @param input
+     */
+    public LoggerBinaryDecoder(InputStream input) {
+        this.input = new DataInputStream(new BufferedInputStream(input));
+    }
+
+    /**
+     * Ecrit le texte des fichiers sur la sortie standard.
+     *
+     * @param args Les chemins des fichiers.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java " + LoggerBinaryDecoder.class.getName() + " <file> [<file> ...]");
+            System.exit(1);
+        }
+
+        int status = 0;
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()));
+
+        try {
+            for (String path : args) {
+                try (LoggerBinaryDecoder decoder = new LoggerBinaryDecoder(openFile(path))) {
+                    decoder.decodeTo(output);
+                } catch (EOFException ex) {
+                    System.err.println(path + ": truncated file.");
+                    status = 2;
+                } catch (IOException ex) {
+                    System.err.println(path + ": " + ex.getMessage());
+                    status = 2;
+                }
+            }
+
+            output.flush();
+        } catch (IOException ex) {
+            System.err.println(ex.getMessage());
+            status = 2;
+        }
+
+        System.exit(status);
+    }
+
+    /**
+     * Ouverture du fichier, décompressé s'il s'agit d'une archive.
+     *
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    private static InputStream openFile(String path) throws IOException {
+        InputStream input = new FileInputStream(path);
+
+        if (path.endsWith(LoggerArchiver.ARCHIVE_EXTENSION)) {
+            try {
+                input = new GZIPInputStream(input);
+            } catch (IOException ex) {
+                input.close();
+                throw ex;
+            }
+        }
+        return input;
+    }
+
+    /**
+     * Ecrit le texte de tous les messages restants.
+     *
+     * @param output
+     * @throws IOException
+     * @throws EOFException Si le dernier message est incomplet.
+     */
+    public void decodeTo(Writer output) throws IOException {
+        StringBuilder str = LoggerFormatter.getBuilder();
+
+        while (readRecord(str)) {
+            output.append(str);
+            str.setLength(0);
+        }
+    }
+
+    /**
+     * Ajoute le texte du prochain message.
+     *
+     * @param str
+     * @return <code>false</code> à la fin du fichier.
+     * @throws IOException
+     * @throws EOFException Si le message est incomplet.
+     */
+    public boolean readRecord(StringBuilder str) throws IOException {
+        boolean found = false;
+        int tag;
+
+        while (!found && (tag = input.read()) >= 0) {
+            if (tag == LoggerBinaryEncoder.MAGIC[0]) {
+                readHeader();
+            } else if (!headerRead) {
+                throw new IOException("Not a binary log file.");
+            } else if (tag == LoggerBinaryEncoder.TAG_STRING) {
+                strings.add(readUtf8());
+            } else if (tag == LoggerBinaryEncoder.TAG_TRACE) {
+                traces.add(readFrames());
+            } else if (tag == LoggerBinaryEncoder.TAG_RECORD) {
+                readRecordEntry(str);
+                found = true;
+            } else {
+                throw new IOException("Unknown entry type " + tag + ".");
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Lecture de l'en-tête, qui remet le dictionnaire à zéro.
+     *
+     * @throws IOException
+     */
+    private void readHeader() throws IOException {
+        for (int i = 1; i < LoggerBinaryEncoder.MAGIC.length; i++) {
+            if (input.readUnsignedByte() != LoggerBinaryEncoder.MAGIC[i]) {
+                throw new IOException("Not a binary log file.");
+            }
+        }
+
+        int version = input.readUnsignedByte();
+
+        if (version != LoggerBinaryEncoder.VERSION) {
+            throw new IOException("Unsupported binary log version " + version + ".");
+        }
+
+        strings.clear();
+        traces.clear();
+        lastMillis = 0;
+        headerRead = true;
+    }
+
+    private void readRecordEntry(StringBuilder str) throws IOException {
+        long millis = lastMillis + readSignedVarint();
+        lastMillis = millis;
+
+        Level level = getLevel(readString());
+        String loggerName = readString();
+        String sourceClassName = readString();
+        String threadName = readString();
+        long threadId = readVarint();
+        LoggerContext context = LoggerContext.EMPTY;
+
+        for (int i = readCount(); i > 0; i--) {
+            String key = readString();
+            String value = readString();
+
+            if (key == null) {
+                throw new IOException("Malformed context.");
+            }
+
+            context = context.with(key, value);
+        }
+
+        String message = readMessage();
+
+        LoggerRecord record = new LoggerRecord(level, message, threadName, context);
+        record.setInstant(Instant.ofEpochMilli(millis));
+        record.setLoggerName(loggerName);
+        record.setSourceClassName(sourceClassName);
+        record.setLongThreadID(threadId);
+        formatter.formatTo(record, str);
+
+        if (input.readUnsignedByte() != 0) {
+            String type = readString();
+            String cause = readString();
+            String thrownMessage = readString();
+            StackTraceElement[] trace = readTrace();
+
+            // Comme LoggerFormatter, l'exception n'est décrite que pour un message d'erreur
+            if (level == Level.SEVERE) {
+                LoggerFormatter.appendThrown("class " + type, cause, thrownMessage, trace, str);
+            }
+        }
+    }
+
+    /**
+     * Lecture du message, mis en forme avec ses paramètres.
+     *
+     * @return
+     * @throws IOException
+     */
+    private String readMessage() throws IOException {
+        String message;
+
+        if (input.readUnsignedByte() == LoggerBinaryEncoder.MESSAGE_TEMPLATE) {
+            String pattern = readString();
+
+            if (pattern == null) {
+                throw new IOException("Malformed message.");
+            }
+
+            List<Object> parameters = new ArrayList<>();
+
+            for (int i = readCount(); i > 0; i--) {
+                parameters.add(readArgument());
+            }
+
+            try {
+                message = MessageFormat.format(pattern, parameters.toArray());
+            } catch (IllegalArgumentException ex) {
+                // Le modèle invalide est conservé tel quel
+                message = pattern;
+            }
+        } else {
+            message = readString();
+        }
+        return message;
+    }
+
+    private Object readArgument() throws IOException {
+        Object argument;
+        int type = input.readUnsignedByte();
+
+        switch (type) {
+            case LoggerBinaryEncoder.ARGUMENT_NULL:
+                argument = null;
+                break;
+            case LoggerBinaryEncoder.ARGUMENT_STRING:
+                argument = readString();
+                break;
+            case LoggerBinaryEncoder.ARGUMENT_LONG:
+                argument = readSignedVarint();
+                break;
+            case LoggerBinaryEncoder.ARGUMENT_DOUBLE:
+                argument = Double.longBitsToDouble(input.readLong());
+                break;
+            default:
+                throw new IOException("Unknown argument type " + type + ".");
+        }
+        return argument;
+    }
+
+    private StackTraceElement[] readTrace() throws IOException {
+        StackTraceElement[] trace;
+        int id = readCount();
+
+        if (id == LoggerBinaryEncoder.TRACE_INLINE) {
+            trace = readFrames();
+        } else if (id <= traces.size()) {
+            trace = traces.get(id - 1);
+        } else {
+            throw new IOException("Unknown stack trace " + id + ".");
+        }
+        return trace;
+    }
+
+    private StackTraceElement[] readFrames() throws IOException {
+        List<StackTraceElement> trace = new ArrayList<>();
+
+        for (int i = readCount(); i > 0; i--) {
+            String className = readString();
+            String methodName = readString();
+            String fileName = readString();
+            int lineNumber = (int) readSignedVarint();
+
+            if (className == null || methodName == null) {
+                throw new IOException("Malformed stack trace.");
+            }
+
+            trace.add(new StackTraceElement(className, methodName, fileName, lineNumber));
+        }
+        return trace.toArray(new StackTraceElement[0]);
+    }
+
+    /**
+     * Lecture de la référence à une chaîne.
+     *
+     * @return
+     * @throws IOException
+     */
+    private String readString() throws IOException {
+        String value;
+        int id = readCount();
+
+        if (id == LoggerBinaryEncoder.REF_NULL) {
+            value = null;
+        } else if (id == LoggerBinaryEncoder.REF_INLINE) {
+            value = readUtf8();
+        } else if (id - LoggerBinaryEncoder.FIRST_STRING_ID < strings.size()) {
+            value = strings.get(id - LoggerBinaryEncoder.FIRST_STRING_ID);
+        } else {
+            throw new IOException("Unknown string " + id + ".");
+        }
+        return value;
+    }
+
+    private String readUtf8() throws IOException {
+        int length = readCount();
+
+        // Lecture progressive: une longueur corrompue n'alloue pas plus que le reste du fichier
+        byte[] bytes = input.readNBytes(length);
+
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lecture d'une taille ou d'un identifiant.
+     *
+     * @return
+     * @throws IOException Si la valeur n'est pas un entier positif.
+     */
+    private int readCount() throws IOException {
+        long value = readVarint();
+
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Malformed length " + Long.toUnsignedString(value) + ".");
+        }
+        return (int) value;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+
+        do {
+            if (shift >= 64) {
+                throw new IOException("Malformed variable-length integer.");
+            }
+
+            b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private long readSignedVarint() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Retourne le niveau du nom, un niveau inconnu est relu comme une information.
+     *
+     * @param name
+     * @return
+     */
+    private Level getLevel(String name) {
+        Level level = levels.get(name);
+
+        if (level == null) {
+            try {
+                level = Level.parse(name);
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                level = new DecodedLevel(String.valueOf(name));
+            }
+
+            levels.put(name, level);
+        }
+        return level;
+    }
+
+    /**
+     * Niveau inconnu de cette application.
+     */
+    private static final class DecodedLevel extends Level {
+
+        private static final long serialVersionUID = 1L;
+
+        private DecodedLevel(String name) {
+            super(name, Level.INFO.intValue());
+        }
+    }
+}
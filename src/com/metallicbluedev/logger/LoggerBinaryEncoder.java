@@ -0,0 +1,527 @@
+package com.metallicbluedev.logger;
+
+import java.util.*;
+import java.util.logging.*;
+
+/**
+ * Encodage binaire des messages d'un fichier journal.
+ * <p>
+ * Le fichier commence par un en-tête, suivi d'entrées qui débutent chacune par leur type:
+ * <ul>
+ * <li>une chaîne du dictionnaire (le nom du journal, la classe source, le modèle du message...),
+ * écrite une seule fois puis désignée par son numéro;</li>
+ * <li>une pile d'appel, écrite une seule fois puis désignée par son numéro;</li>
+ * <li>un message: la date en écart avec le message précédent, le niveau, le journal,
+ * la classe source, le thread, le contexte de diagnostic, le modèle du message et ses paramètres
+ * (sans mise en forme) et l'exception jointe.</li>
+ * </ul>
+ * Les entiers sont écrits sur un nombre variable d'octets (7 bits par octet).
+ * Le dictionnaire est propre à chaque fichier: un nouvel en-tête le remet à zéro.
+ * Le fichier est relu par {@link LoggerBinaryDecoder}.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+final class LoggerBinaryEncoder {
+
+    /**
+     * Début de l'en-tête du fichier.
+     */
+    static final byte[] MAGIC = {'M', 'B', 'L', 'G'};
+
+    /**
+     * Version du format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Entrée: nouvelle chaîne du dictionnaire.
+     */
+    static final int TAG_STRING = 1;
+
+    /**
+     * Entrée: nouvelle pile d'appel.
+     */
+    static final int TAG_TRACE = 2;
+
+    /**
+     * Entrée: message du journal.
+     */
+    static final int TAG_RECORD = 3;
+
+    /**
+     * Référence à une chaîne absente.
+     */
+    static final int REF_NULL = 0;
+
+    /**
+     * Référence à une chaîne écrite sur place, hors dictionnaire.
+     */
+    static final int REF_INLINE = 1;
+
+    /**
+     * Numéro de la première chaîne du dictionnaire.
+     */
+    static final int FIRST_STRING_ID = 2;
+
+    /**
+     * Référence à une pile d'appel écrite sur place.
+     */
+    static final int TRACE_INLINE = 0;
+
+    /**
+     * Message déjà mis en forme.
+     */
+    static final int MESSAGE_TEXT = 0;
+
+    /**
+     * Modèle du message et ses paramètres.
+     */
+    static final int MESSAGE_TEMPLATE = 1;
+
+    static final int ARGUMENT_NULL = 0;
+
+    static final int ARGUMENT_STRING = 1;
+
+    static final int ARGUMENT_LONG = 2;
+
+    static final int ARGUMENT_DOUBLE = 3;
+
+    /**
+     * Nombre maximum de chaînes du dictionnaire d'un fichier.
+     * Au-delà, les nouvelles chaînes sont écrites sur place.
+     */
+    private static final int MAX_STRINGS = 16384;
+
+    /**
+     * Longueur maximum d'une chaîne du dictionnaire.
+     */
+    private static final int MAX_STRING_LENGTH = 1024;
+
+    /**
+     * Nombre maximum de piles d'appel d'un fichier.
+     */
+    private static final int MAX_TRACES = 4096;
+
+    /**
+     * Les numéros des chaînes du dictionnaire.
+     */
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    /**
+     * Les numéros des piles d'appel.
+     */
+    private final Map<TraceKey, Integer> traces = new HashMap<>();
+
+    /**
+     * Les entrées du message: l'en-tête et les définitions, puis le message.
+     */
+    private final ByteSink output = new ByteSink();
+
+    /**
+     * Le message en cours d'encodage.
+     */
+    private final ByteSink recordSink = new ByteSink();
+
+    /**
+     * La pile d'appel en cours d'encodage.
+     */
+    private final ByteSink traceSink = new ByteSink();
+
+    /**
+     * Date du message précédent (en millisecondes).
+     */
+    private long lastMillis = 0;
+
+    /**
+     * Détermine si l'en-tête est écrit.
+     */
+    private boolean headerWritten = false;
+
+    /**
+     * Remise à zéro du dictionnaire, pour un nouveau fichier.
+     * Le prochain message est précédé d'un en-tête.
+     */
+    void reset() {
+        strings.clear();
+        traces.clear();
+        lastMillis = 0;
+        headerWritten = false;
+    }
+
+    /**
+     * Encodage du message.
+     * En cas d'échec, le dictionnaire est remis à zéro.
+     *
+     * @param record
+     */
+    void encode(LogRecord record) {
+        output.clear();
+        recordSink.clear();
+
+        try {
+            if (!headerWritten) {
+                output.writeBytes(MAGIC);
+                output.writeByte(VERSION);
+                headerWritten = true;
+            }
+
+            encodeRecord(record);
+            output.write(recordSink);
+            lastMillis = record.getMillis();
+        } catch (RuntimeException ex) {
+            // Les définitions déjà retenues ne seront jamais écrites
+            reset();
+            throw ex;
+        }
+    }
+
+    /**
+     * Retourne les octets encodés.
+     *
+     * @return
+     */
+    byte[] getBytes() {
+        return output.bytes;
+    }
+
+    /**
+     * Retourne le nombre d'octets encodés.
+     *
+     * @return
+     */
+    int getLength() {
+        return output.length;
+    }
+
+    private void encodeRecord(LogRecord record) {
+        String threadName = null;
+        LoggerContext context = LoggerContext.EMPTY;
+
+        if (record instanceof LoggerRecord loggerRecord) {
+            threadName = loggerRecord.getThreadName();
+            context = loggerRecord.getContext();
+        }
+
+        recordSink.writeByte(TAG_RECORD);
+        recordSink.writeSignedVarint(record.getMillis() - lastMillis);
+        writeString(recordSink, record.getLevel().getName());
+        writeString(recordSink, record.getLoggerName());
+        writeString(recordSink, record.getSourceClassName());
+        writeString(recordSink, threadName);
+        recordSink.writeVarint(record.getLongThreadID());
+        recordSink.writeVarint(context.size());
+
+        for (int i = 0; i < context.size(); i++) {
+            writeString(recordSink, context.getKey(i));
+            writeString(recordSink, context.getValue(i));
+        }
+
+        encodeMessage(record);
+        encodeThrown(record.getThrown());
+    }
+
+    /**
+     * Encodage du modèle du message et de ses paramètres,
+     * ou du message mis en forme si un paramètre n'est pas encodable.
+     *
+     * @param record
+     */
+    private void encodeMessage(LogRecord record) {
+        Object[] parameters = record.getParameters();
+
+        if (record instanceof LoggerRecord loggerRecord
+            && parameters != null && parameters.length > 0
+            && loggerRecord.getPattern() != null && isEncodable(parameters)) {
+            recordSink.writeByte(MESSAGE_TEMPLATE);
+            writeString(recordSink, loggerRecord.getPattern());
+            recordSink.writeVarint(parameters.length);
+
+            for (Object parameter : parameters) {
+                encodeArgument(parameter);
+            }
+        } else {
+            recordSink.writeByte(MESSAGE_TEXT);
+            writeString(recordSink, record.getMessage());
+        }
+    }
+
+    /**
+     * Détermine si les paramètres sont relus à l'identique.
+     * Les autres nombres et les dates sont mis en forme suivant leur type:
+     * le message est alors écrit déjà mis en forme.
+     *
+     * @param parameters
+     * @return
+     */
+    private static boolean isEncodable(Object[] parameters) {
+        boolean encodable = true;
+
+        for (int i = 0; i < parameters.length && encodable; i++) {
+            Object parameter = parameters[i];
+
+            if (parameter instanceof Number) {
+                encodable = isIntegral(parameter) || parameter instanceof Double || parameter instanceof Float;
+            } else {
+                encodable = !(parameter instanceof Date);
+            }
+        }
+        return encodable;
+    }
+
+    private static boolean isIntegral(Object parameter) {
+        return parameter instanceof Integer || parameter instanceof Long
+               || parameter instanceof Short || parameter instanceof Byte;
+    }
+
+    private void encodeArgument(Object parameter) {
+        if (parameter == null) {
+            recordSink.writeByte(ARGUMENT_NULL);
+        } else if (isIntegral(parameter)) {
+            recordSink.writeByte(ARGUMENT_LONG);
+            recordSink.writeSignedVarint(((Number) parameter).longValue());
+        } else if (parameter instanceof Number number) {
+            recordSink.writeByte(ARGUMENT_DOUBLE);
+            recordSink.writeLong(Double.doubleToRawLongBits(number.doubleValue()));
+        } else {
+            recordSink.writeByte(ARGUMENT_STRING);
+            writeString(recordSink, parameter.toString());
+        }
+    }
+
+    /**
+     * Encodage de l'exception jointe: son type, sa cause, son message et sa pile d'appel.
+     *
+     * @param thrown
+     */
+    private void encodeThrown(Throwable thrown) {
+        if (thrown == null) {
+            recordSink.writeByte(0);
+        } else {
+            Throwable cause = thrown.getCause();
+
+            recordSink.writeByte(1);
+            writeString(recordSink, thrown.getClass().getName());
+            writeString(recordSink, (cause != null) ? cause.toString() : null);
+            writeString(recordSink, thrown.getLocalizedMessage());
+            encodeTrace(thrown.getStackTrace());
+        }
+    }
+
+    /**
+     * Encodage de la pile d'appel, définie une seule fois par fichier.
+     *
+     * @param trace
+     */
+    private void encodeTrace(StackTraceElement[] trace) {
+        TraceKey key = new TraceKey(trace);
+        Integer id = traces.get(key);
+
+        if (id == null && traces.size() < MAX_TRACES) {
+            traceSink.clear();
+            traceSink.writeByte(TAG_TRACE);
+            writeFrames(traceSink, trace);
+            output.write(traceSink);
+
+            id = traces.size() + 1;
+            traces.put(key, id);
+        }
+
+        if (id != null) {
+            recordSink.writeVarint(id);
+        } else {
+            recordSink.writeVarint(TRACE_INLINE);
+            writeFrames(recordSink, trace);
+        }
+    }
+
+    private void writeFrames(ByteSink sink, StackTraceElement[] trace) {
+        sink.writeVarint(trace.length);
+
+        for (StackTraceElement traceElement : trace) {
+            writeString(sink, traceElement.getClassName());
+            writeString(sink, traceElement.getMethodName());
+            writeString(sink, traceElement.getFileName());
+            sink.writeSignedVarint(traceElement.getLineNumber());
+        }
+    }
+
+    /**
+     * Ecriture de la référence à une chaîne.
+     * Une chaîne nouvelle est définie dans le dictionnaire avant l'entrée qui l'utilise.
+     *
+     * @param sink
+     * @param value
+     */
+    private void writeString(ByteSink sink, String value) {
+        if (value == null) {
+            sink.writeVarint(REF_NULL);
+        } else {
+            Integer id = strings.get(value);
+
+            if (id == null && strings.size() < MAX_STRINGS && value.length() <= MAX_STRING_LENGTH) {
+                output.writeByte(TAG_STRING);
+                output.writeUtf8(value);
+
+                id = strings.size() + FIRST_STRING_ID;
+                strings.put(value, id);
+            }
+
+            if (id != null) {
+                sink.writeVarint(id);
+            } else {
+                sink.writeVarint(REF_INLINE);
+                sink.writeUtf8(value);
+            }
+        }
+    }
+
+    /**
+     * Clé d'une pile d'appel.
+     */
+    private static final class TraceKey {
+
+        private final StackTraceElement[] trace;
+
+        private final int hash;
+
+        private TraceKey(StackTraceElement[] trace) {
+            this.trace = trace;
+            hash = Arrays.hashCode(trace);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TraceKey other && hash == other.hash && Arrays.equals(trace, other.trace);
+        }
+    }
+
+    /**
+     * Tableau d'octets extensible.
+     */
+    private static final class ByteSink {
+
+        private byte[] bytes = new byte[256];
+
+        private int length = 0;
+
+        private void clear() {
+            length = 0;
+        }
+
+        private void ensureCapacity(int count) {
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + count, bytes.length * 2));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] values) {
+            ensureCapacity(values.length);
+            System.arraycopy(values, 0, bytes, length, values.length);
+            length += values.length;
+        }
+
+        private void write(ByteSink sink) {
+            ensureCapacity(sink.length);
+            System.arraycopy(sink.bytes, 0, bytes, length, sink.length);
+            length += sink.length;
+        }
+
+        /**
+         * Ecriture d'un entier positif, 7 bits par octet.
+         *
+         * @param value
+         */
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            bytes[length++] = (byte) value;
+        }
+
+        /**
+         * Ecriture d'un entier signé: les petites valeurs négatives restent courtes.
+         *
+         * @param value
+         */
+        private void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        /**
+         * Ecriture de la longueur puis des octets UTF-8 de la chaîne, sans tableau intermédiaire.
+         *
+         * @param value
+         */
+        private void writeUtf8(String value) {
+            int charCount = value.length();
+            int byteCount = 0;
+
+            for (int i = 0; i < charCount; i++) {
+                char c = value.charAt(i);
+
+                if (c < 0x80) {
+                    byteCount++;
+                } else if (c < 0x800) {
+                    byteCount += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < charCount && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    byteCount += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    byteCount++;
+                } else {
+                    byteCount += 3;
+                }
+            }
+
+            writeVarint(byteCount);
+            ensureCapacity(byteCount);
+
+            for (int i = 0; i < charCount; i++) {
+                char c = value.charAt(i);
+
+                if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < charCount && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Surrogate isolé, remplacé comme par String.getBytes
+                    bytes[length++] = (byte) '?';
+                } else {
+                    bytes[length++] = (byte) (0xE0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+}
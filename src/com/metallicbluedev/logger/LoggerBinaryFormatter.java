@@ -0,0 +1,16 @@
+package com.metallicbluedev.logger;
+
+/**
+ * Format binaire du fichier journal.
+ * <p>
+ * Le fichier journal encode les messages avec un dictionnaire de chaînes
+ * et des piles d'appel écrites une seule fois, sans mise en forme du texte;
+ * il est relu par {@link LoggerBinaryDecoder}.
+ * Les autres flux (la console) reçoivent la ligne de {@link LoggerFormatter}.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public class LoggerBinaryFormatter extends LoggerFormatter {
+
+}
@@ -0,0 +1,29 @@
+package com.metallicbluedev.logger;
+
+/**
+ * Recherche de la classe à l'origine d'un message du journal.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public enum LoggerCallerResolution {
+    /**
+     * La classe appelante est recherchée pour chaque message.
+     * La pile d'appel est parcourue par {@link StackWalker} jusqu'au premier appelant,
+     * sans capture de la pile complète.
+     */
+    STACK_WALK,
+
+    /**
+     * La classe appelante n'est recherchée qu'à partir d'un niveau de message
+     * ({@link LoggerManager#setCallerResolutionLevel(java.util.logging.Level)}).
+     * Les messages de niveau inférieur ne parcourent jamais la pile d'appel.
+     */
+    LEVEL_GATED,
+
+    /**
+     * La classe appelante n'est jamais recherchée.
+     * Seule la pile d'une exception jointe au message est utilisée.
+     */
+    DISABLED;
+}
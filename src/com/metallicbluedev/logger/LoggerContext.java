@@ -0,0 +1,313 @@
+package com.metallicbluedev.logger;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Contexte de diagnostic du thread courant (identifiant de requête, utilisateur...).
+ * <p>
+ * Le contexte est une liste immuable de couples clé/valeur, triée par clé.
+ * Chaque modification remplace le contexte du thread par une nouvelle instance:
+ * un message du journal retient simplement le contexte courant, sans copie,
+ * et le même contexte peut être transmis à un autre thread ({@link #attach(LoggerContext)}).
+ * Les tâches soumises à un groupe de threads s'exécutent avec le contexte de leur émetteur.
+ * Le contexte est sérialisé avec les messages du journal.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public final class LoggerContext implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Contexte vide.
+     */
+    public static final LoggerContext EMPTY = new LoggerContext(new String[0], new String[0]);
+
+    /**
+     * Le contexte de chaque thread.
+     */
+    private static final ThreadLocal<LoggerContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Les clés, triées.
+     */
+    private final String[] keys;
+
+    /**
+     * Les valeurs, dans l'ordre des clés.
+     */
+    private final String[] values;
+
+    /**
+     * Le texte du contexte, mis en forme à la première utilisation.
+     */
+    private transient String text = null;
+
+    private LoggerContext(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Retourne le contexte du thread courant.
+     *
+     * @return Le contexte, {@link #EMPTY} si aucune valeur n'est définie.
+     */
+    public static LoggerContext current() {
+        LoggerContext context = CURRENT.get();
+        return (context != null) ? context : EMPTY;
+    }
+
+    /**
+     * Change la valeur d'une clé du contexte du thread courant.
+     *
+     * @param key
+     * @param value La valeur, <code>null</code> pour supprimer la clé.
+     */
+    public static void put(String key, String value) {
+        setCurrent(current().with(key, value));
+    }
+
+    /**
+     * Supprime une clé du contexte du thread courant.
+     *
+     * @param key
+     */
+    public static void remove(String key) {
+        setCurrent(current().without(key));
+    }
+
+    /**
+     * Supprime toutes les clés du contexte du thread courant.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Remplace le contexte du thread courant.
+     * Le contexte précédent doit être rétabli à la fin du traitement.
+     *
+     * @param context Le nouveau contexte, <code>null</code> pour un contexte vide.
+     * @return Le contexte précédent.
+     */
+    public static LoggerContext attach(LoggerContext context) {
+        LoggerContext previous = current();
+        setCurrent(context);
+        return previous;
+    }
+
+    /**
+     * Retourne une tâche qui s'exécute avec le contexte courant, quel que soit le thread qui l'exécute.
+     *
+     * @param task
+     * @return
+     */
+    public static Runnable wrap(Runnable task) {
+        Objects.requireNonNull(task);
+        LoggerContext context = current();
+
+        return () -> {
+            LoggerContext previous = attach(context);
+
+            try {
+                task.run();
+            } finally {
+                attach(previous);
+            }
+        };
+    }
+
+    /**
+     * Retourne un contexte avec la valeur d'une clé changée.
+     *
+     * @param key
+     * @param value La valeur, <code>null</code> pour supprimer la clé.
+     * @return
+     */
+    public LoggerContext with(String key, String value) {
+        Objects.requireNonNull(key);
+
+        if (value == null) {
+            return without(key);
+        }
+
+        LoggerContext context;
+        int index = Arrays.binarySearch(keys, key);
+
+        if (index >= 0) {
+            if (value.equals(values[index])) {
+                context = this;
+            } else {
+                String[] newValues = values.clone();
+                newValues[index] = value;
+                context = new LoggerContext(keys, newValues);
+            }
+        } else {
+            int insertion = -index - 1;
+            context = new LoggerContext(insert(keys, insertion, key), insert(values, insertion, value));
+        }
+        return context;
+    }
+
+    /**
+     * Retourne un contexte sans la clé.
+     *
+     * @param key
+     * @return
+     */
+    public LoggerContext without(String key) {
+        LoggerContext context = this;
+        int index = (key != null) ? Arrays.binarySearch(keys, key) : -1;
+
+        if (index >= 0) {
+            context = (keys.length == 1) ? EMPTY : new LoggerContext(delete(keys, index), delete(values, index));
+        }
+        return context;
+    }
+
+    /**
+     * Retourne la valeur d'une clé.
+     *
+     * @param key
+     * @return La valeur ou <code>null</code>.
+     */
+    public String get(String key) {
+        int index = (key != null) ? Arrays.binarySearch(keys, key) : -1;
+        return (index >= 0) ? values[index] : null;
+    }
+
+    /**
+     * Détermine si le contexte est vide.
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Retourne le nombre de clés.
+     *
+     * @return
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Retourne la clé à la position demandée.
+     *
+     * @param index
+     * @return
+     */
+    public String getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Retourne la valeur à la position demandée.
+     *
+     * @param index
+     * @return
+     */
+    public String getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Retourne une copie du contexte, triée par clé.
+     *
+     * @return
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> map = new TreeMap<>();
+
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    /**
+     * Retourne le texte du contexte: <code>{key=value, key=value}</code>.
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        String contextText = text;
+
+        if (contextText == null) {
+            StringBuilder str = new StringBuilder();
+            str.append('{');
+
+            for (int i = 0; i < keys.length; i++) {
+                if (i > 0) {
+                    str.append(", ");
+                }
+
+                str.append(keys[i]);
+                str.append('=');
+                str.append(values[i]);
+            }
+
+            str.append('}');
+            contextText = str.toString();
+            text = contextText;
+        }
+        return contextText;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this
+               || (obj instanceof LoggerContext other
+                   && Arrays.equals(keys, other.keys)
+                   && Arrays.equals(values, other.values));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+    }
+
+    /**
+     * Le contexte vide relu reste l'instance {@link #EMPTY}.
+     *
+     * @return
+     */
+    private Object readResolve() {
+        return (keys.length == 0) ? EMPTY : this;
+    }
+
+    /**
+     * Change le contexte du thread courant.
+     *
+     * @param context
+     */
+    private static void setCurrent(LoggerContext context) {
+        if (context == null || context.isEmpty()) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+
+    private static String[] insert(String[] array, int index, String value) {
+        String[] newArray = new String[array.length + 1];
+        System.arraycopy(array, 0, newArray, 0, index);
+        newArray[index] = value;
+        System.arraycopy(array, index, newArray, index + 1, array.length - index);
+        return newArray;
+    }
+
+    private static String[] delete(String[] array, int index) {
+        String[] newArray = new String[array.length - 1];
+        System.arraycopy(array, 0, newArray, 0, index);
+        System.arraycopy(array, index + 1, newArray, index, array.length - index - 1);
+        return newArray;
+    }
+}
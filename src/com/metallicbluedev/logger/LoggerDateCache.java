@@ -0,0 +1,87 @@
+package com.metallicbluedev.logger;
+
+import java.time.*;
+import java.time.format.*;
+
+/**
+ * Mise en forme de la date d'un message, au plus une fois par seconde.
+ * <p>
+ * Les millisecondes ne font pas partie de la mise en forme mise en cache.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+final class LoggerDateCache {
+
+    /**
+     * Mise en forme de la seconde.
+     */
+    private final DateTimeFormatter formatter;
+
+    /**
+     * La dernière seconde mise en forme.
+     */
+    private volatile FormattedSecond lastSecond = new FormattedSecond(Long.MIN_VALUE, "");
+
+    /**
+     * Nouveau cache.
+     *
+     * @param formatter Mise en forme avec fuseau horaire, à la seconde près.
+     */
+    LoggerDateCache(DateTimeFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    /**
+     * Ajoute la seconde de la date.
+     *
+     * @param millis Date en millisecondes.
+     * @param str
+     */
+    void appendSecond(long millis, StringBuilder str) {
+        long second = Math.floorDiv(millis, 1000);
+        FormattedSecond formatted = lastSecond;
+
+        if (formatted.second != second) {
+            formatted = new FormattedSecond(second, formatter.format(Instant.ofEpochSecond(second)));
+            lastSecond = formatted;
+        }
+
+        str.append(formatted.text);
+    }
+
+    /**
+     * Ajoute les millisecondes de la date sur trois chiffres.
+     *
+     * @param millis Date en millisecondes.
+     * @param str
+     */
+    static void appendMillis(long millis, StringBuilder str) {
+        int value = Math.floorMod(millis, 1000);
+
+        if (value < 100) {
+            str.append('0');
+        }
+
+        if (value < 10) {
+            str.append('0');
+        }
+
+        str.append(value);
+    }
+
+    /**
+     * Une seconde et sa mise en forme.
+     */
+    private static final class FormattedSecond {
+
+        private final long second;
+
+        private final String text;
+
+        private FormattedSecond(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
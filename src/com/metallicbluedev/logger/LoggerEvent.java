@@ -1,18 +1,24 @@
 package com.metallicbluedev.logger;
 
+import java.text.*;
 import java.util.*;
 import java.util.logging.*;
 
 /**
  * Evenement du journal.
  *
- * @version 3.00.00
+ * @version 3.04.01
  * @author Sebastien Villemain
  */
 public class LoggerEvent extends EventObject {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Parcours de la pile d'appel, sans référence aux classes.
+     */
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
     private final LogRecord record;
 
     /**
@@ -27,6 +33,7 @@ public class LoggerEvent extends EventObject {
 
         checkLoggerName(record, manager);
         checkSourceClassName(record);
+        checkParameters(record);
     }
 
     /**
@@ -38,6 +45,15 @@ public class LoggerEvent extends EventObject {
         return record;
     }
 
+    /**
+     * Retourne le contexte de diagnostic du thread émetteur.
+     *
+     * @return
+     */
+    public LoggerContext getContext() {
+        return getContext(record);
+    }
+
     /**
      * Détermine si c'est un message du mode debug.
      *
@@ -74,13 +90,59 @@ public class LoggerEvent extends EventObject {
         return record.getLevel() == Level.SEVERE;
     }
 
+    /**
+     * Retourne le contexte de diagnostic retenu par l'enregistrement.
+     *
+     * @param record
+     * @return Le contexte, {@link LoggerContext#EMPTY} pour un enregistrement externe.
+     */
+    static LoggerContext getContext(LogRecord record) {
+        return (record instanceof LoggerRecord loggerRecord) ? loggerRecord.getContext() : LoggerContext.EMPTY;
+    }
+
     private void checkLoggerName(LogRecord lr, LoggerManager manager) {
         if (lr.getLoggerName() == null || lr.getLoggerName().isEmpty()) {
             lr.setLoggerName(manager.getBaseLoggerName());
         }
     }
 
+    /**
+     * Recherche de la classe appelante du journal dans la pile d'appel du thread courant.
+     * Seuls les premiers éléments de la pile sont parcourus.
+     *
+     * @return Le nom simple de la classe or <code>null</code>.
+     */
+    static String findCallerClassName() {
+        String className = STACK_WALKER.walk(frames -> frames
+            .map(StackWalker.StackFrame::getClassName)
+            .filter(name -> !isLoggerClassName(name))
+            .findFirst()
+            .orElse(null));
+        return (className != null) ? getSimpleClassName(className) : null;
+    }
+
+    /**
+     * Mise en forme des paramètres du message par le thread de publication.
+     * Un {@link LoggerRecord} met en forme son message à la première lecture.
+     *
+     * @param lr
+     */
+    private void checkParameters(LogRecord lr) {
+        Object[] parameters = lr.getParameters();
+
+        if (!(lr instanceof LoggerRecord)
+            && parameters != null && parameters.length > 0 && lr.getMessage() != null) {
+            try {
+                lr.setMessage(MessageFormat.format(lr.getMessage(), parameters));
+                lr.setParameters(null);
+            } catch (IllegalArgumentException ex) {
+                // Le modèle invalide est conservé tel quel
+            }
+        }
+    }
+
     private void checkSourceClassName(LogRecord lr) {
+        // Sans appelant connu, la pile de l'exception jointe désigne l'origine du message
         if (lr.getSourceClassName() == null && lr.getThrown() != null) {
             String className = null;
             StackTraceElement[] trace = lr.getThrown().getStackTrace();
@@ -88,17 +150,11 @@ public class LoggerEvent extends EventObject {
             for (StackTraceElement stackTraceElement : trace) {
                 className = stackTraceElement.getClassName();
 
-                if (className.equalsIgnoreCase(LoggerEvent.class.getCanonicalName())
-                    || className.equalsIgnoreCase(LoggerManager.class.getCanonicalName())
-                    || className.startsWith(LoggerNotificator.class.getCanonicalName())) {
+                if (isLoggerClassName(className)) {
                     continue;
                 }
 
-                int dotIndex = className.lastIndexOf(".");
-
-                if (dotIndex >= 0) {
-                    className = className.substring(dotIndex + 1);
-                }
+                className = getSimpleClassName(className);
                 break;
             }
 
@@ -106,4 +162,26 @@ public class LoggerEvent extends EventObject {
         }
     }
 
+    /**
+     * Détermine si la classe appartient au journal.
+     *
+     * @param className
+     * @return
+     */
+    private static boolean isLoggerClassName(String className) {
+        return className.equalsIgnoreCase(LoggerEvent.class.getCanonicalName())
+               || className.equalsIgnoreCase(CentralizedLoggerManager.class.getCanonicalName())
+               || className.startsWith(LoggerManager.class.getCanonicalName())
+               || className.startsWith(LoggerNotificator.class.getCanonicalName())
+               || className.startsWith(LoggerRateLimiter.class.getCanonicalName());
+    }
+
+    private static String getSimpleClassName(String className) {
+        int dotIndex = className.lastIndexOf(".");
+
+        if (dotIndex >= 0) {
+            className = className.substring(dotIndex + 1);
+        }
+        return className;
+    }
 }
@@ -0,0 +1,470 @@
+package com.metallicbluedev.logger;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.logging.Formatter;
+import java.util.logging.*;
+
+/**
+ * Flux vers le fichier journal, écrit par un {@link FileChannel}.
+ * <p>
+ * Les lignes sont encodées dans un tampon direct réutilisé,
+ * sans chaîne intermédiaire avec un {@link LoggerFormatter} ou un {@link LoggerJsonFormatter}.
+ * Avec un {@link LoggerBinaryFormatter}, les messages sont encodés par un {@link LoggerBinaryEncoder}
+ * dont le dictionnaire recommence à chaque nouveau fichier.
+ * Le tampon est écrit dans le fichier lorsqu'il est plein
+ * ou en fin de lot, au plus une fois par intervalle ({@link #setFlushInterval(long, TimeUnit)}):
+ * les écritures de plusieurs lots sont ainsi regroupées.
+ * Un message d'erreur ({@link Level#SEVERE}) est écrit dès la fin de son lot.
+ * <p>
+ * Au-delà de la taille maximum, le fichier est renommé puis recréé:
+ * le {@link LoggerArchiver} décale ensuite les générations <code>%g</code> du chemin
+ * et compresse le fichier en arrière-plan.
+ * Le flux est utilisé par le thread de publication du journal:
+ * l'écriture ne concerne jamais les threads émetteurs, l'archivage ni les uns ni les autres.
+ *
+ * @version 2.02.00
+ * @author Sebastien Villemain
+ */
+final class LoggerFileHandler extends Handler {
+
+    /**
+     * Capacité du tampon d'écriture.
+     */
+    private static final int BUFFER_CAPACITY = 64 * 1024;
+
+    /**
+     * Le chemin des fichiers, avec la génération <code>%g</code>.
+     */
+    private final String pattern;
+
+    /**
+     * Taille maximum d'un fichier (0 sans limite).
+     */
+    private final long limit;
+
+    /**
+     * Nombre de fichiers (le fichier courant et ses archives).
+     */
+    private final int count;
+
+    /**
+     * Archivage des fichiers pleins.
+     */
+    private final LoggerArchiver archiver;
+
+    /**
+     * Tampon d'écriture.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_CAPACITY);
+
+    /**
+     * Copie des caractères de la ligne.
+     */
+    private char[] chars = new char[256];
+
+    /**
+     * Vue sur la copie des caractères.
+     */
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+    /**
+     * L'encodeur des lignes.
+     */
+    private CharsetEncoder encoder = null;
+
+    /**
+     * L'encodeur binaire des messages.
+     */
+    private final LoggerBinaryEncoder binaryEncoder = new LoggerBinaryEncoder();
+
+    /**
+     * Le fichier courant.
+     */
+    private FileChannel channel = null;
+
+    /**
+     * Taille du fichier courant, hors tampon.
+     */
+    private long written = 0;
+
+    /**
+     * Intervalle entre deux écritures groupées (en nanosecondes).
+     */
+    private long flushInterval = TimeUnit.MILLISECONDS.toNanos(LoggerManager.DEFAULT_FLUSH_INTERVAL);
+
+    /**
+     * Date de la dernière écriture dans le fichier (en nanosecondes).
+     */
+    private long lastFlushTime = System.nanoTime();
+
+    /**
+     * Détermine si le tampon doit être écrit en fin de lot.
+     */
+    private boolean urgentFlush = false;
+
+    /**
+     * Détermine si un lot est en cours.
+     */
+    private boolean batching = false;
+
+    /**
+     * Nombre d'archivages.
+     */
+    private long rotationCount = 0;
+
+    /**
+     * Nouveau flux.
+     *
+     * @param pattern Chemin des fichiers, avec la génération <code>%g</code>.
+     * @param limit Taille maximum d'un fichier (0 sans limite).
+     * @param count Nombre de fichiers (le fichier courant et ses archives).
+     * @param append Continuer le fichier existant.
+     * @param archiver Archivage des fichiers pleins.
+     * @throws IOException
+     */
+    LoggerFileHandler(String pattern, int limit, int count, boolean append, LoggerArchiver archiver) throws IOException {
+        this.pattern = pattern;
+        this.limit = Math.max(0, limit);
+        this.count = Math.max(1, count);
+        this.archiver = archiver;
+        open(append);
+
+        if (this.count > 1) {
+            archiver.recover(this);
+        }
+
+        if (this.limit > 0 && written >= this.limit) {
+            rotate();
+        }
+    }
+
+    /**
+     * Change l'intervalle entre deux écritures groupées.
+     * Avec un intervalle nul, le tampon est écrit à la fin de chaque lot.
+     *
+     * @param interval
+     * @param unit
+     */
+    synchronized void setFlushInterval(long interval, TimeUnit unit) {
+        flushInterval = Math.max(0, unit.toNanos(interval));
+    }
+
+    /**
+     * Retourne le chemin du fichier de la génération demandée.
+     *
+     * @param generation 0 pour le fichier courant.
+     * @return
+     */
+    Path getGenerationPath(int generation) {
+        String path;
+
+        if (pattern.contains("%g")) {
+            path = pattern.replace("%g", String.valueOf(generation));
+        } else {
+            path = (count > 1) ? pattern + "." + generation : pattern;
+        }
+        return Path.of(path);
+    }
+
+    /**
+     * Retourne le nombre de fichiers (le fichier courant et ses archives).
+     *
+     * @return
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Retourne le nombre d'archivages.
+     *
+     * @return
+     */
+    synchronized long getRotationCount() {
+        return rotationCount;
+    }
+
+    /**
+     * Début d'un lot de messages.
+     */
+    synchronized void beginBatch() {
+        batching = true;
+    }
+
+    /**
+     * Fin d'un lot de messages.
+     * Le tampon est écrit si l'intervalle est écoulé ou si un message d'erreur est en attente.
+     *
+     * @return Le délai (en nanosecondes) avant la prochaine écriture, -1 si rien n'est en attente.
+     */
+    synchronized long endBatch() {
+        batching = false;
+        return flushIfDue();
+    }
+
+    /**
+     * Ecrit le tampon si l'intervalle est écoulé.
+     *
+     * @return Le délai (en nanosecondes) avant la prochaine écriture, -1 si rien n'est en attente.
+     */
+    synchronized long flushIfDue() {
+        long delay = -1;
+
+        if (buffer.position() > 0) {
+            delay = flushInterval - (System.nanoTime() - lastFlushTime);
+
+            if (urgentFlush || delay <= 0) {
+                flush();
+                delay = -1;
+            }
+        }
+        return delay;
+    }
+
+    @Override
+    public synchronized void publish(LogRecord record) {
+        if (channel == null || !isLoggable(record)) {
+            return;
+        }
+
+        Formatter formatter = getFormatter();
+        boolean binary = formatter instanceof LoggerBinaryFormatter;
+        StringBuilder str = null;
+
+        try {
+            if (binary) {
+                binaryEncoder.encode(record);
+            } else {
+                str = LoggerFormatter.getBuilder();
+
+                if (formatter instanceof LoggerLineFormatter lineFormatter) {
+                    lineFormatter.formatTo(record, str);
+                } else {
+                    str.append(formatter.format(record));
+                }
+            }
+        } catch (RuntimeException ex) {
+            reportError(null, ex, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+
+        try {
+            if (binary) {
+                writeBytes(binaryEncoder.getBytes(), binaryEncoder.getLength());
+            } else {
+                encode(str);
+            }
+
+            if (limit > 0 && written + buffer.position() >= limit) {
+                rotate();
+            }
+        } catch (IOException ex) {
+            reportError(null, ex, ErrorManager.WRITE_FAILURE);
+        }
+
+        if (record.getLevel().intValue() >= Level.SEVERE.intValue()) {
+            urgentFlush = true;
+        }
+
+        // Hors lot (publication directe), le message est écrit immédiatement
+        if (!batching) {
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        try {
+            writeBuffer();
+        } catch (IOException ex) {
+            reportError(null, ex, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws SecurityException {
+        flush();
+        closeChannel();
+    }
+
+    @Override
+    public synchronized void setFormatter(Formatter newFormatter) throws SecurityException {
+        super.setFormatter(newFormatter);
+
+        // Le fichier binaire continue avec un nouveau dictionnaire
+        binaryEncoder.reset();
+    }
+
+    @Override
+    public synchronized void setEncoding(String encoding) throws SecurityException, UnsupportedEncodingException {
+        super.setEncoding(encoding);
+        encoder = null;
+    }
+
+    /**
+     * Ouverture du fichier courant.
+     *
+     * @param append
+     * @throws IOException
+     */
+    private void open(boolean append) throws IOException {
+        Path path = getGenerationPath(0);
+        Path folder = path.toAbsolutePath().getParent();
+
+        if (folder != null) {
+            Files.createDirectories(folder);
+        }
+
+        if (append) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } else {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        written = channel.size();
+        binaryEncoder.reset();
+    }
+
+    /**
+     * Mise en attente d'archivage du fichier courant puis ouverture d'un nouveau fichier.
+     * Le fichier est seulement renommé: il est archivé par le thread d'archivage.
+     *
+     * @throws IOException
+     */
+    private void rotate() throws IOException {
+        writeBuffer();
+        closeChannel();
+
+        try {
+            if (count > 1) {
+                Path pendingPath = archiver.getPendingPath(this);
+                Files.move(getGenerationPath(0), pendingPath);
+                archiver.archive(this, pendingPath);
+            }
+
+            rotationCount++;
+        } finally {
+            // Sans archivage possible, le fichier courant est continué
+            open(count > 1);
+        }
+    }
+
+    /**
+     * Ecriture du tampon dans le fichier.
+     *
+     * @throws IOException
+     */
+    private void writeBuffer() throws IOException {
+        if (buffer.position() > 0) {
+            buffer.flip();
+
+            try {
+                while (buffer.hasRemaining() && channel != null) {
+                    written += channel.write(buffer);
+                }
+            } finally {
+                buffer.clear();
+            }
+        }
+
+        urgentFlush = false;
+        lastFlushTime = System.nanoTime();
+    }
+
+    /**
+     * Fermeture du fichier courant.
+     */
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                reportError(null, ex, ErrorManager.CLOSE_FAILURE);
+            }
+
+            channel = null;
+        }
+    }
+
+    /**
+     * Encodage de la ligne dans le tampon d'écriture.
+     *
+     * @param str
+     * @throws IOException
+     */
+    private void encode(StringBuilder str) throws IOException {
+        int length = str.length();
+
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+
+        str.getChars(0, length, chars, 0);
+        charBuffer.clear().limit(length);
+
+        CharsetEncoder currentEncoder = getEncoder();
+        currentEncoder.reset();
+
+        while (currentEncoder.encode(charBuffer, buffer, true).isOverflow()) {
+            spillBuffer();
+        }
+
+        while (currentEncoder.flush(buffer).isOverflow()) {
+            spillBuffer();
+        }
+    }
+
+    /**
+     * Copie des octets dans le tampon d'écriture.
+     *
+     * @param bytes
+     * @param length
+     * @throws IOException
+     */
+    private void writeBytes(byte[] bytes, int length) throws IOException {
+        int offset = 0;
+
+        while (offset < length) {
+            int count = Math.min(buffer.remaining(), length - offset);
+            buffer.put(bytes, offset, count);
+            offset += count;
+
+            if (!buffer.hasRemaining()) {
+                spillBuffer();
+            }
+        }
+    }
+
+    /**
+     * Ecriture du tampon plein dans le fichier pendant l'encodage d'une ligne.
+     *
+     * @throws IOException
+     */
+    private void spillBuffer() throws IOException {
+        boolean urgent = urgentFlush;
+        writeBuffer();
+        urgentFlush = urgent;
+    }
+
+    /**
+     * Retourne l'encodeur des lignes.
+     *
+     * @return
+     */
+    private CharsetEncoder getEncoder() {
+        if (encoder == null) {
+            String encoding = getEncoding();
+            Charset charset = (encoding != null) ? Charset.forName(encoding) : Charset.defaultCharset();
+            encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return encoder;
+    }
+}
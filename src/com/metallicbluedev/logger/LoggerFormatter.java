@@ -1,58 +1,137 @@
 package com.metallicbluedev.logger;
 
 import com.metallicbluedev.utils.*;
-import java.util.*;
+import java.time.*;
 import java.util.logging.Formatter;
 import java.util.logging.*;
 
 /**
  * Ligne de sortie du journal.
+ * <p>
+ * La date est mise en forme une seule fois par seconde
+ * et la ligne est construite dans un tampon réutilisé par thread:
+ * {@link #formatTo(LogRecord, StringBuilder)} permet d'écrire sans chaîne intermédiaire.
+ * Le contexte de diagnostic ({@link LoggerContext}) suit le niveau du message lorsqu'il n'est pas vide.
  *
- * @version 3.00.00
+ * @version 3.05.00
  * @author Sebastien Villemain
  */
-public class LoggerFormatter extends Formatter {
+public class LoggerFormatter extends Formatter implements LoggerLineFormatter {
+
+    /**
+     * Capacité initiale d'un tampon.
+     */
+    private static final int BUILDER_CAPACITY = 256;
+
+    /**
+     * Capacité au-delà de laquelle un tampon n'est pas conservé.
+     */
+    private static final int MAX_BUILDER_CAPACITY = 16384;
+
+    /**
+     * Le tampon de chaque thread.
+     */
+    private static final ThreadLocal<StringBuilder> BUILDERS = ThreadLocal.withInitial(() -> new StringBuilder(BUILDER_CAPACITY));
+
+    /**
+     * Mise en forme de la date.
+     */
+    private final LoggerDateCache dateCache = new LoggerDateCache(DateHelper.INTERNATIONAL_FORMATTER.withZone(ZoneId.systemDefault()));
 
     @Override
     public String format(LogRecord record) {
-        StringBuilder str = new StringBuilder();
+        StringBuilder str = getBuilder();
+        formatTo(record, str);
+        return str.toString();
+    }
 
-        str.append(DateHelper.formatInternational(new Date()));
+    /**
+     * Retourne le tampon vide du thread courant.
+     *
+     * @return
+     */
+    static StringBuilder getBuilder() {
+        StringBuilder str = BUILDERS.get();
+
+        if (str.capacity() > MAX_BUILDER_CAPACITY) {
+            str = new StringBuilder(BUILDER_CAPACITY);
+            BUILDERS.set(str);
+        }
+
+        str.setLength(0);
+        return str;
+    }
+
+    @Override
+    public void formatTo(LogRecord record, StringBuilder str) {
+        dateCache.appendSecond(record.getMillis(), str);
         str.append(" [");
-        str.append(record.getLevel().toString());
+        str.append(record.getLevel().getName());
         str.append("] ");
-        str.append(record.getSourceClassName());
-        str.append(": ");
+
+        LoggerContext context = LoggerEvent.getContext(record);
+
+        if (!context.isEmpty()) {
+            str.append(context.toString());
+            str.append(' ');
+        }
+
+        // La classe source n'est pas toujours recherchée (LoggerCallerResolution)
+        if (record.getSourceClassName() != null) {
+            str.append(record.getSourceClassName());
+            str.append(": ");
+        }
+
         str.append(record.getMessage());
         str.append(StringHelper.LINE_SEPARATOR);
 
         if (record.getLevel() == Level.SEVERE
             && record.getThrown() != null) {
-            Throwable t = record.getThrown();
+            appendThrown(record.getThrown(), str);
+        }
+    }
 
-            str.append("Class exception name: ");
-            str.append(t.getClass());
-            str.append(StringHelper.LINE_SEPARATOR);
-            str.append("Cause: ");
-            str.append(t.getCause());
-            str.append(StringHelper.LINE_SEPARATOR);
-            str.append("Localized message: ");
-            str.append(t.getLocalizedMessage());
+    /**
+     * Ajoute la description de l'exception.
+     *
+     * @param t
+     * @param str
+     */
+    private static void appendThrown(Throwable t, StringBuilder str) {
+        appendThrown(t.getClass().toString(), t.getCause(), t.getLocalizedMessage(), t.getStackTrace(), str);
+    }
+
+    /**
+     * Ajoute la description d'une exception à partir de ses éléments.
+     *
+     * @param type Le type de l'exception (<code>class nom.de.la.Classe</code>).
+     * @param cause La cause ou sa description.
+     * @param message
+     * @param trace
+     * @param str
+     */
+    static void appendThrown(String type, Object cause, String message, StackTraceElement[] trace, StringBuilder str) {
+        str.append("Class exception name: ");
+        str.append(type);
+        str.append(StringHelper.LINE_SEPARATOR);
+        str.append("Cause: ");
+        str.append(cause);
+        str.append(StringHelper.LINE_SEPARATOR);
+        str.append("Localized message: ");
+        str.append(message);
+        str.append(StringHelper.LINE_SEPARATOR);
+        str.append("Stack trace: ");
+
+        for (StackTraceElement traceElement : trace) {
+            str.append(traceElement.getClassName());
+            str.append('.');
+            str.append(traceElement.getMethodName());
+            str.append('(');
+            str.append(traceElement.getFileName());
+            str.append(':');
+            str.append(traceElement.getLineNumber());
+            str.append(')');
             str.append(StringHelper.LINE_SEPARATOR);
-            str.append("Stack trace: ");
-
-            for (StackTraceElement traceElement : t.getStackTrace()) {
-                str.append(traceElement.getClassName());
-                str.append(".");
-                str.append(traceElement.getMethodName());
-                str.append("(");
-                str.append(traceElement.getFileName());
-                str.append(":");
-                str.append(traceElement.getLineNumber());
-                str.append(")");
-                str.append(StringHelper.LINE_SEPARATOR);
-            }
         }
-        return str.toString();
     }
 }
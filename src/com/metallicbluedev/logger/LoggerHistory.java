@@ -0,0 +1,111 @@
+package com.metallicbluedev.logger;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.logging.*;
+
+/**
+ * Historique borné des derniers événements du journal.
+ * <p>
+ * Tampon circulaire: au-delà de la capacité, le plus ancien événement est remplacé.
+ * L'ajout et la lecture se font sans verrou.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+final class LoggerHistory {
+
+    /**
+     * Les événements, indexés par leur numéro d'ajout modulo la capacité.
+     */
+    private final AtomicReferenceArray<LoggerEvent> events;
+
+    /**
+     * Nombre d'événements ajoutés depuis la création.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Nouvel historique.
+     *
+     * @param capacity Nombre maximum d'événements conservés, 0 pour aucun.
+     */
+    LoggerHistory(int capacity) {
+        events = new AtomicReferenceArray<>(Math.max(0, capacity));
+    }
+
+    /**
+     * Retourne le nombre maximum d'événements conservés.
+     *
+     * @return
+     */
+    int getCapacity() {
+        return events.length();
+    }
+
+    /**
+     * Ajout d'un événement.
+     *
+     * @param event
+     */
+    void add(LoggerEvent event) {
+        int capacity = events.length();
+
+        if (capacity > 0) {
+            long index = count.getAndIncrement();
+            events.set((int) (index % capacity), event);
+        }
+    }
+
+    /**
+     * Détermine si aucun événement n'a été ajouté.
+     *
+     * @return
+     */
+    boolean isEmpty() {
+        return count.get() == 0;
+    }
+
+    /**
+     * Retourne le dernier événement du niveau demandé encore présent dans l'historique.
+     *
+     * @param level
+     * @return LoggerEvent or <code>null</code>.
+     */
+    LoggerEvent findLast(Level level) {
+        LoggerEvent lastEvent = null;
+        int capacity = events.length();
+        long last = count.get() - 1;
+        long first = Math.max(0, last - capacity + 1);
+
+        for (long index = last; index >= first && lastEvent == null; index--) {
+            LoggerEvent event = events.get((int) (index % capacity));
+
+            if (event != null && event.getRecord().getLevel() == level) {
+                lastEvent = event;
+            }
+        }
+        return lastEvent;
+    }
+
+    /**
+     * Retourne les événements de l'historique, du plus ancien au plus récent.
+     *
+     * @return
+     */
+    List<LoggerEvent> toList() {
+        int capacity = events.length();
+        long end = count.get();
+        long first = Math.max(0, end - capacity);
+        List<LoggerEvent> list = new ArrayList<>((int) (end - first));
+
+        for (long index = first; index < end; index++) {
+            LoggerEvent event = events.get((int) (index % capacity));
+
+            if (event != null) {
+                list.add(event);
+            }
+        }
+        return list;
+    }
+}
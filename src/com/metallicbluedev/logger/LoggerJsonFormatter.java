@@ -0,0 +1,233 @@
+package com.metallicbluedev.logger;
+
+import java.time.*;
+import java.time.format.*;
+import java.util.logging.Formatter;
+import java.util.logging.*;
+
+/**
+ * Ligne JSON du journal (format JSON Lines: un objet par ligne).
+ * <p>
+ * Champs: <code>timestamp</code> (ISO 8601 UTC à la milliseconde), <code>level</code>,
+ * <code>logger</code>, <code>source</code>, <code>thread</code>, <code>threadId</code>,
+ * <code>context</code> (le contexte de diagnostic), <code>message</code> et <code>exception</code> (la chaîne des causes).
+ * Les champs sans valeur sont omis.
+ * <p>
+ * L'objet est écrit directement dans le tampon du thread, sans structure intermédiaire.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+public class LoggerJsonFormatter extends Formatter implements LoggerLineFormatter {
+
+    /**
+     * Nombre maximum de causes écrites pour une exception.
+     */
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    /**
+     * Chiffres hexadécimaux des caractères échappés.
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Mise en forme de la date.
+     */
+    private final LoggerDateCache dateCache = new LoggerDateCache(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC));
+
+    @Override
+    public String format(LogRecord record) {
+        StringBuilder str = LoggerFormatter.getBuilder();
+        formatTo(record, str);
+        return str.toString();
+    }
+
+    @Override
+    public void formatTo(LogRecord record, StringBuilder str) {
+        long millis = record.getMillis();
+
+        str.append("{\"timestamp\":\"");
+        dateCache.appendSecond(millis, str);
+        str.append('.');
+        LoggerDateCache.appendMillis(millis, str);
+        str.append("Z\"");
+
+        appendField("level", record.getLevel().getName(), str);
+        appendField("logger", record.getLoggerName(), str);
+        appendField("source", record.getSourceClassName(), str);
+
+        if (record instanceof LoggerRecord loggerRecord) {
+            appendField("thread", loggerRecord.getThreadName(), str);
+        }
+
+        str.append(",\"threadId\":");
+        str.append(record.getLongThreadID());
+        appendContext(LoggerEvent.getContext(record), str);
+        appendField("message", record.getMessage(), str);
+
+        if (record.getThrown() != null) {
+            str.append(",\"exception\":");
+            appendThrown(record.getThrown(), str);
+        }
+
+        str.append('}');
+        str.append('\n');
+    }
+
+    /**
+     * Ajoute la chaîne des causes de l'exception, de l'exception elle-même à la cause d'origine.
+     *
+     * @param thrown
+     * @param str
+     */
+    private static void appendThrown(Throwable thrown, StringBuilder str) {
+        str.append('[');
+
+        Throwable t = thrown;
+        int depth = 0;
+
+        while (t != null && depth < MAX_CAUSE_DEPTH) {
+            if (depth > 0) {
+                str.append(',');
+            }
+
+            str.append("{\"type\":");
+            appendString(t.getClass().getName(), str);
+            appendField("message", t.getLocalizedMessage(), str);
+            str.append(",\"stackTrace\":[");
+
+            StackTraceElement[] trace = t.getStackTrace();
+
+            for (int i = 0; i < trace.length; i++) {
+                if (i > 0) {
+                    str.append(',');
+                }
+
+                StackTraceElement traceElement = trace[i];
+                str.append('"');
+                appendEscaped(traceElement.getClassName(), str);
+                str.append('.');
+                appendEscaped(traceElement.getMethodName(), str);
+                str.append('(');
+                appendEscaped(traceElement.getFileName(), str);
+                str.append(':');
+                str.append(traceElement.getLineNumber());
+                str.append(")\"");
+            }
+
+            str.append("]}");
+
+            // Une cause circulaire n'est écrite qu'une fois
+            Throwable cause = t.getCause();
+            t = (cause != t && cause != thrown) ? cause : null;
+            depth++;
+        }
+
+        str.append(']');
+    }
+
+    /**
+     * Ajoute le contexte de diagnostic, omis s'il est vide.
+     *
+     * @param context
+     * @param str
+     */
+    private static void appendContext(LoggerContext context, StringBuilder str) {
+        if (!context.isEmpty()) {
+            str.append(",\"context\":{");
+
+            for (int i = 0; i < context.size(); i++) {
+                if (i > 0) {
+                    str.append(',');
+                }
+
+                appendString(context.getKey(i), str);
+                str.append(':');
+                appendString(context.getValue(i), str);
+            }
+
+            str.append('}');
+        }
+    }
+
+    /**
+     * Ajoute un champ texte, omis s'il n'a pas de valeur.
+     *
+     * @param name
+     * @param value
+     * @param str
+     */
+    private static void appendField(String name, String value, StringBuilder str) {
+        if (value != null) {
+            str.append(",\"");
+            str.append(name);
+            str.append("\":");
+            appendString(value, str);
+        }
+    }
+
+    /**
+     * Ajoute une chaîne JSON.
+     *
+     * @param value
+     * @param str
+     */
+    private static void appendString(String value, StringBuilder str) {
+        str.append('"');
+        appendEscaped(value, str);
+        str.append('"');
+    }
+
+    /**
+     * Ajoute le texte échappé pour une chaîne JSON.
+     *
+     * @param value
+     * @param str
+     */
+    private static void appendEscaped(String value, StringBuilder str) {
+        if (value == null) {
+            str.append("null");
+            return;
+        }
+
+        int length = value.length();
+        int start = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+
+            // Les caractères ordinaires sont copiés par blocs
+            str.append(value, start, i);
+            start = i + 1;
+
+            switch (c) {
+                case '"':
+                    str.append("\\\"");
+                    break;
+                case '\\':
+                    str.append("\\\\");
+                    break;
+                case '\n':
+                    str.append("\\n");
+                    break;
+                case '\r':
+                    str.append("\\r");
+                    break;
+                case '\t':
+                    str.append("\\t");
+                    break;
+                default:
+                    str.append("\\u00");
+                    str.append(HEX_DIGITS[c >> 4]);
+                    str.append(HEX_DIGITS[c & 0xF]);
+                    break;
+            }
+        }
+
+        str.append(value, start, length);
+    }
+}
@@ -0,0 +1,22 @@
+package com.metallicbluedev.logger;
+
+import java.util.logging.*;
+
+/**
+ * Mise en forme d'un message du journal dans un tampon fourni.
+ * <p>
+ * Permet au {@link LoggerFileHandler} d'encoder la ligne sans chaîne intermédiaire.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+interface LoggerLineFormatter {
+
+    /**
+     * Ajoute la ligne du message à la suite du tampon.
+     *
+     * @param record
+     * @param str
+     */
+    void formatTo(LogRecord record, StringBuilder str);
+}
@@ -1,18 +1,21 @@
 package com.metallicbluedev.logger;
 
+import com.metallicbluedev.*;
 import com.metallicbluedev.core.*;
 import com.metallicbluedev.factory.*;
 import com.metallicbluedev.utils.*;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.logging.Formatter;
 import java.util.logging.*;
-import javax.swing.event.*;
 
 /**
  * Le journal d'evenements.
  * Publication d'événement dans le journal avec le minimum d'impact sur les performances de l'application.
  *
- * @version 3.00.00
+ * @version 3.10.03
  * @author Sebastien Villemain
  */
 public final class LoggerManager implements CentralizedLoggerManager {
@@ -32,17 +35,68 @@ public final class LoggerManager implements CentralizedLoggerManager {
     /**
      * Liste des écouteurs d'événement.
      */
-    private final EventListenerList listeners;
+    private final EventObserverList<LoggerEvent, LoggerListener> listeners;
 
     /**
-     * Liste des derniers messages.
+     * Capacité par défaut de l'historique.
      */
-    private final List<LoggerEvent> records = new ArrayList<>();
+    public static final int DEFAULT_HISTORY_CAPACITY = 1000;
+
+    /**
+     * Intervalle par défaut entre deux écritures groupées dans le fichier journal (en millisecondes).
+     */
+    public static final int DEFAULT_FLUSH_INTERVAL = 200;
+
+    /**
+     * Durée par défaut de l'intervalle de limitation des messages semblables (en millisecondes).
+     */
+    public static final int DEFAULT_RATE_LIMIT_INTERVAL = 10000;
+
+    /**
+     * Historique borné des derniers messages.
+     */
+    private volatile LoggerHistory history = new LoggerHistory(DEFAULT_HISTORY_CAPACITY);
+
+    /**
+     * Verrou d'ajout et de remplacement de l'historique.
+     * Seul le thread de publication ajoute des messages: le verrou n'est disputé qu'au remplacement.
+     */
+    private final Object historyLock = new Object();
+
+    /**
+     * Détermine si la capacité de l'historique a été choisie.
+     */
+    private boolean historyCapacityDefined = false;
+
+    /**
+     * Dernier message de debug.
+     */
+    private volatile LoggerEvent lastDebugEvent = null;
+
+    /**
+     * Dernier message d'information.
+     */
+    private volatile LoggerEvent lastInformationEvent = null;
+
+    /**
+     * Dernier message d'avertissement.
+     */
+    private volatile LoggerEvent lastWarningEvent = null;
+
+    /**
+     * Dernier message d'erreur.
+     */
+    private volatile LoggerEvent lastErrorEvent = null;
+
+    /**
+     * Dernier message, tous niveaux confondus.
+     */
+    private volatile LoggerEvent lastEvent = null;
 
     /**
      * Flux vers le fichier.
      */
-    private FileHandler loggerFileHandler;
+    private LoggerFileHandler loggerFileHandler;
 
     /**
      * Détermine si une réinitialisation est nécessaire.
@@ -69,6 +123,82 @@ public final class LoggerManager implements CentralizedLoggerManager {
      */
     private int maxLength = 0;
 
+    /**
+     * Niveau minimum des messages acceptés, vérifié dès l'appel.
+     * Sans niveau défini, tous les messages sont acceptés.
+     */
+    private volatile int levelValue = Level.ALL.intValue();
+
+    /**
+     * Recherche de la classe à l'origine des messages.
+     */
+    private volatile LoggerCallerResolution callerResolution = LoggerCallerResolution.STACK_WALK;
+
+    /**
+     * Niveau minimum des messages dont la classe appelante est recherchée en mode {@link LoggerCallerResolution#LEVEL_GATED}.
+     */
+    private volatile Level callerResolutionLevel = Level.WARNING;
+
+    /**
+     * Format des lignes écrites par les flux du journal.
+     */
+    private volatile LoggerOutputFormat outputFormat = LoggerOutputFormat.TEXT;
+
+    /**
+     * Détermine si le format des lignes a été choisi (sinon il est lu dans la configuration).
+     */
+    private boolean outputFormatDefined = false;
+
+    /**
+     * Intervalle entre deux écritures groupées dans le fichier journal (en millisecondes).
+     */
+    private volatile int flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    /**
+     * Détermine si l'intervalle d'écriture a été choisi (sinon il est lu dans la configuration).
+     */
+    private boolean flushIntervalDefined = false;
+
+    /**
+     * Limitation des messages semblables.
+     */
+    private final LoggerRateLimiter rateLimiter = new LoggerRateLimiter(this, DEFAULT_RATE_LIMIT_INTERVAL);
+
+    /**
+     * Détermine si la limitation a été choisie (sinon elle est lue dans la configuration).
+     */
+    private boolean rateLimitDefined = false;
+
+    /**
+     * Statistiques de l'archivage des fichiers journaux.
+     */
+    private final LoggerArchiveStatistics archiveStatistics = new LoggerArchiveStatistics();
+
+    /**
+     * Archivage des fichiers journaux en arrière-plan.
+     */
+    private final LoggerArchiver archiver = new LoggerArchiver(archiveStatistics);
+
+    /**
+     * Détermine si la compression des archives a été choisie (sinon elle est lue dans la configuration).
+     */
+    private boolean compressBackupDefined = false;
+
+    /**
+     * Détermine si la taille cumulée des archives a été choisie (sinon elle est lue dans la configuration).
+     */
+    private boolean backupMaxTotalLengthDefined = false;
+
+    /**
+     * Détermine si l'âge des archives a été choisi (sinon il est lu dans la configuration).
+     */
+    private boolean backupMaxAgeDefined = false;
+
+    /**
+     * Exécuteur des notifications des écouteurs, <code>null</code> pour le thread de publication.
+     */
+    private volatile Executor listenerExecutor = null;
+
     /**
      * Listeur de message.
      */
@@ -86,7 +216,7 @@ public final class LoggerManager implements CentralizedLoggerManager {
     public LoggerManager(String filePath, int maxBackup, int maxLength) {
         baseLogger = createLogger();
         baseLogger.setUseParentHandlers(false);
-        listeners = new EventListenerList();
+        listeners = new EventObserverList<>();
 
         setFilePath(filePath);
         setMaxBackup(maxBackup);
@@ -133,42 +263,312 @@ public final class LoggerManager implements CentralizedLoggerManager {
      * Accepte tous les messages.
      */
     public void setLevelAll() {
-        if (baseLogger.getLevel() != Level.ALL) {
-            baseLogger.setLevel(Level.ALL);
+        setLevel(Level.ALL);
+    }
+
+    @Override
+    public void setLevelOff() {
+        setLevel(Level.OFF);
+    }
+
+    /**
+     * Change le niveau minimum des messages acceptés.
+     * Les messages de niveau inférieur sont rejetés dès l'appel.
+     *
+     * @param level
+     */
+    public void setLevel(Level level) {
+        if (level != null && baseLogger.getLevel() != level) {
+            baseLogger.setLevel(level);
+            levelValue = level.intValue();
 
             if (loggerFileHandler != null) {
-                loggerFileHandler.setLevel(Level.ALL);
+                loggerFileHandler.setLevel(level);
             }
 
             if (loggerConsoleHandler != null) {
-                loggerConsoleHandler.setLevel(Level.ALL);
+                loggerConsoleHandler.setLevel(level);
             }
         }
     }
 
     @Override
-    public void setLevelOff() {
-        if (baseLogger.getLevel() != Level.OFF) {
-            baseLogger.setLevel(Level.OFF);
+    public boolean isLoggable(Level level) {
+        int value = levelValue;
+        return level.intValue() >= value && value != Level.OFF.intValue();
+    }
 
-            if (loggerFileHandler != null) {
-                loggerFileHandler.setLevel(Level.OFF);
+    @Override
+    public boolean isDebugEnabled() {
+        return isLoggable(Level.FINE);
+    }
+
+    @Override
+    public boolean isInformationEnabled() {
+        return isLoggable(Level.INFO);
+    }
+
+    @Override
+    public boolean isWarningEnabled() {
+        return isLoggable(Level.WARNING);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return isLoggable(Level.SEVERE);
+    }
+
+    /**
+     * Change la recherche de la classe à l'origine des messages.
+     *
+     * @param callerResolution
+     */
+    public void setCallerResolution(LoggerCallerResolution callerResolution) {
+        if (callerResolution != null) {
+            this.callerResolution = callerResolution;
+        }
+    }
+
+    /**
+     * Retourne la recherche de la classe à l'origine des messages.
+     *
+     * @return
+     */
+    public LoggerCallerResolution getCallerResolution() {
+        return callerResolution;
+    }
+
+    /**
+     * Change le niveau minimum des messages dont la classe appelante est recherchée
+     * en mode {@link LoggerCallerResolution#LEVEL_GATED}.
+     *
+     * @param callerResolutionLevel
+     */
+    public void setCallerResolutionLevel(Level callerResolutionLevel) {
+        if (callerResolutionLevel != null) {
+            this.callerResolutionLevel = callerResolutionLevel;
+        }
+    }
+
+    /**
+     * Retourne le niveau minimum des messages dont la classe appelante est recherchée.
+     *
+     * @return
+     */
+    public Level getCallerResolutionLevel() {
+        return callerResolutionLevel;
+    }
+
+    /**
+     * Change le format des lignes écrites par les flux du journal.
+     * Les flux déjà ouverts changent de format immédiatement.
+     *
+     * @param outputFormat
+     */
+    public void setOutputFormat(LoggerOutputFormat outputFormat) {
+        if (outputFormat != null) {
+            this.outputFormat = outputFormat;
+            outputFormatDefined = true;
+
+            Handler fileHandler = loggerFileHandler;
+
+            if (fileHandler != null) {
+                fileHandler.setFormatter(createFormatter());
             }
 
-            if (loggerConsoleHandler != null) {
-                loggerConsoleHandler.setLevel(Level.OFF);
+            Handler consoleHandler = loggerConsoleHandler;
+
+            if (consoleHandler != null) {
+                consoleHandler.setFormatter(createFormatter());
             }
         }
     }
 
+    /**
+     * Retourne le format des lignes écrites par les flux du journal.
+     *
+     * @return
+     */
+    public LoggerOutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    /**
+     * Change l'intervalle entre deux écritures groupées dans le fichier journal.
+     * Les messages publiés pendant l'intervalle sont écrits ensemble;
+     * un message d'erreur est écrit dès la fin de son lot.
+     * Avec un intervalle nul, le fichier est écrit à la fin de chaque lot.
+     *
+     * @param flushInterval Intervalle en millisecondes.
+     */
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = Math.max(0, flushInterval);
+        flushIntervalDefined = true;
+
+        LoggerFileHandler fileHandler = loggerFileHandler;
+
+        if (fileHandler != null) {
+            fileHandler.setFlushInterval(this.flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Retourne l'intervalle entre deux écritures groupées dans le fichier journal (en millisecondes).
+     *
+     * @return
+     */
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Change le nombre maximum de messages semblables publiés par intervalle pour le niveau demandé.
+     * Les messages sont semblables s'ils ont le même texte (ou modèle) ou le même type d'exception.
+     * Les messages différés ({@link #addDebugLazy(Supplier)}...) sont semblables s'ils proviennent du même site d'appel.
+     * Au-delà, les messages sont supprimés et leur nombre est signalé à la fin de l'intervalle.
+     *
+     * @param level {@link Level#FINE}, {@link Level#INFO}, {@link Level#WARNING} ou {@link Level#SEVERE}.
+     * @param limit Nombre de messages, 0 sans limite.
+     */
+    public void setRateLimit(Level level, int limit) {
+        rateLimiter.setLimit(level, limit);
+        rateLimitDefined = true;
+    }
+
+    /**
+     * Retourne le nombre maximum de messages semblables publiés par intervalle pour le niveau demandé.
+     *
+     * @param level
+     * @return Nombre de messages, 0 sans limite.
+     */
+    public int getRateLimit(Level level) {
+        return rateLimiter.getLimit(level);
+    }
+
+    /**
+     * Change la durée de l'intervalle de limitation des messages semblables.
+     *
+     * @param interval Durée en millisecondes.
+     */
+    public void setRateLimitInterval(int interval) {
+        rateLimiter.setInterval(interval);
+        rateLimitDefined = true;
+    }
+
+    /**
+     * Retourne la durée de l'intervalle de limitation des messages semblables (en millisecondes).
+     *
+     * @return
+     */
+    public int getRateLimitInterval() {
+        return rateLimiter.getInterval();
+    }
+
+    /**
+     * Retourne le nombre de messages supprimés par la limitation.
+     *
+     * @return
+     */
+    public long getSuppressedCount() {
+        return rateLimiter.getSuppressedCount();
+    }
+
+    /**
+     * Change la compression (gzip) des fichiers journaux archivés.
+     *
+     * @param compressBackup
+     */
+    public void setCompressBackup(boolean compressBackup) {
+        archiver.setCompress(compressBackup);
+        compressBackupDefined = true;
+    }
+
+    /**
+     * Détermine si les fichiers journaux archivés sont compressés.
+     *
+     * @return
+     */
+    public boolean isCompressBackup() {
+        return archiver.isCompress();
+    }
+
+    /**
+     * Change la taille cumulée maximum des fichiers journaux archivés.
+     * Au-delà, les archives les plus anciennes sont supprimées.
+     *
+     * @param maxTotalLength En octets, 0 sans limite.
+     */
+    public void setBackupMaxTotalLength(long maxTotalLength) {
+        archiver.setMaxTotalLength(maxTotalLength);
+        backupMaxTotalLengthDefined = true;
+    }
+
+    /**
+     * Retourne la taille cumulée maximum des fichiers journaux archivés.
+     *
+     * @return En octets, 0 sans limite.
+     */
+    public long getBackupMaxTotalLength() {
+        return archiver.getMaxTotalLength();
+    }
+
+    /**
+     * Change l'âge maximum des fichiers journaux archivés.
+     * Au-delà, les archives sont supprimées à l'archivage suivant ou au démarrage.
+     *
+     * @param maxAge En jours, 0 sans limite.
+     */
+    public void setBackupMaxAge(int maxAge) {
+        archiver.setMaxAge(maxAge, TimeUnit.DAYS);
+        backupMaxAgeDefined = true;
+    }
+
+    /**
+     * Retourne l'âge maximum des fichiers journaux archivés.
+     *
+     * @return En jours, 0 sans limite.
+     */
+    public int getBackupMaxAge() {
+        return (int) archiver.getMaxAge(TimeUnit.DAYS);
+    }
+
+    /**
+     * Retourne les statistiques de l'archivage des fichiers journaux.
+     *
+     * @return
+     */
+    public LoggerArchiveStatistics getArchiveStatistics() {
+        return archiveStatistics;
+    }
+
+    /**
+     * Change l'exécuteur des notifications des écouteurs.
+     * Par défaut (<code>null</code>), les écouteurs sont notifiés par le thread de publication du journal;
+     * un écouteur lent retarde alors la publication des messages suivants.
+     *
+     * @param listenerExecutor
+     */
+    public void setListenerExecutor(Executor listenerExecutor) {
+        this.listenerExecutor = listenerExecutor;
+    }
+
+    /**
+     * Retourne l'exécuteur des notifications des écouteurs.
+     *
+     * @return L'exécuteur ou <code>null</code> pour le thread de publication.
+     */
+    public Executor getListenerExecutor() {
+        return listenerExecutor;
+    }
+
     @Override
     public void addListener(LoggerListener listener) {
-        listeners.add(LoggerListener.class, listener);
+        listeners.add(listener);
     }
 
     @Override
     public void removeListener(LoggerListener listener) {
-        listeners.remove(LoggerListener.class, listener);
+        listeners.remove(listener);
     }
 
     /**
@@ -202,14 +602,14 @@ public final class LoggerManager implements CentralizedLoggerManager {
 
     @Override
     public void addMessage(LogRecord lr) {
-        if (lr != null) {
+        if (lr != null && isLoggable(lr.getLevel())) {
             if (FactoryManager.hasInstance(LoggerNotificator.class)) {
                 LoggerNotificator notificator = FactoryManager.getInstance(LoggerNotificator.class);
 
                 if (notificator.isAlive()) {
-                    // Permet de remonter la pile d'appel pour définir la classe source
-                    if (lr.getThrown() == null) {
-                        lr.setThrown(new Throwable());
+                    // La classe source est recherchée dans le thread appelant, avant la mise en attente
+                    if (lr.getSourceClassName() == null && isCallerRequired(lr.getLevel())) {
+                        lr.setSourceClassName(LoggerEvent.findCallerClassName());
                     }
 
                     notificator.appendMessage(this, lr);
@@ -220,63 +620,145 @@ public final class LoggerManager implements CentralizedLoggerManager {
 
     @Override
     public void addDebug(String message) {
-        addMessage(new LogRecord(Level.FINE, message));
+        if (isDebugEnabled() && rateLimiter.tryAcquire(Level.FINE, message)) {
+            addMessage(new LoggerRecord(Level.FINE, message));
+        }
+    }
+
+    @Override
+    public void addDebugLazy(Supplier<String> message) {
+        // Les messages différés sont semblables s'ils proviennent du même site d'appel
+        if (isDebugEnabled() && rateLimiter.tryAcquire(Level.FINE, message.getClass())) {
+            addMessage(new LoggerRecord(Level.FINE, message.get()));
+        }
+    }
+
+    @Override
+    public void addDebug(String pattern, Object... arguments) {
+        if (isDebugEnabled() && rateLimiter.tryAcquire(Level.FINE, pattern)) {
+            addMessage(makeRecord(Level.FINE, pattern, arguments));
+        }
     }
 
     @Override
     public void addInformation(String message) {
-        addMessage(new LogRecord(Level.INFO, message));
+        if (isInformationEnabled() && rateLimiter.tryAcquire(Level.INFO, message)) {
+            addMessage(new LoggerRecord(Level.INFO, message));
+        }
+    }
+
+    @Override
+    public void addInformationLazy(Supplier<String> message) {
+        if (isInformationEnabled() && rateLimiter.tryAcquire(Level.INFO, message.getClass())) {
+            addMessage(new LoggerRecord(Level.INFO, message.get()));
+        }
+    }
+
+    @Override
+    public void addInformation(String pattern, Object... arguments) {
+        if (isInformationEnabled() && rateLimiter.tryAcquire(Level.INFO, pattern)) {
+            addMessage(makeRecord(Level.INFO, pattern, arguments));
+        }
     }
 
     @Override
     public void addWarning(String message) {
-        addMessage(new LogRecord(Level.WARNING, message));
+        if (isWarningEnabled() && rateLimiter.tryAcquire(Level.WARNING, message)) {
+            addMessage(new LoggerRecord(Level.WARNING, message));
+        }
+    }
+
+    @Override
+    public void addWarningLazy(Supplier<String> message) {
+        if (isWarningEnabled() && rateLimiter.tryAcquire(Level.WARNING, message.getClass())) {
+            addMessage(new LoggerRecord(Level.WARNING, message.get()));
+        }
+    }
+
+    @Override
+    public void addWarning(String pattern, Object... arguments) {
+        if (isWarningEnabled() && rateLimiter.tryAcquire(Level.WARNING, pattern)) {
+            addMessage(makeRecord(Level.WARNING, pattern, arguments));
+        }
     }
 
     @Override
     public void addError(String message) {
-        StringBuilder details = new StringBuilder();
-        details.append(message);
-        details.append(StringHelper.LINE_SEPARATOR);
-        details.append("Thread name: ");
-        details.append(Thread.currentThread().getName());
+        if (isErrorEnabled() && rateLimiter.tryAcquire(Level.SEVERE, message)) {
+            addMessage(new LoggerRecord(Level.SEVERE, makeErrorMessage(message)));
+        }
+    }
 
-        addMessage(new LogRecord(Level.SEVERE, details.toString()));
+    @Override
+    public void addErrorLazy(Supplier<String> message) {
+        if (isErrorEnabled() && rateLimiter.tryAcquire(Level.SEVERE, message.getClass())) {
+            addMessage(new LoggerRecord(Level.SEVERE, makeErrorMessage(message.get())));
+        }
     }
 
     @Override
     public void addError(Exception error) {
-        String message = (error != null ? (error.getMessage() != null && !error.getMessage().isEmpty() ? error.getMessage() : error.getClass().getSimpleName()) : "Exception is null.");
+        // Les erreurs sont semblables si leurs exceptions sont du même type
+        if (isErrorEnabled() && rateLimiter.tryAcquire(Level.SEVERE, (error != null) ? error.getClass() : null)) {
+            String message = (error != null ? (error.getMessage() != null && !error.getMessage().isEmpty() ? error.getMessage() : error.getClass().getSimpleName()) : "Exception is null.");
 
-        StringBuilder details = new StringBuilder();
-        details.append(message);
-        details.append(StringHelper.LINE_SEPARATOR);
-        details.append("Thread name: ");
-        details.append(Thread.currentThread().getName());
-
-        LogRecord record = new LogRecord(Level.SEVERE, details.toString());
-        record.setThrown(error);
-        addMessage(record);
+            LogRecord record = new LoggerRecord(Level.SEVERE, makeErrorMessage(message));
+            record.setThrown(error);
+            addMessage(record);
+        }
     }
 
     @Override
     public void addError(String message, Exception ex) {
-        StringBuilder details = new StringBuilder();
-        details.append(message);
-        details.append(StringHelper.LINE_SEPARATOR);
-        details.append("Thread name: ");
-        details.append(Thread.currentThread().getName());
+        if (isErrorEnabled() && rateLimiter.tryAcquire(Level.SEVERE, (ex != null) ? ex.getClass() : message)) {
+            LogRecord record = new LoggerRecord(Level.SEVERE, makeErrorMessage(message));
+            record.setThrown(ex);
+            addMessage(record);
+        }
+    }
 
-        LogRecord record = new LogRecord(Level.SEVERE, details.toString());
-        record.setThrown(ex);
-        addMessage(record);
+    /**
+     * Change le nombre maximum de messages conservés dans l'historique.
+     * Les messages les plus récents sont conservés.
+     *
+     * @param capacity Nombre de messages, 0 pour aucun historique (les derniers messages par niveau restent disponibles).
+     */
+    public void setHistoryCapacity(int capacity) {
+        LoggerHistory newHistory = new LoggerHistory(capacity);
+
+        // Aucun message n'est publié entre la copie et le remplacement
+        synchronized (historyLock) {
+            for (LoggerEvent event : history.toList()) {
+                newHistory.add(event);
+            }
+
+            history = newHistory;
+        }
+
+        historyCapacityDefined = true;
+    }
+
+    /**
+     * Retourne le nombre maximum de messages conservés dans l'historique.
+     *
+     * @return
+     */
+    public int getHistoryCapacity() {
+        return history.getCapacity();
+    }
+
+    /**
+     * Retourne les messages de l'historique, du plus ancien au plus récent.
+     *
+     * @return
+     */
+    public List<LoggerEvent> getHistory() {
+        return history.toList();
     }
 
     @Override
     public boolean isEmpty() {
-        synchronized (records) {
-            return records.isEmpty();
-        }
+        return lastEvent == null;
     }
 
     @Override
@@ -345,7 +827,9 @@ public final class LoggerManager implements CentralizedLoggerManager {
 
     @Override
     public void destroyProcess() {
+        rateLimiter.flush();
         closeLogger();
+        archiver.stop();
         clearRecords();
         removeLoggerThread();
     }
@@ -364,6 +848,50 @@ public final class LoggerManager implements CentralizedLoggerManager {
         }
     }
 
+    /**
+     * Début d'un lot de messages publiés par le {@link LoggerNotificator}.
+     * Le fichier journal n'est vidé qu'en fin de lot.
+     */
+    void beginBatch() {
+        LoggerFileHandler fileHandler = loggerFileHandler;
+
+        if (fileHandler != null) {
+            fileHandler.beginBatch();
+        }
+    }
+
+    /**
+     * Fin d'un lot de messages.
+     * Le fichier journal est écrit si l'intervalle d'écriture est écoulé.
+     *
+     * @return Le délai (en nanosecondes) avant la prochaine écriture, -1 si rien n'est en attente.
+     */
+    long endBatch() {
+        LoggerFileHandler fileHandler = loggerFileHandler;
+        return (fileHandler != null) ? fileHandler.endBatch() : -1;
+    }
+
+    /**
+     * Ecriture immédiate du fichier journal.
+     */
+    void flush() {
+        LoggerFileHandler fileHandler = loggerFileHandler;
+
+        if (fileHandler != null) {
+            fileHandler.flush();
+        }
+    }
+
+    /**
+     * Ecriture du fichier journal si l'intervalle d'écriture est écoulé.
+     *
+     * @return Le délai (en nanosecondes) avant la prochaine écriture, -1 si rien n'est en attente.
+     */
+    long flushIfDue() {
+        LoggerFileHandler fileHandler = loggerFileHandler;
+        return (fileHandler != null) ? fileHandler.flushIfDue() : -1;
+    }
+
     /**
      * Vérification des flux instanciés.
      */
@@ -387,9 +915,23 @@ public final class LoggerManager implements CentralizedLoggerManager {
     }
 
     private void addRecord(LoggerEvent event) {
-        synchronized (records) {
-            records.add(event);
+        synchronized (historyLock) {
+            history.add(event);
+        }
+
+        Level level = event.getRecord().getLevel();
+
+        if (level == Level.FINE) {
+            lastDebugEvent = event;
+        } else if (level == Level.INFO) {
+            lastInformationEvent = event;
+        } else if (level == Level.WARNING) {
+            lastWarningEvent = event;
+        } else if (level == Level.SEVERE) {
+            lastErrorEvent = event;
         }
+
+        lastEvent = event;
     }
 
     private void checkConsoleHandler() throws SecurityException {
@@ -411,9 +953,15 @@ public final class LoggerManager implements CentralizedLoggerManager {
     }
 
     private void clearRecords() {
-        synchronized (records) {
-            records.clear();
+        synchronized (historyLock) {
+            history = new LoggerHistory(history.getCapacity());
         }
+
+        lastDebugEvent = null;
+        lastInformationEvent = null;
+        lastWarningEvent = null;
+        lastErrorEvent = null;
+        lastEvent = null;
     }
 
     private void closeConsoleHandler() throws SecurityException {
@@ -427,6 +975,7 @@ public final class LoggerManager implements CentralizedLoggerManager {
         if (loggerFileHandler != null) {
             baseLogger.removeHandler(loggerFileHandler);
             loggerFileHandler.close();
+            loggerFileHandler = null;
         }
     }
 
@@ -451,6 +1000,38 @@ public final class LoggerManager implements CentralizedLoggerManager {
             if (maxLength == 0) {
                 setMaxLength(settingManager.getLogMaxLength());
             }
+
+            if (!historyCapacityDefined) {
+                setHistoryCapacity(settingManager.getLogHistoryCapacity());
+            }
+
+            if (!outputFormatDefined) {
+                setOutputFormat(settingManager.getLogOutputFormat());
+            }
+
+            if (!flushIntervalDefined) {
+                setFlushInterval(settingManager.getLogFlushInterval());
+            }
+
+            if (!compressBackupDefined) {
+                archiver.setCompress(settingManager.isLogCompressBackup());
+            }
+
+            if (!backupMaxTotalLengthDefined) {
+                archiver.setMaxTotalLength(settingManager.getLogBackupMaxTotalLength());
+            }
+
+            if (!backupMaxAgeDefined) {
+                archiver.setMaxAge(settingManager.getLogBackupMaxAge(), TimeUnit.DAYS);
+            }
+
+            if (!rateLimitDefined) {
+                rateLimiter.setInterval(settingManager.getLogRateLimitInterval());
+
+                for (Level level : new Level[]{Level.FINE, Level.INFO, Level.WARNING, Level.SEVERE}) {
+                    rateLimiter.setLimit(level, settingManager.getLogRateLimit(level));
+                }
+            }
         }
     }
 
@@ -496,32 +1077,105 @@ public final class LoggerManager implements CentralizedLoggerManager {
     /**
      * Retourne le dernier message enregistré.
      * Si aucun message, retourne <code>null</code>.
+     * Les niveaux usuels sont lus sans verrou ni parcours de l'historique.
      *
      * @param logLevel
      * @return
      */
     private LoggerEvent getLastEvent(Level logLevel) {
-        LoggerEvent lastEvent = null;
+        LoggerEvent event;
+
+        if (logLevel == null || logLevel == Level.ALL) {
+            event = lastEvent;
+        } else if (logLevel == Level.FINE) {
+            event = lastDebugEvent;
+        } else if (logLevel == Level.INFO) {
+            event = lastInformationEvent;
+        } else if (logLevel == Level.WARNING) {
+            event = lastWarningEvent;
+        } else if (logLevel == Level.SEVERE) {
+            event = lastErrorEvent;
+        } else {
+            event = history.findLast(logLevel);
+        }
+        return event;
+    }
 
-        synchronized (records) {
-            for (LoggerEvent event : records) {
-                if (lastEvent == null) {
-                    lastEvent = event;
-                }
+    /**
+     * Publication de la synthèse des messages supprimés par la limitation.
+     * A l'arrêt, la synthèse est écrite directement: le thread de publication
+     * ne la traiterait qu'après la fermeture des flux.
+     *
+     * @param immediate Ecriture par l'appelant plutôt que par le thread de publication.
+     * @param level
+     * @param pattern
+     * @param arguments
+     */
+    void addSummary(boolean immediate, Level level, String pattern, Object... arguments) {
+        LogRecord record = makeRecord(level, pattern, arguments);
 
-                if (logLevel != null
-                    || logLevel != Level.ALL) {
-                    if (logLevel != event.getRecord().getLevel()) {
-                        continue;
-                    }
-                }
+        if (!immediate) {
+            addMessage(record);
+        } else if (isLoggable(level)) {
+            checkHandlers();
+            digestMessage(record);
+        }
+    }
 
-                if (lastEvent.getRecord().getMillis() < event.getRecord().getMillis()) {
-                    lastEvent = event;
-                }
-            }
+    /**
+     * Nouveau message dont les paramètres seront mis en forme par le thread de publication.
+     *
+     * @param level
+     * @param pattern
+     * @param arguments
+     * @return
+     */
+    private static LogRecord makeRecord(Level level, String pattern, Object[] arguments) {
+        LogRecord record = new LoggerRecord(level, pattern);
+
+        if (arguments != null && arguments.length > 0) {
+            record.setParameters(arguments);
         }
-        return lastEvent;
+        return record;
+    }
+
+    /**
+     * Ajoute le nom du thread courant au message d'erreur.
+     *
+     * @param message
+     * @return
+     */
+    private static String makeErrorMessage(String message) {
+        StringBuilder details = new StringBuilder();
+        details.append(message);
+        details.append(StringHelper.LINE_SEPARATOR);
+        details.append("Thread name: ");
+        details.append(Thread.currentThread().getName());
+        return details.toString();
+    }
+
+    /**
+     * Détermine si la classe appelante doit être recherchée pour un message de ce niveau.
+     *
+     * @param level
+     * @return
+     */
+    private boolean isCallerRequired(Level level) {
+        boolean required;
+
+        switch (callerResolution) {
+            case DISABLED:
+                required = false;
+                break;
+            case LEVEL_GATED:
+                required = level.intValue() >= callerResolutionLevel.intValue();
+                break;
+            case STACK_WALK:
+            default:
+                required = true;
+                break;
+        }
+        return required;
     }
 
     private static boolean canConfigure() {
@@ -531,15 +1185,36 @@ public final class LoggerManager implements CentralizedLoggerManager {
 
     private void notifyLoggerListenerOnChanged(LoggerEvent event) {
         // Transfert du message
-        for (LoggerListener listener : listeners.getListeners(LoggerListener.class)) {
-            listener.onChanged(event);
+        Executor executor = listenerExecutor;
+
+        if (executor != null) {
+            listeners.notifyObservers(event, executor);
+        } else {
+            listeners.notifyObservers(event);
+        }
+    }
+
+    private Formatter createFormatter() {
+        Formatter formatter;
+
+        switch (outputFormat) {
+            case JSON_LINES:
+                formatter = new LoggerJsonFormatter();
+                break;
+            case BINARY:
+                formatter = new LoggerBinaryFormatter();
+                break;
+            default:
+                formatter = new LoggerFormatter();
+                break;
         }
+        return formatter;
     }
 
     private void openConsoleHandler() throws SecurityException {
         if (loggerConsoleHandler == null) {
             loggerConsoleHandler = new ConsoleHandler();
-            loggerConsoleHandler.setFormatter(new LoggerFormatter());
+            loggerConsoleHandler.setFormatter(createFormatter());
             baseLogger.addHandler(loggerConsoleHandler);
         }
     }
@@ -547,13 +1222,14 @@ public final class LoggerManager implements CentralizedLoggerManager {
     private void openFileHandler() throws SecurityException {
         if (loggerFileHandler == null) {
             try {
-                loggerFileHandler = new FileHandler(filePath, maxLength, maxBackup, true);
+                loggerFileHandler = new LoggerFileHandler(filePath, maxLength, maxBackup, true, archiver);
             } catch (IOException | SecurityException ex) {
                 addError(ex);
             }
 
             if (loggerFileHandler != null) {
-                loggerFileHandler.setFormatter(new LoggerFormatter());
+                loggerFileHandler.setFormatter(createFormatter());
+                loggerFileHandler.setFlushInterval(flushInterval, TimeUnit.MILLISECONDS);
                 baseLogger.addHandler(loggerFileHandler);
             }
         }
@@ -2,17 +2,109 @@ package com.metallicbluedev.logger;
 
 import com.metallicbluedev.factory.*;
 import com.metallicbluedev.threading.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import java.util.function.*;
 import java.util.logging.*;
 
 /**
- * Notificateur d'événement du logger.
+ * Notificateur d'événement du journal.
  * Gestionnaire des threads transferant les messages.
+ * <p>
+ * Les messages sont déposés dans un tampon circulaire ({@link LoggerRingBuffer})
+ * puis publiés par lots par un unique thread de publication:
+ * les flux sont vérifiés une seule fois par lot et les écritures du fichier journal
+ * sont regroupées suivant {@link LoggerManager#getFlushInterval()}.
+ * Lorsque le tampon est plein, le message est traité suivant {@link #getOverflowPolicy()}:
+ * l'appelant attend une place ou abandonne le message, mais ne publie jamais lui-même.
  *
- * @version 3.00.00
+ * @version 4.01.03
  * @author Sebastien Villemain
  */
 public class LoggerNotificator extends ThreadPool implements EntityProcess {
 
+    /**
+     * Nombre d'emplacements du tampon.
+     */
+    private static final int BUFFER_CAPACITY = 16384;
+
+    /**
+     * Nombre maximum de messages publiés par lot.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * Temps accordé à la publication des messages en attente lors de la fermeture (en secondes).
+     */
+    private static final int SHUTDOWN_TIMEOUT = 2;
+
+    /**
+     * Nombre de tentatives en boucle avant de céder la main.
+     */
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * Nombre de tentatives en cédant la main avant de se suspendre.
+     */
+    private static final int YIELD_TRIES = 100;
+
+    /**
+     * Durée d'une suspension (en nanosecondes).
+     */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Temps d'attente maximum d'une place dans le tampon plein (en nanosecondes).
+     */
+    private static final long OVERFLOW_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Les messages en attente de publication.
+     */
+    private final LoggerRingBuffer buffer = new LoggerRingBuffer(BUFFER_CAPACITY);
+
+    /**
+     * Le thread de publication.
+     */
+    private final LoggerDrainer drainer = new LoggerDrainer();
+
+    /**
+     * Nombre de threads du groupe en activité.
+     */
+    private final AtomicInteger activeThreadCount = new AtomicInteger();
+
+    /**
+     * Nombre de messages abandonnés.
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * Nombre de messages abandonnés non encore signalés.
+     */
+    private final AtomicLong unreportedDroppedCount = new AtomicLong();
+
+    /**
+     * Nombre de fois où le tampon était plein.
+     */
+    private final LongAdder overflowCount = new LongAdder();
+
+    /**
+     * Nombre de lots publiés.
+     */
+    private final LongAdder batchCount = new LongAdder();
+
+    /**
+     * Attente du thread de publication lorsque le tampon est vide.
+     */
+    private volatile LoggerWaitStrategy waitStrategy = LoggerWaitStrategy.BLOCKING;
+
+    /**
+     * Traitement d'un message lorsque le tampon est plein.
+     */
+    private volatile LoggerOverflowPolicy overflowPolicy = LoggerOverflowPolicy.DISCARD_BELOW_WARNING;
+
     protected LoggerNotificator() {
         super(0, LoggerNotificator.class.getSimpleName(), LoggerManager.class.getSimpleName());
     }
@@ -20,106 +112,407 @@ public class LoggerNotificator extends ThreadPool implements EntityProcess {
     @Override
     public void createProcess() {
         setMaxPriority(Thread.MIN_PRIORITY);
-    }
+        setShutdownTimeout(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
 
-    @Override
-    public String getInformation() {
-        return "PooledThreadIndex=" + getPooledThreadIndex();
+        // Le thread de publication est le premier thread ajouté au groupe
+        runTask(drainer);
     }
 
-    // NOTE: Ne doit surtout pas être executé dans un contexte de syncrhonisation
-    // Sinon, ceci ne sert à rien et les messsages seront bloqués.
     @Override
     public void destroyProcess() {
-        int counter = 0;
+        // Le thread de publication termine les messages en attente puis s'arrête
+        shutdown();
+        buffer.wakeUpConsumer();
+        super.destroyProcess();
+    }
 
-        // Patiente un peu pour finir de publier tous les messages
-        // Puis arrêt complet du notificateur
-        while (queueSize() > 0 && counter < 100) {
-            counter++;
+    /**
+     * Change l'attente du thread de publication lorsque le tampon est vide.
+     *
+     * @param waitStrategy
+     */
+    public final void setWaitStrategy(LoggerWaitStrategy waitStrategy) {
+        if (waitStrategy != null) {
+            this.waitStrategy = waitStrategy;
+            buffer.wakeUpConsumer();
+        }
+    }
 
-            try {
-                Thread.sleep(5);
-            } catch (InterruptedException ex) {
-                break;
-            }
+    /**
+     * Retourne l'attente du thread de publication lorsque le tampon est vide.
+     *
+     * @return
+     */
+    public final LoggerWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Change le traitement d'un message lorsque le tampon est plein.
+     *
+     * @param overflowPolicy
+     */
+    public final void setOverflowPolicy(LoggerOverflowPolicy overflowPolicy) {
+        if (overflowPolicy != null) {
+            this.overflowPolicy = overflowPolicy;
         }
+    }
 
-        super.destroyProcess();
+    /**
+     * Retourne le traitement d'un message lorsque le tampon est plein.
+     *
+     * @return
+     */
+    public final LoggerOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Retourne le nombre de messages abandonnés.
+     *
+     * @return
+     */
+    public final long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    @Override
+    public String getInformation() {
+        return "PooledThreadIndex=" + getPooledThreadIndex()
+               + " Buffered=" + buffer.size() + "/" + buffer.getCapacity()
+               + " Batches=" + batchCount.sum()
+               + " Overflows=" + overflowCount.sum()
+               + " Dropped=" + getDroppedCount()
+               + " " + super.getInformation();
     }
 
     @Override
     protected void pooledThreadStarted() {
-        // NE RIEN FAIRE ICI
+        activeThreadCount.incrementAndGet();
     }
 
     @Override
     protected void pooledThreadStopped() {
-        // NE RIEN FAIRE ICI
+        // Le groupe garde au moins un thread pour la publication des messages
+        if (activeThreadCount.decrementAndGet() == 0 && isAlive()) {
+            addPooledThread();
+        }
     }
 
     /**
      * Démarre l'apprentissage du message.
      *
-     * @param manger
+     * @param manager
      * @param message
      */
-    void appendMessage(LoggerManager manger, LogRecord message) {
-        runTask(new LoggerNotificator.LoggerNotificatorPlayer(manger, message));
+    void appendMessage(LoggerManager manager, LogRecord message) {
+        if (!buffer.offer(manager, message)) {
+            onOverflow(manager, message);
+        }
     }
 
     /**
-     * Routine d'exécution du transfert de message.
+     * Traitement d'un message lorsque le tampon est plein.
+     *
+     * @param manager
+     * @param message
      */
-    private static class LoggerNotificatorPlayer implements ServiceProcess {
+    private void onOverflow(LoggerManager manager, LogRecord message) {
+        overflowCount.increment();
+
+        // Le thread de publication ne peut pas attendre son propre tampon
+        if (drainer.isConsumerThread()) {
+            publish(manager, message);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DISCARD:
+                drop();
+                break;
+            case DISCARD_BELOW_WARNING:
+                if (message.getLevel().intValue() >= Level.WARNING.intValue()) {
+                    handOff(manager, message, OVERFLOW_TIMEOUT);
+                } else {
+                    drop();
+                }
+                break;
+            case TIMED_WAIT:
+                handOff(manager, message, OVERFLOW_TIMEOUT);
+                break;
+            case BLOCK:
+            default:
+                handOff(manager, message, 0);
+                break;
+        }
+    }
+
+    /**
+     * Attente d'une place dans le tampon.
+     * Le message reste publié par le thread de publication, seul à écrire dans les flux.
+     *
+     * @param manager
+     * @param message
+     * @param timeout Temps d'attente maximum (en nanosecondes), 0 pour attendre sans limite.
+     */
+    private void handOff(LoggerManager manager, LogRecord message, long timeout) {
+        long deadline = System.nanoTime() + timeout;
+
+        while (!buffer.offer(manager, message)) {
+            if (!isAlive() || (timeout > 0 && System.nanoTime() - deadline >= 0)) {
+                drop();
+                break;
+            }
+
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+    }
+
+    /**
+     * Abandon d'un message.
+     */
+    private void drop() {
+        droppedCount.increment();
+        unreportedDroppedCount.incrementAndGet();
+    }
+
+    /**
+     * Publication directe d'un message par le thread de publication.
+     *
+     * @param manager
+     * @param message
+     */
+    private static void publish(LoggerManager manager, LogRecord message) {
+        manager.checkHandlers();
+        manager.digestMessage(message);
+    }
+
+    /**
+     * Thread de publication des messages du tampon.
+     * <p>
+     * Si son thread est retiré du groupe, la publication est confiée à un autre thread du groupe,
+     * ou à un nouveau thread si le groupe n'en a plus.
+     */
+    private class LoggerDrainer implements ServiceProcess {
+
+        /**
+         * Les managers du lot en cours.
+         */
+        private final LoggerManager[] managers = new LoggerManager[BATCH_SIZE];
 
         /**
-         * Le logger concerné.
+         * Les messages du lot en cours.
          */
-        private final LoggerManager manager;
+        private final LogRecord[] records = new LogRecord[BATCH_SIZE];
 
         /**
-         * Le message à transfèrer.
+         * Les managers dont le fichier journal attend une écriture groupée.
          */
-        private final LogRecord message;
+        private final List<LoggerManager> pendingManagers = new ArrayList<>();
 
-        private boolean running = false;
+        private volatile boolean running = false;
 
         /**
-         * Nouvelle routine de transfert.
-         *
-         * @param manager
-         * @param message
+         * Le thread de publication, <code>null</code> s'il n'est pas démarré.
          */
-        private LoggerNotificatorPlayer(LoggerManager manager, LogRecord message) {
-            this.manager = manager;
-            this.message = message;
+        private volatile Thread consumerThread = null;
+
+        /**
+         * Détermine si le thread de publication peut se suspendre.
+         */
+        private final BooleanSupplier canWait = () -> running && isAlive();
+
+        @Override
+        public void start() {
+            running = true;
         }
 
         @Override
         public void run() {
+            consumerThread = Thread.currentThread();
+
             try {
-                running = true;
-                manager.checkHandlers();
-                manager.digestMessage(message);
+                int idleCount = 0;
+
+                // Après la fermeture du groupe, les messages en attente sont encore publiés
+                while (running || !isAlive()) {
+                    int count = buffer.drainTo(managers, records);
+
+                    if (count > 0) {
+                        publishBatch(count);
+                        idleCount = 0;
+                    } else if (!isAlive() || !running) {
+                        break;
+                    } else {
+                        idleCount = waitForRecords(idleCount, flushPendingManagers(false));
+                    }
+                }
             } finally {
-                running = false;
-            }
-        }
+                flushPendingManagers(true);
+                consumerThread = null;
 
-        @Override
-        public void start() {
-            // NE RIEN FAIRE ICI
+                // Le thread a été retiré du groupe: la publication continue sur un autre thread
+                if (!running && isAlive()) {
+                    runTask(this);
+                }
+            }
         }
 
         @Override
         public void stop() {
-            // NE RIEN FAIRE ICI
+            running = false;
+            buffer.wakeUpConsumer();
         }
 
         @Override
         public boolean running() {
             return running;
         }
+
+        /**
+         * Détermine si le thread courant est le thread de publication.
+         *
+         * @return
+         */
+        private boolean isConsumerThread() {
+            return consumerThread == Thread.currentThread();
+        }
+
+        /**
+         * Publication d'un lot de messages.
+         *
+         * @param count
+         */
+        private void publishBatch(int count) {
+            LoggerManager currentManager = null;
+
+            try {
+                for (int i = 0; i < count; i++) {
+                    LoggerManager manager = managers[i];
+
+                    if (manager != currentManager) {
+                        if (currentManager != null) {
+                            endBatch(currentManager);
+                        }
+
+                        currentManager = manager;
+                        currentManager.checkHandlers();
+                        currentManager.beginBatch();
+                    }
+
+                    try {
+                        manager.digestMessage(records[i]);
+                    } catch (RuntimeException ex) {
+                        uncaughtException(Thread.currentThread(), ex);
+                    }
+
+                    managers[i] = null;
+                    records[i] = null;
+                }
+
+                reportDroppedMessages(currentManager);
+            } finally {
+                if (currentManager != null) {
+                    endBatch(currentManager);
+                }
+            }
+
+            batchCount.increment();
+        }
+
+        /**
+         * Fin du lot d'un manager.
+         * Son fichier journal est retenu s'il attend une écriture groupée.
+         *
+         * @param manager
+         */
+        private void endBatch(LoggerManager manager) {
+            if (manager.endBatch() >= 0 && !pendingManagers.contains(manager)) {
+                pendingManagers.add(manager);
+            }
+        }
+
+        /**
+         * Ecriture des fichiers journaux dont l'intervalle d'écriture est écoulé.
+         *
+         * @param force Ecriture immédiate de tous les fichiers.
+         * @return Le délai (en nanosecondes) avant la prochaine écriture, -1 si rien n'est en attente.
+         */
+        private long flushPendingManagers(boolean force) {
+            long nextDelay = -1;
+
+            for (Iterator<LoggerManager> iterator = pendingManagers.iterator(); iterator.hasNext();) {
+                LoggerManager manager = iterator.next();
+                long delay = -1;
+
+                try {
+                    if (force) {
+                        manager.flush();
+                    } else {
+                        delay = manager.flushIfDue();
+                    }
+                } catch (RuntimeException ex) {
+                    uncaughtException(Thread.currentThread(), ex);
+                }
+
+                if (delay < 0) {
+                    iterator.remove();
+                } else if (nextDelay < 0 || delay < nextDelay) {
+                    nextDelay = delay;
+                }
+            }
+            return nextDelay;
+        }
+
+        /**
+         * Signale les messages abandonnés depuis le dernier lot.
+         *
+         * @param manager
+         */
+        private void reportDroppedMessages(LoggerManager manager) {
+            if (manager != null && unreportedDroppedCount.get() > 0) {
+                long dropped = unreportedDroppedCount.getAndSet(0);
+                manager.digestMessage(new LoggerRecord(Level.WARNING, dropped + " log messages were dropped (log buffer full)."));
+            }
+        }
+
+        /**
+         * Attente d'un message suivant la stratégie choisie.
+         *
+         * @param idleCount Nombre d'attentes successives sans message.
+         * @param timeout Délai maximum (en nanosecondes) avant une écriture groupée, -1 sans écriture en attente.
+         * @return
+         */
+        private int waitForRecords(int idleCount, long timeout) {
+            switch (waitStrategy) {
+                case BUSY_SPIN:
+                    Thread.onSpinWait();
+                    break;
+                case YIELDING:
+                    if (idleCount < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                    break;
+                case SLEEPING:
+                    if (idleCount < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                        Thread.yield();
+                    } else {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    break;
+                case BLOCKING:
+                default:
+                    buffer.awaitRecords(canWait, timeout);
+                    break;
+            }
+
+            // Une interruption ne concerne pas la publication
+            Thread.interrupted();
+            return (idleCount < Integer.MAX_VALUE) ? idleCount + 1 : idleCount;
+        }
     }
 }
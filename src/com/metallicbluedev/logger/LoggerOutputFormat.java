@@ -0,0 +1,25 @@
+package com.metallicbluedev.logger;
+
+/**
+ * Format des lignes écrites par le journal.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+public enum LoggerOutputFormat {
+    /**
+     * Texte libre sur une ou plusieurs lignes ({@link LoggerFormatter}).
+     */
+    TEXT,
+
+    /**
+     * Un objet JSON par ligne ({@link LoggerJsonFormatter}), lisible sans expression régulière.
+     */
+    JSON_LINES,
+
+    /**
+     * Fichier binaire compact ({@link LoggerBinaryFormatter}), relu par {@link LoggerBinaryDecoder}.
+     * La console reste au format texte.
+     */
+    BINARY;
+}
@@ -0,0 +1,35 @@
+package com.metallicbluedev.logger;
+
+/**
+ * Traitement d'un message lorsque le tampon du journal est plein.
+ * <p>
+ * Les messages abandonnés sont comptés puis signalés par un avertissement
+ * dès que le thread de publication a rattrapé son retard.
+ * Le message n'est jamais publié par l'appelant: le thread de publication reste seul à écrire dans les flux.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+public enum LoggerOverflowPolicy {
+    /**
+     * Le message est abandonné.
+     */
+    DISCARD,
+
+    /**
+     * Les messages de debug et d'information sont abandonnés,
+     * pour les avertissements et les erreurs l'appelant attend une place pendant un délai limité.
+     */
+    DISCARD_BELOW_WARNING,
+
+    /**
+     * L'appelant attend une place pendant un délai limité,
+     * le message est abandonné au-delà.
+     */
+    TIMED_WAIT,
+
+    /**
+     * L'appelant attend qu'une place se libère.
+     */
+    BLOCK;
+}
@@ -0,0 +1,311 @@
+package com.metallicbluedev.logger;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.logging.*;
+
+/**
+ * Limitation du nombre de messages semblables publiés par intervalle.
+ * <p>
+ * Les messages sont regroupés par clé (le texte ou le modèle du message, le type de l'exception,
+ * le site d'appel d'un message différé: son texte n'est pas construit avant la vérification).
+ * Pour chaque clé, seuls les premiers messages d'un intervalle sont acceptés;
+ * les suivants sont comptés puis signalés par un seul message de synthèse à la fin de l'intervalle.
+ * La vérification se fait avant toute construction du message, sans verrou.
+ *
+ * @version 1.00.02
+ * @author Sebastien Villemain
+ */
+final class LoggerRateLimiter {
+
+    /**
+     * Nombre maximum de clés suivies.
+     * Au-delà, les messages des nouvelles clés ne sont pas limités.
+     */
+    private static final int MAX_KEYS = 1024;
+
+    /**
+     * Niveaux limitables, dans l'ordre des limites.
+     */
+    private static final Level[] LEVELS = {Level.FINE, Level.INFO, Level.WARNING, Level.SEVERE};
+
+    /**
+     * Les compteurs par clé.
+     */
+    private final ConcurrentMap<Object, KeyCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Nombre maximum de messages par clé et par intervalle, pour chaque niveau (0 sans limite).
+     * Remplacé à chaque modification.
+     */
+    private volatile int[] limits = new int[LEVELS.length];
+
+    /**
+     * Nombre total de messages supprimés.
+     */
+    private final LongAdder suppressedCount = new LongAdder();
+
+    /**
+     * Publication des messages de synthèse.
+     */
+    private final LoggerManager manager;
+
+    /**
+     * Durée d'un intervalle (en nanosecondes).
+     */
+    private volatile long interval;
+
+    /**
+     * Date du dernier parcours des compteurs (en nanosecondes).
+     */
+    private final AtomicLong lastSweepTime = new AtomicLong(System.nanoTime());
+
+    /**
+     * Détermine si au moins un niveau est limité.
+     */
+    private volatile boolean enabled = false;
+
+    /**
+     * Nouvelle limitation, sans limite.
+     *
+     * @param manager
+     * @param interval Durée d'un intervalle en millisecondes.
+     */
+    LoggerRateLimiter(LoggerManager manager, int interval) {
+        this.manager = manager;
+        setInterval(interval);
+    }
+
+    /**
+     * Change le nombre maximum de messages par clé et par intervalle pour le niveau demandé.
+     *
+     * @param level {@link Level#FINE}, {@link Level#INFO}, {@link Level#WARNING} ou {@link Level#SEVERE}.
+     * @param limit Nombre de messages, 0 sans limite.
+     */
+    synchronized void setLimit(Level level, int limit) {
+        int index = indexOf(level);
+
+        if (index >= 0) {
+            int[] newLimits = limits.clone();
+            newLimits[index] = Math.max(0, limit);
+
+            boolean limited = false;
+
+            for (int value : newLimits) {
+                limited |= value > 0;
+            }
+
+            limits = newLimits;
+            enabled = limited;
+        }
+    }
+
+    /**
+     * Retourne le nombre maximum de messages par clé et par intervalle pour le niveau demandé.
+     *
+     * @param level
+     * @return Nombre de messages, 0 sans limite.
+     */
+    int getLimit(Level level) {
+        int index = indexOf(level);
+        return (index >= 0) ? limits[index] : 0;
+    }
+
+    /**
+     * Change la durée d'un intervalle.
+     *
+     * @param interval Durée en millisecondes.
+     */
+    void setInterval(int interval) {
+        this.interval = TimeUnit.MILLISECONDS.toNanos(Math.max(1, interval));
+    }
+
+    /**
+     * Retourne la durée d'un intervalle (en millisecondes).
+     *
+     * @return
+     */
+    int getInterval() {
+        return (int) TimeUnit.NANOSECONDS.toMillis(interval);
+    }
+
+    /**
+     * Retourne le nombre total de messages supprimés.
+     *
+     * @return
+     */
+    long getSuppressedCount() {
+        return suppressedCount.sum();
+    }
+
+    /**
+     * Détermine si le message peut être publié.
+     *
+     * @param level
+     * @param key Clé des messages semblables.
+     * @return
+     */
+    boolean tryAcquire(Level level, Object key) {
+        if (!enabled || key == null) {
+            return true;
+        }
+
+        int index = indexOf(level);
+        int limit = (index >= 0) ? limits[index] : 0;
+
+        if (limit <= 0) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        long currentInterval = interval;
+        sweepIfDue(now, currentInterval);
+
+        KeyCounter counter = counters.get(key);
+
+        if (counter == null) {
+            if (counters.size() >= MAX_KEYS) {
+                return true;
+            }
+
+            counter = counters.computeIfAbsent(key, k -> new KeyCounter(k, level, now));
+        }
+
+        counter.rollIfElapsed(now, currentInterval);
+
+        // Au-delà de la limite, le compteur partagé n'est plus modifié
+        if (counter.count.get() < limit && counter.count.incrementAndGet() <= limit) {
+            return true;
+        }
+
+        counter.suppressed.increment();
+        suppressedCount.increment();
+        return false;
+    }
+
+    /**
+     * Publication immédiate des synthèses en attente, quel que soit l'intervalle.
+     * Les synthèses sont écrites par l'appelant: utilisé avant la fermeture des flux.
+     */
+    void flush() {
+        for (KeyCounter counter : counters.values()) {
+            counter.report(System.nanoTime(), true);
+        }
+
+        counters.clear();
+    }
+
+    /**
+     * Parcours des compteurs une fois par intervalle:
+     * publication des synthèses échues et suppression des clés inactives.
+     *
+     * @param now
+     * @param currentInterval
+     */
+    private void sweepIfDue(long now, long currentInterval) {
+        long lastSweep = lastSweepTime.get();
+
+        if (now - lastSweep >= currentInterval && lastSweepTime.compareAndSet(lastSweep, now)) {
+            for (Iterator<KeyCounter> iterator = counters.values().iterator(); iterator.hasNext();) {
+                KeyCounter counter = iterator.next();
+
+                if (now - counter.windowStart >= currentInterval) {
+                    if (counter.suppressed.sum() > 0) {
+                        counter.rollIfElapsed(now, currentInterval);
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retourne la position du niveau dans les limites.
+     *
+     * @param level
+     * @return -1 si le niveau n'est pas limitable.
+     */
+    private static int indexOf(Level level) {
+        int index = -1;
+
+        for (int i = 0; i < LEVELS.length && index < 0; i++) {
+            if (LEVELS[i] == level) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Compteur des messages semblables d'une clé.
+     */
+    private final class KeyCounter {
+
+        private final Object key;
+
+        private final Level level;
+
+        /**
+         * Début de l'intervalle courant (en nanosecondes).
+         */
+        private volatile long windowStart;
+
+        /**
+         * Nombre de messages de l'intervalle courant.
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Nombre de messages supprimés non encore signalés.
+         */
+        private final LongAdder suppressed = new LongAdder();
+
+        private KeyCounter(Object key, Level level, long windowStart) {
+            this.key = key;
+            this.level = level;
+            this.windowStart = windowStart;
+        }
+
+        /**
+         * Passage à l'intervalle suivant si l'intervalle courant est écoulé.
+         *
+         * @param now
+         * @param currentInterval
+         */
+        private void rollIfElapsed(long now, long currentInterval) {
+            long start = windowStart;
+
+            if (now - start >= currentInterval) {
+                synchronized (this) {
+                    // Un seul thread change d'intervalle
+                    if (windowStart == start) {
+                        report(now, false);
+                        windowStart = now;
+                        count.set(0);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Publication de la synthèse des messages supprimés.
+         *
+         * @param now
+         * @param immediate Ecriture par l'appelant plutôt que par le thread de publication.
+         */
+        private void report(long now, boolean immediate) {
+            long suppressedMessages = suppressed.sumThenReset();
+
+            if (suppressedMessages > 0) {
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(now - windowStart);
+                manager.addSummary(immediate, level, "Suppressed {0} similar events in the last {1} ms: {2}", suppressedMessages, elapsed, describeKey());
+            }
+        }
+
+        private String describeKey() {
+            return (key instanceof Class<?> type) ? type.getName() : String.valueOf(key);
+        }
+    }
+}
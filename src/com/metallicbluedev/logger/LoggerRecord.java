@@ -0,0 +1,129 @@
+package com.metallicbluedev.logger;
+
+import java.text.*;
+import java.util.logging.*;
+
+/**
+ * Message du journal qui retient le nom et le contexte de diagnostic du thread émetteur.
+ * <p>
+ * Le message est mis en forme par le thread de publication:
+ * le nom et le contexte du thread émetteur ne sont plus disponibles à ce moment-là.
+ * Le modèle et ses paramètres sont conservés; le texte est mis en forme à la première lecture
+ * ({@link #getMessage()}), jamais si le message est écrit au format binaire.
+ *
+ * @version 1.02.00
+ * @author Sebastien Villemain
+ */
+final class LoggerRecord extends LogRecord {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Le nom du thread émetteur.
+     */
+    private final String threadName;
+
+    /**
+     * Le contexte de diagnostic du thread émetteur.
+     */
+    private final LoggerContext context;
+
+    /**
+     * Le message mis en forme à la première lecture.
+     */
+    private transient volatile String formattedMessage;
+
+    LoggerRecord(Level level, String message) {
+        super(level, message);
+        threadName = Thread.currentThread().getName();
+        context = LoggerContext.current();
+    }
+
+    /**
+     * Message relu d'un journal binaire.
+     *
+     * @param level
+     * @param message
+     * @param threadName
+     * @param context
+     */
+    LoggerRecord(Level level, String message, String threadName, LoggerContext context) {
+        super(level, message);
+        this.threadName = threadName;
+        this.context = (context != null) ? context : LoggerContext.EMPTY;
+    }
+
+    /**
+     * Retourne le nom du thread émetteur.
+     *
+     * @return
+     */
+    String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * Retourne le contexte de diagnostic du thread émetteur.
+     *
+     * @return
+     */
+    LoggerContext getContext() {
+        return context;
+    }
+
+    /**
+     * Retourne le modèle du message, sans mise en forme des paramètres.
+     *
+     * @return
+     */
+    String getPattern() {
+        return super.getMessage();
+    }
+
+    /**
+     * Retourne le message, avec les paramètres mis en forme.
+     *
+     * @return
+     */
+    @Override
+    public String getMessage() {
+        String message = formattedMessage;
+
+        if (message == null) {
+            message = formatMessage();
+            formattedMessage = message;
+        }
+        return message;
+    }
+
+    @Override
+    public void setMessage(String message) {
+        super.setMessage(message);
+        formattedMessage = null;
+    }
+
+    @Override
+    public void setParameters(Object[] parameters) {
+        super.setParameters(parameters);
+        formattedMessage = null;
+    }
+
+    /**
+     * Mise en forme des paramètres du message.
+     *
+     * @return
+     */
+    private String formatMessage() {
+        String message = super.getMessage();
+        Object[] parameters = getParameters();
+
+        if (parameters != null && parameters.length > 0 && message != null) {
+            try {
+                message = MessageFormat.format(message, parameters);
+            } catch (IllegalArgumentException ex) {
+                // Le modèle invalide est conservé tel quel
+            }
+        }
+        return message;
+    }
+}
@@ -0,0 +1,224 @@
+package com.metallicbluedev.logger;
+
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import java.util.function.*;
+import java.util.logging.*;
+
+/**
+ * Tampon circulaire des messages en attente de publication.
+ * <p>
+ * Plusieurs producteurs, un seul consommateur.
+ * Les emplacements sont alloués une fois pour toutes:
+ * un producteur réserve un emplacement par une seule opération atomique
+ * puis le publie en avançant son numéro de séquence.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+final class LoggerRingBuffer {
+
+    /**
+     * Les emplacements.
+     */
+    private final Slot[] slots;
+
+    /**
+     * Masque de la position d'un emplacement.
+     */
+    private final int mask;
+
+    /**
+     * Prochaine position réservée par un producteur.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Prochaine position lue par le consommateur.
+     * Modifiée par le consommateur uniquement.
+     */
+    private long head = 0;
+
+    /**
+     * Nombre de messages lus, publié après chaque lot.
+     */
+    private volatile long consumed = 0;
+
+    /**
+     * Le consommateur suspendu, <code>null</code> s'il est actif.
+     */
+    private volatile Thread waitingConsumer = null;
+
+    /**
+     * Nouveau tampon.
+     *
+     * @param capacity Nombre d'emplacements, arrondi à la puissance de deux supérieure.
+     */
+    LoggerRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        slots = new Slot[size];
+        mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i);
+        }
+    }
+
+    /**
+     * Retourne le nombre d'emplacements.
+     *
+     * @return
+     */
+    int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Retourne le nombre approximatif de messages en attente.
+     *
+     * @return
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - consumed);
+    }
+
+    /**
+     * Ajoute un message.
+     * Retourne <code>false</code> si le tampon est plein.
+     *
+     * @param manager
+     * @param record
+     * @return
+     */
+    boolean offer(LoggerManager manager, LogRecord record) {
+        long position = tail.get();
+
+        while (true) {
+            Slot slot = slots[(int) position & mask];
+            long difference = slot.sequence - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slot.manager = manager;
+                    slot.record = record;
+                    slot.sequence = position + 1;
+
+                    Thread consumer = waitingConsumer;
+
+                    if (consumer != null) {
+                        LockSupport.unpark(consumer);
+                    }
+                    return true;
+                }
+
+                position = tail.get();
+            } else if (difference < 0) {
+                // L'emplacement n'a pas encore été libéré par le consommateur
+                return false;
+            } else {
+                // Un autre producteur a réservé l'emplacement
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Retire les messages publiés, au plus la taille des tableaux.
+     * Réservé au consommateur.
+     *
+     * @param managers
+     * @param records
+     * @return Le nombre de messages retirés.
+     */
+    int drainTo(LoggerManager[] managers, LogRecord[] records) {
+        int count = 0;
+        int maxCount = Math.min(managers.length, records.length);
+
+        while (count < maxCount) {
+            Slot slot = slots[(int) head & mask];
+
+            if (slot.sequence != head + 1) {
+                break;
+            }
+
+            managers[count] = slot.manager;
+            records[count] = slot.record;
+            slot.manager = null;
+            slot.record = null;
+
+            // Libération de l'emplacement pour le tour suivant
+            slot.sequence = head + slots.length;
+            head++;
+            count++;
+        }
+
+        if (count > 0) {
+            consumed = head;
+        }
+        return count;
+    }
+
+    /**
+     * Détermine si un message est disponible.
+     * Réservé au consommateur.
+     *
+     * @return
+     */
+    boolean isEmpty() {
+        return slots[(int) head & mask].sequence != head + 1;
+    }
+
+    /**
+     * Suspend le consommateur jusqu'au prochain message ou la fin du délai.
+     * Réservé au consommateur.
+     *
+     * @param canWait Condition vérifiée après l'enregistrement du consommateur.
+     * @param timeout Délai maximum (en nanosecondes), sans limite si négatif ou nul.
+     */
+    void awaitRecords(BooleanSupplier canWait, long timeout) {
+        waitingConsumer = Thread.currentThread();
+
+        try {
+            // La vérification après l'enregistrement garantit qu'aucun réveil n'est perdu
+            if (isEmpty() && canWait.getAsBoolean()) {
+                if (timeout > 0) {
+                    LockSupport.parkNanos(this, timeout);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    /**
+     * Réveil du consommateur suspendu.
+     */
+    void wakeUpConsumer() {
+        Thread consumer = waitingConsumer;
+
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Emplacement d'un message.
+     */
+    private static final class Slot {
+
+        /**
+         * Position attendue par un producteur, position + 1 une fois publié.
+         */
+        private volatile long sequence;
+
+        private LoggerManager manager = null;
+
+        private LogRecord record = null;
+
+        private Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
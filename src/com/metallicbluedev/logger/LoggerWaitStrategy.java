@@ -0,0 +1,33 @@
+package com.metallicbluedev.logger;
+
+/**
+ * Attente du thread de publication lorsque le tampon du journal est vide.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public enum LoggerWaitStrategy {
+    /**
+     * Le thread est suspendu jusqu'au prochain message.
+     * Aucune consommation du processeur à vide, mais chaque message réveille le thread.
+     */
+    BLOCKING,
+
+    /**
+     * Le thread boucle brièvement, cède la main puis se suspend par courtes périodes.
+     * Les producteurs n'ont jamais à réveiller le thread.
+     */
+    SLEEPING,
+
+    /**
+     * Le thread boucle brièvement puis cède la main aux autres threads.
+     * Faible latence, consomme du processeur à vide.
+     */
+    YIELDING,
+
+    /**
+     * Le thread boucle en permanence.
+     * Latence minimale, occupe un processeur à vide.
+     */
+    BUSY_SPIN;
+}
@@ -0,0 +1,20 @@
+package com.metallicbluedev.threading;
+
+/**
+ * Traitement d'une tâche dont l'échéance est dépassée.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public enum DeadlinePolicy {
+    /**
+     * La tâche est abandonnée au lieu d'être exécutée en retard.
+     */
+    DROP,
+
+    /**
+     * La tâche passe devant toutes les autres (mode {@link ThreadPoolMode#PRIORITY_QUEUE}).
+     * Dans les autres modes, la tâche est exécutée à son tour.
+     */
+    ESCALATE;
+}
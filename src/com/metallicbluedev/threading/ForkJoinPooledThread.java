@@ -0,0 +1,123 @@
+package com.metallicbluedev.threading;
+
+import java.util.concurrent.*;
+
+/**
+ * Thread d'un groupe en mode {@link ThreadPoolMode#FORK_JOIN}.
+ * <p>
+ * Le thread appartient au groupe de threads: il est énuméré et arrêté avec le groupe.
+ *
+ * @version 1.00.02
+ * @author Sebastien Villemain
+ */
+public final class ForkJoinPooledThread extends ForkJoinWorkerThread {
+
+    /**
+     * Le groupe propriétaire.
+     */
+    private final ThreadPool threadPool;
+
+    /**
+     * Le service représentant le thread.
+     */
+    private final ServiceProcess process = new WorkerProcess();
+
+    /**
+     * Activité du thread.
+     */
+    private ThreadPoolStatistics.WorkerActivity activity = null;
+
+    /**
+     * La tâche en cours d'exécution.
+     */
+    private volatile ServiceProcess task = null;
+
+    ForkJoinPooledThread(ThreadPool threadPool, ForkJoinPool forkJoinPool) {
+        super(threadPool, forkJoinPool, true);
+        this.threadPool = threadPool;
+        setName(threadPool.nextPooledThreadNameIndex() + "-" + threadPool.getPooledThreadName());
+    }
+
+    /**
+     * Retourne le groupe propriétaire.
+     *
+     * @return
+     */
+    public ThreadPool getThreadPool() {
+        return threadPool;
+    }
+
+    /**
+     * Retourne le service représentant le thread.
+     * L'arrêt du service arrête la tâche en cours et interrompt le thread.
+     *
+     * @return
+     */
+    public ServiceProcess getTask() {
+        return process;
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        activity = threadPool.onWorkerStarted();
+    }
+
+    @Override
+    protected void onTermination(Throwable exception) {
+        try {
+            threadPool.onWorkerStopped();
+        } finally {
+            super.onTermination(exception);
+        }
+    }
+
+    /**
+     * Exécution d'une tâche du groupe.
+     *
+     * @param pooledTask
+     */
+    void runPooledTask(PooledTask pooledTask) {
+        // Un thread en attente d'une sous-tâche peut exécuter une autre tâche du groupe
+        ServiceProcess previousTask = task;
+        task = pooledTask.task;
+
+        try {
+            threadPool.runPooledTask(pooledTask, (previousTask == null) ? activity : null);
+        } finally {
+            task = previousTask;
+        }
+    }
+
+    /**
+     * Service représentant le thread.
+     */
+    private class WorkerProcess implements ServiceProcess {
+
+        @Override
+        public void run() {
+            // NE RIEN FAIRE
+        }
+
+        @Override
+        public void start() {
+            // NE RIEN FAIRE
+        }
+
+        @Override
+        public void stop() {
+            ServiceProcess currentTask = task;
+
+            if (currentTask != null) {
+                currentTask.stop();
+            }
+
+            interrupt();
+        }
+
+        @Override
+        public boolean running() {
+            return isAlive();
+        }
+    }
+}
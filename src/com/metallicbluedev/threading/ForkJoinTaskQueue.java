@@ -0,0 +1,172 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * File d'attente confiée à un {@link ForkJoinPool}.
+ * <p>
+ * Les threads du {@link ForkJoinPool} sont membres du groupe ({@link ForkJoinPooledThread}):
+ * les tâches ne sont pas prises par {@link #take(ServiceProcess, long)} mais exécutées directement par ces threads.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+final class ForkJoinTaskQueue implements TaskQueue {
+
+    /**
+     * Le groupe propriétaire.
+     */
+    private final ThreadPool pool;
+
+    /**
+     * Les threads exécutant les tâches.
+     */
+    private final TaskForkJoinPool forkJoinPool;
+
+    /**
+     * Nombre de tâches en attente.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    ForkJoinTaskQueue(ThreadPool pool, int parallelism) {
+        this.pool = pool;
+        forkJoinPool = new TaskForkJoinPool(Math.max(1, parallelism), pool);
+    }
+
+    @Override
+    public void register(ServiceProcess worker) {
+        // NE RIEN FAIRE
+    }
+
+    @Override
+    public void unregister(ServiceProcess worker) {
+        // NE RIEN FAIRE
+    }
+
+    @Override
+    public void add(PooledTask task) {
+        size.incrementAndGet();
+
+        try {
+            forkJoinPool.execute(new PooledTaskAction(task));
+        } catch (RejectedExecutionException ex) {
+            size.decrementAndGet();
+            throw new IllegalStateException(pool.getClass().getSimpleName() + " is not alive.", ex);
+        }
+    }
+
+    @Override
+    public PooledTask take(ServiceProcess worker, long timeout) throws InterruptedException {
+        // Les tâches sont exécutées par les threads du ForkJoinPool
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return Math.max(0, size.get());
+    }
+
+    @Override
+    public PooledTask pollOldest() {
+        PooledTask oldest = null;
+        ForkJoinTask<?> task;
+
+        while (oldest == null && (task = forkJoinPool.pollSubmission()) != null) {
+            oldest = unwrap(task);
+        }
+        return oldest;
+    }
+
+    @Override
+    public List<PooledTask> drainTasks() {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        forkJoinPool.drainTasksTo(tasks);
+
+        List<PooledTask> drained = new ArrayList<>(tasks.size());
+
+        for (ForkJoinTask<?> task : tasks) {
+            PooledTask pooledTask = unwrap(task);
+
+            if (pooledTask != null) {
+                drained.add(pooledTask);
+            }
+        }
+        return drained;
+    }
+
+    @Override
+    public void wakeUpAll() {
+        if (!pool.canTakeTask()) {
+            forkJoinPool.shutdownNow();
+        } else if (!pool.isAlive()) {
+            // Les tâches soumises sont encore exécutées, puis les threads s'arrêtent
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Retourne la tâche du groupe retirée du ForkJoinPool.
+     * Une sous-tâche retirée est annulée.
+     *
+     * @param task
+     * @return PooledTask or <code>null</code>.
+     */
+    private PooledTask unwrap(ForkJoinTask<?> task) {
+        PooledTask pooledTask = null;
+
+        if (task instanceof PooledTaskAction action) {
+            size.decrementAndGet();
+            pooledTask = action.task;
+        } else {
+            task.cancel(false);
+        }
+        return pooledTask;
+    }
+
+    /**
+     * Exécution d'une tâche du groupe par un thread du ForkJoinPool.
+     */
+    private class PooledTaskAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient PooledTask task;
+
+        private PooledTaskAction(PooledTask task) {
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            size.decrementAndGet();
+
+            if (Thread.currentThread() instanceof ForkJoinPooledThread worker) {
+                worker.runPooledTask(task);
+            } else {
+                pool.runPooledTask(task, null);
+            }
+        }
+    }
+
+    /**
+     * ForkJoinPool dont les threads sont membres du groupe.
+     */
+    private static class TaskForkJoinPool extends ForkJoinPool {
+
+        private TaskForkJoinPool(int parallelism, ThreadPool pool) {
+            super(parallelism, forkJoinPool -> new ForkJoinPooledThread(pool, forkJoinPool), pool, false);
+        }
+
+        @Override
+        protected ForkJoinTask<?> pollSubmission() {
+            return super.pollSubmission();
+        }
+
+        @Override
+        protected int drainTasksTo(Collection<? super ForkJoinTask<?>> c) {
+            return super.drainTasksTo(c);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.metallicbluedev.threading;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Tâche dont le résultat est publié dans un {@link CompletableFuture}.
+ * <p>
+ * L'annulation du résultat arrête le service ({@link ServiceProcess#stop()}),
+ * et l'arrêt du service par le groupe annule le résultat.
+ *
+ * @version 1.02.03
+ * @author Sebastien Villemain
+ * @param <V>
+ */
+final class FutureServiceProcess<V> implements ServiceProcess {
+
+    /**
+     * Le service d'origine, ou <code>null</code> pour une simple procédure.
+     */
+    private final ServiceProcess service;
+
+    /**
+     * La procédure produisant le résultat.
+     */
+    private final Callable<V> callable;
+
+    /**
+     * Le résultat de la tâche.
+     */
+    private final ServiceFuture<V> future;
+
+    /**
+     * Etat d'exécution: la tâche n'est pas démarrée.
+     */
+    private static final int STATE_NEW = 0;
+
+    /**
+     * Etat d'exécution: la tâche est en cours.
+     */
+    private static final int STATE_RUNNING = 1;
+
+    /**
+     * Etat d'exécution: l'annulation interrompt le thread.
+     */
+    private static final int STATE_INTERRUPTING = 2;
+
+    /**
+     * Etat d'exécution: l'annulation a interrompu le thread.
+     */
+    private static final int STATE_INTERRUPTED = 3;
+
+    /**
+     * Etat d'exécution: la tâche est terminée, son thread ne peut plus être interrompu.
+     */
+    private static final int STATE_DONE = 4;
+
+    /**
+     * Etat d'exécution: la tâche a été annulée avant son exécution, elle ne sera jamais exécutée.
+     */
+    private static final int STATE_CANCELLED = 5;
+
+    /**
+     * Etat d'exécution de la tâche.
+     */
+    private final AtomicInteger state = new AtomicInteger(STATE_NEW);
+
+    /**
+     * Le thread exécutant la tâche.
+     */
+    private volatile Thread runner = null;
+
+    FutureServiceProcess(Callable<V> callable) {
+        this(null, callable);
+    }
+
+    FutureServiceProcess(ServiceProcess service, Callable<V> callable) {
+        this.service = service;
+        this.callable = callable;
+        future = new ServiceFuture<>(this);
+    }
+
+    /**
+     * Nouvelle tâche pour un service.
+     *
+     * @param service
+     * @return
+     */
+    static FutureServiceProcess<Void> of(ServiceProcess service) {
+        return new FutureServiceProcess<>(service, Executors.callable(service, null));
+    }
+
+    /**
+     * Retourne le service d'origine.
+     * Si la tâche n'est pas un service, retourne la tâche elle-même.
+     *
+     * @param task
+     * @return
+     */
+    static ServiceProcess unwrap(ServiceProcess task) {
+        ServiceProcess service = task;
+
+        if (task instanceof FutureServiceProcess<?> futureTask && futureTask.service != null) {
+            service = futureTask.service;
+        }
+        return service;
+    }
+
+    /**
+     * Signale que la tâche ne sera jamais exécutée.
+     *
+     * @param task
+     * @param reason
+     */
+    static void reject(ServiceProcess task, String reason) {
+        if (task instanceof FutureServiceProcess<?> futureTask) {
+            futureTask.future.completeExceptionally(new RejectedExecutionException(reason));
+        } else if (task instanceof ScheduledServiceTask scheduledTask) {
+            scheduledTask.completeExceptionally(new RejectedExecutionException(reason));
+        }
+    }
+
+    /**
+     * Détermine si la tâche a échoué (l'annulation n'est pas un échec).
+     *
+     * @param task
+     * @return
+     */
+    static boolean isFailed(ServiceProcess task) {
+        boolean failed = false;
+
+        if (task instanceof FutureServiceProcess<?> futureTask) {
+            failed = futureTask.future.isCompletedExceptionally() && !futureTask.future.isCancelled();
+        }
+        return failed;
+    }
+
+    /**
+     * Retourne le résultat de la tâche.
+     *
+     * @return
+     */
+    CompletableFuture<V> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void start() {
+        if (service != null && !future.isDone()) {
+            service.start();
+        }
+    }
+
+    @Override
+    public void run() {
+        runner = Thread.currentThread();
+
+        // Seule admission: une tâche annulée avant son exécution n'est jamais exécutée
+        if (state.compareAndSet(STATE_NEW, STATE_RUNNING)) {
+            try {
+                // Le résultat a pu être publié par ailleurs (rejet, résultat forcé)
+                if (!future.isDone()) {
+                    future.complete(callable.call());
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                finishRun();
+            }
+        } else {
+            runner = null;
+        }
+    }
+
+    @Override
+    public void stop() {
+        // Le service est arrêté même si son résultat est déjà publié
+        if (!future.cancel(false) && service != null && service.running()) {
+            service.stop();
+        }
+    }
+
+    @Override
+    public boolean running() {
+        int currentState = state.get();
+        return currentState > STATE_NEW && currentState < STATE_DONE;
+    }
+
+    /**
+     * Fin de l'exécution: le thread ne peut plus être interrompu pour cette tâche.
+     */
+    private void finishRun() {
+        if (!state.compareAndSet(STATE_RUNNING, STATE_DONE)) {
+            // L'interruption liée à l'annulation ne concerne pas la tâche suivante du thread
+            while (state.get() == STATE_INTERRUPTING) {
+                Thread.onSpinWait();
+            }
+
+            Thread.interrupted();
+            state.set(STATE_DONE);
+        }
+
+        runner = null;
+    }
+
+    /**
+     * Arrêt de la tâche suite à l'annulation de son résultat.
+     * Le thread n'est interrompu que pendant l'exécution de cette tâche.
+     *
+     * @param mayInterruptIfRunning
+     */
+    private void onCancelled(boolean mayInterruptIfRunning) {
+        if (service != null) {
+            service.stop();
+        }
+
+        if (mayInterruptIfRunning && state.compareAndSet(STATE_RUNNING, STATE_INTERRUPTING)) {
+            try {
+                Thread currentRunner = runner;
+
+                if (currentRunner != null) {
+                    currentRunner.interrupt();
+                }
+            } finally {
+                state.set(STATE_INTERRUPTED);
+            }
+        }
+    }
+
+    /**
+     * Résultat annulable d'une tâche.
+     *
+     * @param <V>
+     */
+    private static class ServiceFuture<V> extends CompletableFuture<V> {
+
+        private final FutureServiceProcess<V> task;
+
+        private ServiceFuture(FutureServiceProcess<V> task) {
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            // Une tâche non démarrée est annulée avant que son exécution ne puisse commencer
+            task.state.compareAndSet(STATE_NEW, STATE_CANCELLED);
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+            if (cancelled) {
+                task.onCancelled(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.metallicbluedev.threading;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Histogramme de durées à précision relative constante.
+ * <p>
+ * Chaque puissance de 2 est découpée en {@value #SUB_BUCKET_COUNT} cases:
+ * l'erreur relative d'une valeur restituée est inférieure à 1/{@value #SUB_BUCKET_COUNT}.
+ * Les cases sont préallouées: l'enregistrement d'une valeur n'alloue aucun objet.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Nombre de bits de précision de chaque case.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Nombre de cases par puissance de 2.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Plus grande valeur enregistrable (en nanosecondes, environ 1 heure).
+     * Les valeurs supérieures sont enregistrées dans la dernière case.
+     */
+    private static final long HIGHEST_TRACKABLE_VALUE = (1L << 42) - 1;
+
+    /**
+     * Nombre de valeurs par case.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * Nombre total de valeurs.
+     */
+    private final LongAdder totalCount = new LongAdder();
+
+    /**
+     * Somme des valeurs (en nanosecondes).
+     */
+    private final LongAdder totalValue = new LongAdder();
+
+    /**
+     * Valeur maximum (en nanosecondes).
+     */
+    private final LongAccumulator maximumValue = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        counts = new AtomicLongArray(indexOf(HIGHEST_TRACKABLE_VALUE) + 1);
+    }
+
+    /**
+     * Enregistre une durée.
+     *
+     * @param value Durée en nanosecondes.
+     */
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        counts.incrementAndGet(indexOf(Math.min(value, HIGHEST_TRACKABLE_VALUE)));
+        totalCount.increment();
+        totalValue.add(value);
+        maximumValue.accumulate(value);
+    }
+
+    /**
+     * Retourne le nombre de durées enregistrées.
+     *
+     * @return
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Retourne la durée moyenne.
+     *
+     * @param unit
+     * @return
+     */
+    public long getMean(TimeUnit unit) {
+        long count = totalCount.sum();
+        return unit.convert((count > 0) ? totalValue.sum() / count : 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Retourne la durée maximum.
+     *
+     * @param unit
+     * @return
+     */
+    public long getMaximum(TimeUnit unit) {
+        return unit.convert(maximumValue.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Retourne la durée en dessous de laquelle se trouve le pourcentage de valeurs demandé.
+     *
+     * @param percentile Pourcentage entre 0 et 100.
+     * @param unit
+     * @return
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        long value = 0;
+        long total = 0;
+
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+
+        if (total > 0) {
+            long rank = Math.max(1, (long) Math.ceil((Math.min(Math.max(percentile, 0), 100) / 100) * total));
+            long count = 0;
+
+            for (int i = 0; i < counts.length(); i++) {
+                count += counts.get(i);
+
+                if (count >= rank) {
+                    value = Math.min(highestValueOf(i), maximumValue.get());
+                    break;
+                }
+            }
+        }
+        return unit.convert(value, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Remise à zéro de l'histogramme.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+
+        totalCount.reset();
+        totalValue.reset();
+        maximumValue.reset();
+    }
+
+    /**
+     * Retourne la case d'une valeur.
+     *
+     * @param value
+     * @return
+     */
+    private static int indexOf(long value) {
+        int index;
+
+        if (value < SUB_BUCKET_COUNT) {
+            index = (int) value;
+        } else {
+            int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+            index = (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+        }
+        return index;
+    }
+
+    /**
+     * Retourne la plus grande valeur d'une case.
+     *
+     * @param index
+     * @return
+     */
+    private static long highestValueOf(int index) {
+        long value;
+
+        if (index < SUB_BUCKET_COUNT) {
+            value = index;
+        } else {
+            int shift = (index / SUB_BUCKET_COUNT) - 1;
+            long subBucket = (index % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+            value = ((subBucket + 1) << shift) - 1;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,181 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Barrière de pause des threads d'un groupe.
+ * <p>
+ * Hors pause, le passage de la barrière est une simple lecture volatile.
+ * Pendant la pause, les threads sont suspendus (sans attente active) jusqu'à la reprise.
+ * Pendant un bridage, les threads sont suspendus jusqu'à la fin du bridage.
+ *
+ * @version 1.01.01
+ * @author Sebastien Villemain
+ */
+final class PauseGate {
+
+    /**
+     * Threads suspendus par la pause.
+     */
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Détermine si la barrière est fermée (pause ou bridage).
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Etat de la pause.
+     */
+    private volatile boolean paused = false;
+
+    /**
+     * Etat du bridage.
+     */
+    private boolean throttled = false;
+
+    /**
+     * Fin du bridage (en nanosecondes).
+     */
+    private long throttledUntil = 0;
+
+    PauseGate() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Détermine si la pause est demandée.
+     *
+     * @return
+     */
+    boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Détermine si le bridage est en cours.
+     *
+     * @return
+     */
+    synchronized boolean isThrottled() {
+        return throttled && System.nanoTime() - throttledUntil < 0;
+    }
+
+    /**
+     * Demande la pause.
+     * Les threads sont suspendus à leur prochain passage de la barrière.
+     */
+    synchronized void pause() {
+        paused = true;
+        closed = true;
+    }
+
+    /**
+     * Reprise des threads suspendus.
+     */
+    void resume() {
+        synchronized (this) {
+            paused = false;
+            updateState(System.nanoTime());
+        }
+
+        wakeUpAll();
+    }
+
+    /**
+     * Bridage des threads pendant la durée demandée.
+     * Les threads sont suspendus à leur prochain passage de la barrière.
+     *
+     * @param duration Durée en nanosecondes.
+     */
+    synchronized void throttle(long duration) {
+        if (duration > 0) {
+            long until = System.nanoTime() + duration;
+
+            if (!throttled || until - throttledUntil > 0) {
+                throttledUntil = until;
+            }
+
+            throttled = true;
+            closed = true;
+        }
+    }
+
+    /**
+     * Passage de la barrière.
+     * Pendant la pause ou le bridage, le thread courant est suspendu.
+     *
+     * @throws InterruptedException
+     */
+    void await() throws InterruptedException {
+        if (closed) {
+            awaitOpen();
+        }
+    }
+
+    /**
+     * Suspension du thread courant jusqu'à l'ouverture de la barrière.
+     *
+     * @throws InterruptedException
+     */
+    private void awaitOpen() throws InterruptedException {
+        Thread currentThread = Thread.currentThread();
+        waiters.add(currentThread);
+
+        try {
+            // L'état est vérifié après l'enregistrement pour ne pas perdre la reprise
+            while (true) {
+                long waitTime;
+
+                synchronized (this) {
+                    long now = System.nanoTime();
+                    updateState(now);
+
+                    if (!closed) {
+                        break;
+                    }
+
+                    waitTime = paused ? 0 : throttledUntil - now;
+                }
+
+                if (waitTime > 0) {
+                    LockSupport.parkNanos(this, waitTime);
+                } else {
+                    LockSupport.park(this);
+                }
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiters.remove(currentThread);
+        }
+    }
+
+    /**
+     * Mise à jour de l'état de la barrière.
+     *
+     * @param now
+     */
+    private void updateState(long now) {
+        if (throttled && now - throttledUntil >= 0) {
+            throttled = false;
+        }
+
+        closed = paused || throttled;
+    }
+
+    /**
+     * Réveil des threads suspendus.
+     * Chaque thread se retire lui-même de la liste en quittant la barrière:
+     * un thread réveillé qui trouve la barrière de nouveau fermée reste enregistré pour la prochaine reprise.
+     */
+    private void wakeUpAll() {
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+}
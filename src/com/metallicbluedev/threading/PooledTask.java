@@ -0,0 +1,78 @@
+package com.metallicbluedev.threading;
+
+import com.metallicbluedev.logger.*;
+
+/**
+ * Tâche en attente dans la file d'un groupe de threads.
+ *
+ * @version 1.02.01
+ * @author Sebastien Villemain
+ */
+final class PooledTask {
+
+    /**
+     * La tâche à exécuter.
+     */
+    final ServiceProcess task;
+
+    /**
+     * Priorité de la tâche.
+     */
+    final TaskPriority priority;
+
+    /**
+     * Date de soumission de la tâche (en nanosecondes).
+     */
+    final long submitTime;
+
+    /**
+     * Echéance de la tâche (en nanosecondes).
+     */
+    final long deadline;
+
+    /**
+     * Détermine si la tâche a une échéance.
+     */
+    final boolean hasDeadline;
+
+    /**
+     * Contexte de diagnostic de l'émetteur, rétabli pendant l'exécution de la tâche.
+     */
+    final LoggerContext context;
+
+    /**
+     * Nouvelle tâche en attente.
+     *
+     * @param task
+     * @param priority
+     * @param timeout Délai d'exécution en nanosecondes, 0 pour aucune échéance.
+     */
+    PooledTask(ServiceProcess task, TaskPriority priority, long timeout) {
+        this.task = task;
+        this.priority = (priority != null) ? priority : TaskPriority.NORMAL;
+        submitTime = System.nanoTime();
+        hasDeadline = timeout > 0;
+        deadline = hasDeadline ? submitTime + timeout : 0;
+        context = LoggerContext.current();
+    }
+
+    /**
+     * Retourne le temps d'attente de la tâche en nanosecondes.
+     *
+     * @param now
+     * @return
+     */
+    long getWaitTime(long now) {
+        return now - submitTime;
+    }
+
+    /**
+     * Détermine si l'échéance de la tâche est dépassée.
+     *
+     * @param now
+     * @return
+     */
+    boolean isExpired(long now) {
+        return hasDeadline && now - deadline > 0;
+    }
+}
@@ -0,0 +1,163 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * File partagée ordonnée par priorité puis par ordre d'arrivée.
+ * <p>
+ * Chaque priorité dispose de sa propre file: l'ajout et le retrait restent en temps constant.
+ * Avec {@link DeadlinePolicy#ESCALATE}, une tâche en tête de file dont l'échéance est dépassée
+ * passe devant les tâches plus prioritaires.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+final class PriorityTaskQueue implements TaskQueue {
+
+    /**
+     * Le groupe propriétaire.
+     */
+    private final ThreadPool pool;
+
+    /**
+     * Files de tâches par priorité.
+     */
+    private final List<Deque<PooledTask>> levels;
+
+    /**
+     * Nombre de tâches en attente.
+     */
+    private int size = 0;
+
+    PriorityTaskQueue(ThreadPool pool) {
+        this.pool = pool;
+        levels = new ArrayList<>(TaskPriority.values().length);
+
+        for (int i = 0; i < TaskPriority.values().length; i++) {
+            levels.add(new ArrayDeque<>());
+        }
+    }
+
+    @Override
+    public void register(ServiceProcess worker) {
+        // NE RIEN FAIRE
+    }
+
+    @Override
+    public void unregister(ServiceProcess worker) {
+        // NE RIEN FAIRE
+    }
+
+    @Override
+    public synchronized void add(PooledTask task) {
+        levels.get(task.priority.ordinal()).addLast(task);
+        size++;
+        notify();
+    }
+
+    @Override
+    public synchronized PooledTask take(ServiceProcess worker, long timeout) throws InterruptedException {
+        PooledTask service = null;
+        long deadline = System.nanoTime() + timeout;
+
+        // Si la file est vide, on attend la prochaine tâche
+        while (size == 0) {
+            if (!pool.isAlive() || !worker.running()) {
+                // Traitement impossible
+                break;
+            }
+
+            if (timeout > 0) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    // Temps d'attente écoulé
+                    break;
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } else {
+                wait();
+            }
+        }
+
+        if (size > 0 && pool.canTakeTask() && worker.running()) {
+            service = next();
+        } else if (size > 0) {
+            // Le signal est transmis à un autre thread
+            notify();
+        }
+        return service;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized PooledTask pollOldest() {
+        PooledTask service = null;
+
+        // La tâche la plus ancienne de la priorité la plus basse
+        for (int i = levels.size() - 1; i >= 0 && service == null; i--) {
+            service = levels.get(i).pollFirst();
+        }
+
+        if (service != null) {
+            size--;
+        }
+        return service;
+    }
+
+    @Override
+    public synchronized List<PooledTask> drainTasks() {
+        List<PooledTask> drained = new ArrayList<>(size);
+
+        for (Deque<PooledTask> level : levels) {
+            drained.addAll(level);
+            level.clear();
+        }
+
+        size = 0;
+        return drained;
+    }
+
+    @Override
+    public synchronized void wakeUpAll() {
+        notifyAll();
+    }
+
+    /**
+     * Retire la prochaine tâche à exécuter.
+     *
+     * @return PooledTask or <code>null</code>.
+     */
+    private PooledTask next() {
+        PooledTask service = null;
+
+        if (pool.getDeadlinePolicy() == DeadlinePolicy.ESCALATE) {
+            long now = System.nanoTime();
+
+            for (Deque<PooledTask> level : levels) {
+                PooledTask head = level.peekFirst();
+
+                if (head != null && head.isExpired(now)) {
+                    service = level.pollFirst();
+                    pool.getPriorityStatistics().onEscalated(service.priority);
+                    break;
+                }
+            }
+        }
+
+        for (int i = 0; i < levels.size() && service == null; i++) {
+            service = levels.get(i).pollFirst();
+        }
+
+        if (service != null) {
+            size--;
+        }
+        return service;
+    }
+}
@@ -0,0 +1,124 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Tâche récursive découpée en sous-tâches exécutées en parallèle.
+ * <p>
+ * Soumise à un groupe en mode {@link ThreadPoolMode#FORK_JOIN} ({@link ThreadPool#submit(RecursiveServiceTask)}),
+ * la tâche est découpée tant que {@link #canSplit()} le permet;
+ * les sous-tâches sont réparties sur tous les threads du groupe par vol de tâches
+ * puis leurs résultats sont fusionnés.
+ * <p>
+ * Les sous-tâches respectent la pause du groupe et sont abandonnées
+ * lorsque la tâche d'origine est annulée ou que le groupe est arrêté.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ * @param <V>
+ */
+public abstract class RecursiveServiceTask<V> extends RecursiveTask<V> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * La tâche d'origine, <code>null</code> pour la tâche d'origine.
+     */
+    private RecursiveServiceTask<V> root = null;
+
+    protected RecursiveServiceTask() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Détermine si la tâche doit être découpée.
+     *
+     * @return
+     */
+    protected abstract boolean canSplit();
+
+    /**
+     * Découpe la tâche en sous-tâches.
+     *
+     * @return
+     */
+    protected abstract List<? extends RecursiveServiceTask<V>> split();
+
+    /**
+     * Calcul direct du résultat d'une tâche qui n'est plus découpée.
+     *
+     * @return
+     */
+    protected abstract V computeDirectly();
+
+    /**
+     * Fusion des résultats des sous-tâches, dans l'ordre du découpage.
+     *
+     * @param results
+     * @return
+     */
+    protected abstract V merge(List<V> results);
+
+    /**
+     * Détermine si la tâche doit être abandonnée.
+     * Un calcul long peut le vérifier régulièrement.
+     *
+     * @return
+     */
+    protected final boolean isStopped() {
+        RecursiveServiceTask<V> rootTask = (root != null) ? root : this;
+        boolean stopped = rootTask.isCancelled();
+
+        if (!stopped && Thread.currentThread() instanceof ForkJoinPooledThread worker) {
+            stopped = !worker.getThreadPool().canTakeTask();
+        }
+        return stopped;
+    }
+
+    @Override
+    protected final V compute() {
+        checkPause();
+
+        if (isStopped()) {
+            throw new CancellationException("Task stopped.");
+        }
+
+        V result;
+
+        if (canSplit()) {
+            List<? extends RecursiveServiceTask<V>> subtasks = split();
+            RecursiveServiceTask<V> rootTask = (root != null) ? root : this;
+
+            for (RecursiveServiceTask<V> subtask : subtasks) {
+                subtask.root = rootTask;
+            }
+
+            invokeAll(subtasks);
+
+            List<V> results = new ArrayList<>(subtasks.size());
+
+            for (RecursiveServiceTask<V> subtask : subtasks) {
+                results.add(subtask.join());
+            }
+
+            result = merge(results);
+        } else {
+            result = computeDirectly();
+        }
+        return result;
+    }
+
+    /**
+     * Vérifie l'état de pause du groupe.
+     */
+    private static void checkPause() {
+        if (Thread.currentThread() instanceof ForkJoinPooledThread worker) {
+            try {
+                worker.getThreadPool().checkPauseLock();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.metallicbluedev.threading;
+
+/**
+ * Traitement d'une nouvelle tâche lorsque la file d'attente est pleine.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public enum RejectionPolicy {
+    /**
+     * L'appelant attend qu'une place se libère.
+     * Un thread du groupe n'attend jamais sa propre file: la tâche est alors exécutée par l'appelant.
+     */
+    BLOCK,
+
+    /**
+     * La nouvelle tâche est abandonnée.
+     */
+    DISCARD_NEWEST,
+
+    /**
+     * La plus ancienne tâche en attente est abandonnée au profit de la nouvelle.
+     * Sans tâche en attente (mode thread virtuel), la nouvelle tâche est abandonnée.
+     */
+    DISCARD_OLDEST,
+
+    /**
+     * La nouvelle tâche est exécutée immédiatement par l'appelant.
+     */
+    CALLER_RUNS;
+}
@@ -0,0 +1,116 @@
+package com.metallicbluedev.threading;
+
+import com.metallicbluedev.logger.*;
+import java.util.concurrent.*;
+
+/**
+ * Tâche planifiée par le {@link TaskScheduler}.
+ * <p>
+ * Une tâche périodique n'est jamais exécutée en parallèle d'elle-même:
+ * l'exécution suivante est planifiée à la fin de l'exécution courante.
+ * Le résultat n'est publié qu'à la fin d'une tâche unique, à l'annulation ou à la première erreur.
+ * Chaque exécution a lieu avec le contexte de diagnostic de l'appelant qui a planifié la tâche.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+final class ScheduledServiceTask extends CompletableFuture<Void> implements ScheduledFuture<Void>, ServiceProcess {
+
+    /**
+     * Le planificateur.
+     */
+    private final TaskScheduler scheduler;
+
+    /**
+     * La procédure à exécuter.
+     */
+    private final Runnable task;
+
+    /**
+     * Période en nanosecondes:
+     * positive pour une cadence fixe, négative pour un délai fixe, 0 pour une exécution unique.
+     */
+    private final long period;
+
+    /**
+     * Contexte de diagnostic de l'appelant qui a planifié la tâche.
+     */
+    final LoggerContext context;
+
+    /**
+     * Date de la prochaine exécution (en nanosecondes).
+     */
+    volatile long time;
+
+    /**
+     * Nombre de tours de roue restants avant l'exécution (utilisé par le planificateur uniquement).
+     */
+    long remainingRounds = 0;
+
+    private volatile boolean running = false;
+
+    ScheduledServiceTask(TaskScheduler scheduler, Runnable task, long time, long period) {
+        this.scheduler = scheduler;
+        this.task = task;
+        this.time = time;
+        this.period = period;
+        context = LoggerContext.current();
+    }
+
+    @Override
+    public void start() {
+        // NE RIEN FAIRE
+    }
+
+    @Override
+    public void run() {
+        if (!isDone()) {
+            try {
+                running = true;
+                task.run();
+            } catch (RuntimeException | Error t) {
+                completeExceptionally(t);
+                throw t;
+            } finally {
+                running = false;
+            }
+
+            if (period == 0) {
+                complete(null);
+            } else if (!isDone()) {
+                time = (period > 0) ? time + period : System.nanoTime() - period;
+                scheduler.enqueue(this);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        cancel(false);
+    }
+
+    @Override
+    public boolean running() {
+        return running;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+        if (cancelled && task instanceof ServiceProcess service) {
+            service.stop();
+        }
+        return cancelled;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
@@ -16,11 +16,24 @@ public class ServiceMainProcess extends GenericMainProcess {
         return false;
     }
 
+    /**
+     * Détermine si le service doit être exécuté dans un thread virtuel.
+     *
+     * @return
+     */
+    protected boolean useVirtualThread() {
+        return false;
+    }
+
     @Override
     protected void onStart() {
         if (thread == null) {
-            thread = new ThreadHolderTask(this);
-            thread.start();
+            if (useVirtualThread()) {
+                thread = ThreadHolderTask.startVirtual(this, getClass().getSimpleName());
+            } else {
+                thread = new ThreadHolderTask(this);
+                thread.start();
+            }
         }
     }
 
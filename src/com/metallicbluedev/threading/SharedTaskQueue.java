@@ -0,0 +1,98 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * File unique partagée par tous les threads du groupe.
+ * Chaque accès est synchronisé sur le moniteur de la file.
+ *
+ * @version 1.02.00
+ * @author Sebastien Villemain
+ */
+final class SharedTaskQueue implements TaskQueue {
+
+    /**
+     * Le groupe propriétaire.
+     */
+    private final ThreadPool pool;
+
+    /**
+     * Liste de tâches du groupe.
+     */
+    private final Deque<PooledTask> tasks = new LinkedList<>();
+
+    SharedTaskQueue(ThreadPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void register(ServiceProcess worker) {
+        // NE RIEN FAIRE
+    }
+
+    @Override
+    public void unregister(ServiceProcess worker) {
+        // NE RIEN FAIRE
+    }
+
+    @Override
+    public synchronized void add(PooledTask task) {
+        tasks.add(task);
+        notifyAll();
+    }
+
+    @Override
+    public synchronized PooledTask take(ServiceProcess worker, long timeout) throws InterruptedException {
+        PooledTask service = null;
+        long deadline = System.nanoTime() + timeout;
+
+        // Si la file est vide, on attend la prochaine tâche
+        while (tasks.isEmpty()) {
+            if (!pool.isAlive() || !worker.running()) {
+                // Traitement impossible
+                break;
+            }
+
+            if (timeout > 0) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    // Temps d'attente écoulé
+                    break;
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } else {
+                wait();
+            }
+        }
+
+        if (pool.canTakeTask() && worker.running()) {
+            service = tasks.pollFirst();
+        }
+        return service;
+    }
+
+    @Override
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public synchronized PooledTask pollOldest() {
+        return tasks.pollFirst();
+    }
+
+    @Override
+    public synchronized List<PooledTask> drainTasks() {
+        List<PooledTask> drained = new ArrayList<>(tasks);
+        tasks.clear();
+        return drained;
+    }
+
+    @Override
+    public synchronized void wakeUpAll() {
+        notifyAll();
+    }
+}
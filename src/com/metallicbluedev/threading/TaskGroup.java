@@ -0,0 +1,461 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Groupe de tâches structuré.
+ * <p>
+ * Les tâches sont lancées dans le groupe de threads ({@link #fork(Callable)}),
+ * puis le propriétaire attend leur fin ({@link #join()}).
+ * Suivant la {@link TaskGroupPolicy}, le premier échec ou la première réussite ferme le groupe:
+ * les tâches restantes sont annulées, les services sont arrêtés ({@link ServiceProcess#stop()})
+ * et les threads qui les exécutent sont interrompus.
+ * <p>
+ * Le groupe est lui-même un service: son arrêt ferme le groupe.
+ * Un groupe lancé comme tâche d'un autre groupe est donc fermé avec son parent.
+ * <p>
+ * Utilisation:
+ * <pre>
+ * try (TaskGroup group = pool.openTaskGroup(TaskGroupPolicy.SHUTDOWN_ON_FAILURE)) {
+ *     CompletableFuture&lt;A&gt; a = group.fork(taskA);
+ *     CompletableFuture&lt;B&gt; b = group.fork(taskB);
+ *     group.join().throwIfFailed();
+ *     ...
+ * }
+ * </pre>
+ * Un thread du groupe de threads qui attend son propre {@link TaskGroup} occupe un thread:
+ * le groupe de threads doit en disposer d'autres pour exécuter les tâches.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public final class TaskGroup implements ServiceProcess, AutoCloseable {
+
+    /**
+     * Le groupe de threads exécutant les tâches.
+     */
+    private final ThreadPool pool;
+
+    /**
+     * Fermeture du groupe en fonction de l'issue des tâches.
+     */
+    private final TaskGroupPolicy policy;
+
+    /**
+     * Résultats des tâches en cours.
+     */
+    private final Set<CompletableFuture<?>> futures = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Etat du groupe.
+     */
+    private volatile boolean shutdown = false;
+
+    /**
+     * Nombre de tâches non terminées.
+     */
+    private int remaining = 0;
+
+    /**
+     * Le premier échec, <code>null</code> sans échec.
+     */
+    private Throwable failure = null;
+
+    /**
+     * Le résultat de la première réussite.
+     */
+    private Object result = null;
+
+    /**
+     * Détermine si une tâche a réussi.
+     */
+    private boolean succeeded = false;
+
+    TaskGroup(ThreadPool pool, TaskGroupPolicy policy) {
+        this.pool = Objects.requireNonNull(pool);
+        this.policy = Objects.requireNonNull(policy);
+    }
+
+    /**
+     * Retourne la fermeture du groupe en fonction de l'issue des tâches.
+     *
+     * @return
+     */
+    public TaskGroupPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Lance une tâche dans le groupe.
+     * Si le groupe est fermé, la tâche n'est pas exécutée et son résultat est annulé.
+     *
+     * @param <V>
+     * @param task
+     * @return
+     */
+    public <V> CompletableFuture<V> fork(Callable<V> task) {
+        return fork(null, Objects.requireNonNull(task));
+    }
+
+    /**
+     * Lance un service dans le groupe.
+     * La fermeture du groupe arrête le service ({@link ServiceProcess#stop()}).
+     *
+     * @param task
+     * @return
+     * @see #fork(Callable)
+     */
+    public CompletableFuture<Void> fork(ServiceProcess task) {
+        return fork(Objects.requireNonNull(task), Executors.callable(task, (Void) null));
+    }
+
+    /**
+     * Attend la fin de toutes les tâches ou la fermeture du groupe.
+     * Si l'attente est interrompue, le groupe est fermé.
+     *
+     * @return
+     * @throws InterruptedException
+     */
+    public TaskGroup join() throws InterruptedException {
+        try {
+            synchronized (this) {
+                while (remaining > 0 && !shutdown) {
+                    wait();
+                }
+            }
+        } catch (InterruptedException ex) {
+            shutdown();
+            throw ex;
+        }
+        return this;
+    }
+
+    /**
+     * Attend la fin de toutes les tâches ou la fermeture du groupe, au plus pendant le délai.
+     * Si le délai est dépassé ou l'attente interrompue, le groupe est fermé.
+     *
+     * @param timeout
+     * @param unit
+     * @return
+     * @throws InterruptedException
+     * @throws TimeoutException
+     */
+    public TaskGroup join(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean timedOut = false;
+
+        try {
+            synchronized (this) {
+                long waitTime;
+
+                while (remaining > 0 && !shutdown && !timedOut) {
+                    waitTime = deadline - System.nanoTime();
+
+                    if (waitTime > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(this, waitTime);
+                    } else {
+                        timedOut = true;
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            shutdown();
+            throw ex;
+        }
+
+        if (timedOut) {
+            shutdown();
+            throw new TimeoutException("Task group did not complete in time.");
+        }
+        return this;
+    }
+
+    /**
+     * Ferme le groupe: les tâches en attente sont annulées,
+     * les services en cours sont arrêtés et leurs threads interrompus.
+     * Les nouvelles tâches ne sont plus exécutées.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+
+            shutdown = true;
+            notifyAll();
+        }
+
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Détermine si le groupe est fermé.
+     *
+     * @return
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Retourne le premier échec d'une tâche.
+     * Les échecs survenus après la fermeture du groupe sont ignorés.
+     *
+     * @return Throwable or <code>null</code>.
+     */
+    public synchronized Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Signale le premier échec d'une tâche.
+     *
+     * @throws ExecutionException
+     */
+    public void throwIfFailed() throws ExecutionException {
+        Throwable firstFailure = getFailure();
+
+        if (firstFailure != null) {
+            throw new ExecutionException(firstFailure);
+        }
+    }
+
+    /**
+     * Retourne le résultat de la première tâche réussie.
+     * Sans réussite, signale le premier échec.
+     *
+     * @param <V> Le type des résultats des tâches.
+     * @return
+     * @throws ExecutionException Si aucune tâche n'a réussi.
+     * @throws IllegalStateException Si aucune tâche n'est terminée.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <V> V result() throws ExecutionException {
+        if (!succeeded) {
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+
+            throw new IllegalStateException("No task has succeeded.");
+        }
+        return (V) result;
+    }
+
+    /**
+     * Ferme le groupe puis attend l'arrêt effectif de toutes les tâches.
+     */
+    @Override
+    public void close() {
+        shutdown();
+
+        boolean interrupted = false;
+
+        synchronized (this) {
+            while (remaining > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void start() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Attend la fin des tâches.
+     */
+    @Override
+    public void run() {
+        try {
+            join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ferme le groupe.
+     */
+    @Override
+    public void stop() {
+        shutdown();
+    }
+
+    @Override
+    public synchronized boolean running() {
+        return !shutdown && remaining > 0;
+    }
+
+    /**
+     * Lance une tâche dans le groupe.
+     *
+     * @param <V>
+     * @param service Le service d'origine, ou <code>null</code> pour une simple procédure.
+     * @param task
+     * @return
+     */
+    private <V> CompletableFuture<V> fork(ServiceProcess service, Callable<V> task) {
+        synchronized (this) {
+            if (shutdown) {
+                CompletableFuture<V> cancelled = new CompletableFuture<>();
+                cancelled.cancel(false);
+                return cancelled;
+            }
+
+            remaining++;
+        }
+
+        Subtask<V> subtask = new Subtask<>(task);
+        FutureServiceProcess<V> futureTask = new FutureServiceProcess<>(service, subtask);
+        CompletableFuture<V> future = futureTask.getFuture();
+        subtask.future = future;
+        futures.add(future);
+
+        future.whenComplete((value, error) -> {
+            futures.remove(future);
+            subtask.onCompleted(error);
+        });
+
+        try {
+            pool.runTask(futureTask);
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+
+        // Fermeture du groupe pendant le lancement
+        if (shutdown) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Réussite d'une tâche.
+     *
+     * @param value
+     */
+    private void onSucceeded(Object value) {
+        boolean close = false;
+
+        synchronized (this) {
+            if (!shutdown && !succeeded && policy == TaskGroupPolicy.SHUTDOWN_ON_SUCCESS) {
+                result = value;
+                succeeded = true;
+                close = true;
+            }
+        }
+
+        if (close) {
+            shutdown();
+        }
+    }
+
+    /**
+     * Echec d'une tâche.
+     *
+     * @param error
+     */
+    private void onFailed(Throwable error) {
+        boolean close = false;
+
+        synchronized (this) {
+            // Les échecs causés par la fermeture sont ignorés
+            if (!shutdown && failure == null) {
+                failure = error;
+                close = (policy == TaskGroupPolicy.SHUTDOWN_ON_FAILURE);
+            }
+        }
+
+        if (close) {
+            shutdown();
+        }
+    }
+
+    /**
+     * Fin d'une tâche.
+     */
+    private synchronized void onFinished() {
+        remaining--;
+
+        if (remaining == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Tâche du groupe.
+     * L'issue est prise en compte avant la publication du résultat.
+     *
+     * @param <V>
+     */
+    private class Subtask<V> implements Callable<V> {
+
+        private final Callable<V> task;
+
+        /**
+         * Détermine si la tâche a été exécutée ou abandonnée.
+         */
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        /**
+         * Le résultat de la tâche.
+         */
+        private CompletableFuture<V> future = null;
+
+        private Subtask(Callable<V> task) {
+            this.task = task;
+        }
+
+        @Override
+        public V call() throws Exception {
+            if (!started.compareAndSet(false, true)) {
+                throw new CancellationException("Task group is shut down.");
+            }
+
+            try {
+                V value = task.call();
+
+                // La fermeture du groupe n'annule pas le résultat de la tâche qui l'a provoquée
+                futures.remove(future);
+                onSucceeded(value);
+                return value;
+            } catch (Exception | Error ex) {
+                futures.remove(future);
+                onFailed(ex);
+                throw ex;
+            } finally {
+                onFinished();
+            }
+        }
+
+        /**
+         * Publication du résultat.
+         * Une tâche jamais exécutée (annulée ou abandonnée par le groupe de threads) est terminée.
+         *
+         * @param error
+         */
+        private void onCompleted(Throwable error) {
+            if (started.compareAndSet(false, true)) {
+                if (error != null && !(error instanceof CancellationException)) {
+                    onFailed(error);
+                }
+
+                onFinished();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.metallicbluedev.threading;
+
+/**
+ * Fermeture d'un {@link TaskGroup} en fonction de l'issue de ses tâches.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public enum TaskGroupPolicy {
+    /**
+     * Le groupe est fermé au premier échec: les autres tâches sont arrêtées.
+     * L'échec est signalé par {@link TaskGroup#throwIfFailed()}.
+     */
+    SHUTDOWN_ON_FAILURE,
+
+    /**
+     * Le groupe est fermé à la première réussite: les autres tâches sont arrêtées.
+     * Le résultat est retourné par {@link TaskGroup#result()}.
+     */
+    SHUTDOWN_ON_SUCCESS;
+}
@@ -0,0 +1,29 @@
+package com.metallicbluedev.threading;
+
+/**
+ * Priorité d'une tâche, de la plus urgente à la moins urgente.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public enum TaskPriority {
+    /**
+     * Tâche critique pour le temps de réponse.
+     */
+    URGENT,
+
+    /**
+     * Tâche prioritaire.
+     */
+    HIGH,
+
+    /**
+     * Tâche standard.
+     */
+    NORMAL,
+
+    /**
+     * Tâche de fond.
+     */
+    LOW;
+}
@@ -0,0 +1,160 @@
+package com.metallicbluedev.threading;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Statistiques de la file d'un groupe de threads par priorité de tâche.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public final class TaskPriorityStatistics {
+
+    /**
+     * Nombre de tâches en attente.
+     */
+    private final AtomicInteger[] queueSizes;
+
+    /**
+     * Nombre de tâches prises en charge.
+     */
+    private final LongAdder[] takenCounts;
+
+    /**
+     * Somme des temps d'attente (en nanosecondes).
+     */
+    private final LongAdder[] totalWaitTimes;
+
+    /**
+     * Temps d'attente maximum (en nanosecondes).
+     */
+    private final LongAccumulator[] maximumWaitTimes;
+
+    /**
+     * Nombre de tâches abandonnées après leur échéance.
+     */
+    private final LongAdder[] expiredCounts;
+
+    /**
+     * Nombre de tâches exécutées en priorité après leur échéance.
+     */
+    private final LongAdder[] escalatedCounts;
+
+    TaskPriorityStatistics() {
+        int levels = TaskPriority.values().length;
+        queueSizes = new AtomicInteger[levels];
+        takenCounts = new LongAdder[levels];
+        totalWaitTimes = new LongAdder[levels];
+        maximumWaitTimes = new LongAccumulator[levels];
+        expiredCounts = new LongAdder[levels];
+        escalatedCounts = new LongAdder[levels];
+
+        for (int i = 0; i < levels; i++) {
+            queueSizes[i] = new AtomicInteger();
+            takenCounts[i] = new LongAdder();
+            totalWaitTimes[i] = new LongAdder();
+            maximumWaitTimes[i] = new LongAccumulator(Math::max, 0);
+            expiredCounts[i] = new LongAdder();
+            escalatedCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Retourne le nombre de tâches en attente.
+     *
+     * @param priority
+     * @return
+     */
+    public int getQueueSize(TaskPriority priority) {
+        return Math.max(0, queueSizes[priority.ordinal()].get());
+    }
+
+    /**
+     * Retourne le nombre de tâches prises en charge.
+     *
+     * @param priority
+     * @return
+     */
+    public long getTakenCount(TaskPriority priority) {
+        return takenCounts[priority.ordinal()].sum();
+    }
+
+    /**
+     * Retourne le temps d'attente moyen des tâches prises en charge.
+     *
+     * @param priority
+     * @param unit
+     * @return
+     */
+    public long getAverageWaitTime(TaskPriority priority, TimeUnit unit) {
+        long count = getTakenCount(priority);
+        return (count > 0) ? unit.convert(totalWaitTimes[priority.ordinal()].sum() / count, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Retourne le temps d'attente maximum des tâches prises en charge.
+     *
+     * @param priority
+     * @param unit
+     * @return
+     */
+    public long getMaximumWaitTime(TaskPriority priority, TimeUnit unit) {
+        return unit.convert(maximumWaitTimes[priority.ordinal()].get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Retourne le nombre de tâches abandonnées après leur échéance.
+     *
+     * @param priority
+     * @return
+     */
+    public long getExpiredCount(TaskPriority priority) {
+        return expiredCounts[priority.ordinal()].sum();
+    }
+
+    /**
+     * Retourne le nombre de tâches exécutées en priorité après leur échéance.
+     *
+     * @param priority
+     * @return
+     */
+    public long getEscalatedCount(TaskPriority priority) {
+        return escalatedCounts[priority.ordinal()].sum();
+    }
+
+    /**
+     * Remise à zéro des temps d'attente (début d'une nouvelle période de mesure).
+     */
+    public void resetWaitTimes() {
+        for (int i = 0; i < takenCounts.length; i++) {
+            takenCounts[i].reset();
+            totalWaitTimes[i].reset();
+            maximumWaitTimes[i].reset();
+        }
+    }
+
+    void onQueued(TaskPriority priority) {
+        queueSizes[priority.ordinal()].incrementAndGet();
+    }
+
+    void onRemoved(TaskPriority priority) {
+        queueSizes[priority.ordinal()].decrementAndGet();
+    }
+
+    void onTaken(TaskPriority priority, long waitTime) {
+        int level = priority.ordinal();
+        queueSizes[level].decrementAndGet();
+        takenCounts[level].increment();
+        totalWaitTimes[level].add(waitTime);
+        maximumWaitTimes[level].accumulate(waitTime);
+    }
+
+    void onExpired(TaskPriority priority) {
+        expiredCounts[priority.ordinal()].increment();
+    }
+
+    void onEscalated(TaskPriority priority) {
+        escalatedCounts[priority.ordinal()].increment();
+    }
+}
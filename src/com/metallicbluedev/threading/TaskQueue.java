@@ -0,0 +1,73 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+
+/**
+ * File d'attente des tâches d'un groupe de threads.
+ *
+ * @version 1.02.00
+ * @author Sebastien Villemain
+ */
+interface TaskQueue {
+
+    /**
+     * Enregistre le thread courant comme membre du groupe.
+     *
+     * @param worker
+     */
+    public void register(ServiceProcess worker);
+
+    /**
+     * Retire le thread courant des membres du groupe.
+     *
+     * @param worker
+     */
+    public void unregister(ServiceProcess worker);
+
+    /**
+     * Ajoute une tâche dans la file.
+     *
+     * @param task
+     */
+    public void add(PooledTask task);
+
+    /**
+     * Retourne la prochaine tâche. Cette méthode est bloquante.
+     * Retourne <code>null</code> lorsque le groupe ou le thread n'est plus actif,
+     * ou lorsque le temps d'attente est écoulé.
+     * Pendant la fermeture du groupe, les tâches restantes sont retournées sans attente.
+     *
+     * @param worker
+     * @param timeout Temps d'attente maximum en nanosecondes, 0 pour une attente sans limite.
+     * @return PooledTask or <code>null</code>.
+     * @throws InterruptedException
+     */
+    public PooledTask take(ServiceProcess worker, long timeout) throws InterruptedException;
+
+    /**
+     * Retourne la taille de la file d'attente.
+     *
+     * @return
+     */
+    public int size();
+
+    /**
+     * Retire la plus ancienne tâche en attente sans attendre.
+     * Si aucune tâche, retourne <code>null</code>.
+     *
+     * @return PooledTask or <code>null</code>.
+     */
+    public PooledTask pollOldest();
+
+    /**
+     * Retire toutes les tâches en attente.
+     *
+     * @return Les tâches retirées.
+     */
+    public List<PooledTask> drainTasks();
+
+    /**
+     * Réveille tous les threads en attente d'une tâche.
+     */
+    public void wakeUpAll();
+}
@@ -0,0 +1,392 @@
+package com.metallicbluedev.threading;
+
+import com.metallicbluedev.factory.*;
+import com.metallicbluedev.logger.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Planificateur de tâches partagé.
+ * <p>
+ * Les échéances sont rangées dans une roue temporelle (une case par intervalle de {@value #TICK_MILLIS} ms)
+ * parcourue par un seul thread. Les tâches échues sont exécutées par les threads du groupe.
+ * Toutes les activités périodiques de l'application partagent ainsi un ou deux threads.
+ * Sans tâche planifiée, le thread de la roue est en attente.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public class TaskScheduler extends ThreadPool implements EntityProcess {
+
+    /**
+     * Durée d'une case de la roue (en millisecondes).
+     */
+    private static final int TICK_MILLIS = 10;
+
+    /**
+     * Durée d'une case de la roue (en nanosecondes).
+     */
+    private static final long TICK_DURATION = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+
+    /**
+     * Nombre de cases de la roue (puissance de 2).
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    /**
+     * Nombre maximum de threads exécutant les tâches échues.
+     */
+    private static final int MAXIMUM_POOL_SIZE = 4;
+
+    /**
+     * Les cases de la roue (accédées par le thread de la roue uniquement).
+     */
+    private final List<List<ScheduledServiceTask>> wheel;
+
+    /**
+     * Tâches à ranger dans la roue.
+     */
+    private final Queue<ScheduledServiceTask> pendingTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Nombre de tâches planifiées.
+     */
+    private final AtomicInteger scheduledCount = new AtomicInteger();
+
+    /**
+     * Origine des cases de la roue (en nanosecondes).
+     */
+    private final long startTime;
+
+    /**
+     * Le thread de la roue.
+     */
+    private final WheelTicker ticker;
+
+    protected TaskScheduler() {
+        super(1, TaskScheduler.class.getSimpleName(), "ScheduledTask");
+        wheel = new ArrayList<>(WHEEL_SIZE);
+
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+
+        startTime = System.nanoTime();
+        ticker = new WheelTicker();
+    }
+
+    /**
+     * Retourne le planificateur partagé.
+     *
+     * @return
+     */
+    public static TaskScheduler getInstance() {
+        return FactoryManager.getInstance(TaskScheduler.class);
+    }
+
+    @Override
+    public void createProcess() {
+        setPoolSize(1, MAXIMUM_POOL_SIZE);
+        ticker.start();
+    }
+
+    @Override
+    public void destroyProcess() {
+        // Le thread de la roue annule les tâches de la roue en s'arrêtant
+        ticker.stop();
+        super.destroyProcess();
+
+        // Tâches planifiées que la roue n'a pas rangées, les suivantes sont annulées à leur ajout
+        cancelPendingTasks();
+    }
+
+    @Override
+    public String getInformation() {
+        return "ScheduledTasks=" + scheduledCount.get() + " " + super.getInformation();
+    }
+
+    @Override
+    protected void pooledThreadStarted() {
+        // NE RIEN FAIRE ICI
+    }
+
+    @Override
+    protected void pooledThreadStopped() {
+        // NE RIEN FAIRE ICI
+    }
+
+    /**
+     * Exécution unique d'une tâche après un délai.
+     *
+     * @param task
+     * @param delay
+     * @param unit
+     * @return
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return schedule(task, delay, 0, unit);
+    }
+
+    /**
+     * Exécution périodique d'une tâche à cadence fixe.
+     * Une exécution en retard est suivie des exécutions manquées sans attente.
+     *
+     * @param task
+     * @param initialDelay
+     * @param period
+     * @param unit
+     * @return
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive.");
+        }
+        return schedule(task, initialDelay, unit.toNanos(period), unit);
+    }
+
+    /**
+     * Exécution périodique d'une tâche avec un délai fixe entre la fin d'une exécution et le début de la suivante.
+     *
+     * @param task
+     * @param initialDelay
+     * @param delay
+     * @param unit
+     * @return
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay must be positive.");
+        }
+        return schedule(task, initialDelay, -unit.toNanos(delay), unit);
+    }
+
+    /**
+     * Planification d'une nouvelle tâche.
+     *
+     * @param task
+     * @param initialDelay
+     * @param period
+     * @param unit
+     * @return
+     */
+    private ScheduledFuture<?> schedule(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        Objects.requireNonNull(task);
+
+        if (!isAlive()) {
+            throw new IllegalStateException(getClass().getSimpleName() + " is not alive.");
+        }
+
+        long time = System.nanoTime() + unit.toNanos(Math.max(0, initialDelay));
+        ScheduledServiceTask scheduledTask = new ScheduledServiceTask(this, task, time, period);
+        enqueue(scheduledTask);
+        return scheduledTask;
+    }
+
+    /**
+     * Ajout d'une tâche à ranger dans la roue.
+     *
+     * @param task
+     */
+    void enqueue(ScheduledServiceTask task) {
+        if (isAlive()) {
+            pendingTasks.add(task);
+
+            // Réveil du thread de la roue s'il attendait sans tâche
+            if (scheduledCount.getAndIncrement() == 0) {
+                ticker.wakeUp();
+            }
+        } else {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * Annulation des tâches à ranger dans la roue.
+     */
+    private void cancelPendingTasks() {
+        ScheduledServiceTask task;
+
+        while ((task = pendingTasks.poll()) != null) {
+            scheduledCount.decrementAndGet();
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * Annulation des tâches de la roue.
+     * Réservé au thread de la roue.
+     */
+    private void cancelWheelTasks() {
+        for (List<ScheduledServiceTask> bucket : wheel) {
+            for (ScheduledServiceTask task : bucket) {
+                scheduledCount.decrementAndGet();
+                task.cancel(false);
+            }
+
+            bucket.clear();
+        }
+    }
+
+    /**
+     * Retourne la case courante d'après l'horloge.
+     *
+     * @return
+     */
+    private long currentTick() {
+        return (System.nanoTime() - startTime) / TICK_DURATION;
+    }
+
+    /**
+     * Rangement des nouvelles tâches dans la roue.
+     *
+     * @param tick
+     */
+    private void transferPendingTasks(long tick) {
+        ScheduledServiceTask task;
+
+        while ((task = pendingTasks.poll()) != null) {
+            if (task.isDone()) {
+                scheduledCount.decrementAndGet();
+            } else {
+                // Arrondi supérieur: une tâche n'est jamais exécutée en avance
+                long taskTick = Math.max((task.time - startTime + TICK_DURATION - 1) / TICK_DURATION, tick);
+                task.remainingRounds = (taskTick - tick) / WHEEL_SIZE;
+                wheel.get((int) (taskTick & (WHEEL_SIZE - 1))).add(task);
+            }
+        }
+    }
+
+    /**
+     * Exécution des tâches échues de la case.
+     *
+     * @param tick
+     */
+    private void expireTasks(long tick) {
+        List<ScheduledServiceTask> bucket = wheel.get((int) (tick & (WHEEL_SIZE - 1)));
+
+        for (Iterator<ScheduledServiceTask> it = bucket.iterator(); it.hasNext();) {
+            ScheduledServiceTask task = it.next();
+
+            if (task.isDone()) {
+                it.remove();
+                scheduledCount.decrementAndGet();
+            } else if (task.remainingRounds <= 0) {
+                it.remove();
+                scheduledCount.decrementAndGet();
+                dispatch(task);
+            } else {
+                task.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Exécution d'une tâche échue par un thread du groupe.
+     *
+     * @param task
+     */
+    private void dispatch(ScheduledServiceTask task) {
+        // La tâche soumise retient le contexte de l'appelant qui l'a planifiée, et non celui de la roue
+        LoggerContext previousContext = LoggerContext.attach(task.context);
+
+        try {
+            runTask(task);
+        } catch (IllegalStateException ex) {
+            task.cancel(false);
+        } finally {
+            LoggerContext.attach(previousContext);
+        }
+    }
+
+    /**
+     * Thread de parcours de la roue.
+     */
+    private class WheelTicker implements ServiceProcess {
+
+        private volatile boolean running = false;
+
+        private volatile Thread thread = null;
+
+        @Override
+        public void run() {
+            try {
+                runWheel();
+            } finally {
+                cancelWheelTasks();
+                cancelPendingTasks();
+            }
+        }
+
+        /**
+         * Parcours de la roue jusqu'à l'arrêt du thread.
+         */
+        private void runWheel() {
+            long tick = 0;
+
+            while (running) {
+                if (scheduledCount.get() == 0) {
+                    // Aucune tâche planifiée: attente sans réveil périodique
+                    LockSupport.park(this);
+                    tick = Math.max(tick, currentTick());
+                } else {
+                    long sleepTime = startTime + tick * TICK_DURATION - System.nanoTime();
+
+                    if (sleepTime > 0) {
+                        LockSupport.parkNanos(this, sleepTime);
+                    } else {
+                        try {
+                            transferPendingTasks(tick);
+                            expireTasks(tick);
+                        } catch (RuntimeException ex) {
+                            LoggerManager.getInstance().addError(ex);
+                        }
+
+                        tick++;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void start() {
+            if (!running) {
+                running = true;
+                thread = new ThreadHolderTask(this, TaskScheduler.class.getSimpleName() + "Wheel");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+
+        @Override
+        public void stop() {
+            if (running) {
+                running = false;
+                wakeUp();
+
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(1));
+                } catch (InterruptedException ex) {
+                    LoggerManager.getInstance().addError(ex);
+                }
+            }
+        }
+
+        @Override
+        public boolean running() {
+            return running;
+        }
+
+        /**
+         * Réveil du thread de la roue.
+         */
+        private void wakeUp() {
+            Thread currentThread = thread;
+
+            if (currentThread != null) {
+                LockSupport.unpark(currentThread);
+            }
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.metallicbluedev.threading;
 
+import java.util.*;
+import java.util.concurrent.*;
+
 /**
  *
  * @author Sébastien Villemain
  */
 public class ThreadHolderTask extends Thread {
 
+    /**
+     * Services exécutés par un thread virtuel.
+     * Les threads virtuels ne sont pas énumérables via les groupes de threads.
+     */
+    private static final Map<Thread, ServiceProcess> VIRTUAL_TASKS = new ConcurrentHashMap<>();
+
     private final ServiceProcess task;
 
     public ThreadHolderTask(ServiceProcess task) {
@@ -29,4 +38,70 @@ public class ThreadHolderTask extends Thread {
         return task;
     }
 
+    /**
+     * Démarre le service dans un nouveau thread virtuel.
+     * Le thread reste identifiable par {@link #getVirtualTask(Thread)} jusqu'à la fin du service.
+     *
+     * @param task
+     * @param name
+     * @return
+     */
+    public static Thread startVirtual(ServiceProcess task, String name) {
+        if (name == null || name.isBlank()) {
+            name = task.getClass().getSimpleName();
+        }
+
+        Thread thread = Thread.ofVirtual().name(name).unstarted(new VirtualTaskRunner(task));
+        VIRTUAL_TASKS.put(thread, task);
+
+        try {
+            thread.start();
+        } catch (RuntimeException ex) {
+            VIRTUAL_TASKS.remove(thread);
+            throw ex;
+        }
+        return thread;
+    }
+
+    /**
+     * Retourne le service exécuté par le thread virtuel.
+     * Si le thread n'exécute pas de service, retourne
+     * <code>null</code>.
+     *
+     * @param thread
+     * @return ServiceProcess or <code>null</code>.
+     */
+    public static ServiceProcess getVirtualTask(Thread thread) {
+        return (thread != null) ? VIRTUAL_TASKS.get(thread) : null;
+    }
+
+    /**
+     * Retourne la liste des threads virtuels exécutant un service.
+     *
+     * @return
+     */
+    public static Thread[] getVirtualThreads() {
+        return VIRTUAL_TASKS.keySet().toArray(new Thread[0]);
+    }
+
+    /**
+     * Exécution d'un service dans un thread virtuel.
+     */
+    private static class VirtualTaskRunner implements Runnable {
+
+        private final ServiceProcess task;
+
+        private VirtualTaskRunner(ServiceProcess task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                VIRTUAL_TASKS.remove(Thread.currentThread());
+            }
+        }
+    }
 }
@@ -1,13 +1,19 @@
 package com.metallicbluedev.threading;
 
+import com.metallicbluedev.core.*;
+import com.metallicbluedev.factory.*;
 import com.metallicbluedev.logger.*;
 import com.metallicbluedev.utils.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import java.util.function.*;
 
 /**
  * Groupe contenant un nombre limité de Threads dédié à une tâche.
  *
- * @version 2.01.00
+ * @version 2.13.06
  * @author Sebastien Villemain
  */
 public abstract class ThreadPool extends ThreadGroup {
@@ -18,14 +24,99 @@ public abstract class ThreadPool extends ThreadGroup {
     private static int THREAD_POOL_INDEX = 0;
 
     /**
-     * Liste de tâches du groupe.
+     * Mode de distribution des tâches.
      */
-    private final Deque<ServiceProcess> taskQueue;
+    private final ThreadPoolMode mode;
 
     /**
-     * Verrou de synchronisation de Thread (pour les pauses).
+     * Nombre de threads demandé à la création du groupe.
      */
-    private final Object pausedLock;
+    private final int initialThreads;
+
+    /**
+     * Liste de tâches du groupe, créée à la première utilisation.
+     */
+    private volatile TaskQueue taskQueue = null;
+
+    /**
+     * Verrou de création de la file et de la console JMX.
+     */
+    private final Object taskQueueLock = new Object();
+
+    /**
+     * Threads virtuels du groupe (non énumérables via le groupe de threads).
+     */
+    private final Set<Thread> virtualThreads = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Nombre de threads communs en activité (hors threads virtuels).
+     */
+    private final AtomicInteger pooledThreadCount = new AtomicInteger();
+
+    /**
+     * Nombre de tâches admises et pas encore prises en charge.
+     */
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    /**
+     * Nombre d'appelants en attente d'une place dans la file.
+     */
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+
+    /**
+     * Verrou d'attente d'une place dans la file.
+     */
+    private final ReentrantLock capacityLock = new ReentrantLock();
+
+    /**
+     * Signal de libération d'une place dans la file.
+     */
+    private final Condition capacityAvailable = capacityLock.newCondition();
+
+    /**
+     * Verrou d'attente de la fin des tâches.
+     */
+    private final ReentrantLock terminationLock = new ReentrantLock();
+
+    /**
+     * Signal de fin d'une tâche ou d'un thread.
+     */
+    private final Condition terminationSignal = terminationLock.newCondition();
+
+    /**
+     * Nombre d'appelants en attente de la fin des tâches.
+     */
+    private final AtomicInteger terminationWaiters = new AtomicInteger();
+
+    /**
+     * Statistiques de la file par priorité de tâche.
+     */
+    private final TaskPriorityStatistics priorityStatistics = new TaskPriorityStatistics();
+
+    /**
+     * Compteurs d'application de chaque politique de rejet.
+     */
+    private final LongAdder[] rejectionCounters;
+
+    /**
+     * Statistiques d'exécution des tâches.
+     */
+    private final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
+
+    /**
+     * Console JMX du groupe, créée avec la file.
+     */
+    private ThreadPoolMonitor monitor = null;
+
+    /**
+     * Détermine si la console JMX est retirée: le groupe est arrêté.
+     */
+    private boolean monitorClosed = false;
+
+    /**
+     * Barrière de pause des threads.
+     */
+    private final PauseGate pauseGate = new PauseGate();
 
     /**
      * Nom de base des threads du groupe.
@@ -35,7 +126,13 @@ public abstract class ThreadPool extends ThreadGroup {
     /**
      * Index des threads.
      */
-    private volatile int pooledThreadIndex = 0;
+    private final AtomicInteger pooledThreadIndex = new AtomicInteger();
+
+    /**
+     * Numéro du prochain nom de thread.
+     * Il n'est jamais décrémenté: un nom n'est jamais attribué deux fois.
+     */
+    private final AtomicInteger pooledThreadNameIndex = new AtomicInteger();
 
     /**
      * Etat du groupe de threads.
@@ -43,9 +140,59 @@ public abstract class ThreadPool extends ThreadGroup {
     private volatile boolean alive = false;
 
     /**
-     * Etat de la pause.
+     * Détermine si les tâches en attente sont encore exécutées pendant la fermeture.
+     */
+    private volatile boolean draining = false;
+
+    /**
+     * Temps accordé aux tâches pour se terminer avant interruption (en nanosecondes).
+     */
+    private volatile long shutdownTimeout = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * Quota d'utilisation du processeur (en pourcentage du temps processeur total, 0 pour illimité).
+     */
+    private volatile int cpuQuota = 0;
+
+    /**
+     * Nombre maximum de tâches en attente (0 pour illimité).
+     */
+    private volatile int capacity = 0;
+
+    /**
+     * Traitement d'une tâche lorsque la file est pleine.
+     */
+    private volatile RejectionPolicy rejectionPolicy = RejectionPolicy.BLOCK;
+
+    /**
+     * Traitement d'une tâche dont l'échéance est dépassée.
+     */
+    private volatile DeadlinePolicy deadlinePolicy = DeadlinePolicy.DROP;
+
+    /**
+     * Nombre minimum de threads conservés en mode élastique.
+     */
+    private volatile int corePoolSize = 0;
+
+    /**
+     * Nombre maximum de threads en mode élastique (0 pour une gestion manuelle).
+     */
+    private volatile int maximumPoolSize = 0;
+
+    /**
+     * Temps d'inactivité avant l'arrêt d'un thread excédentaire (en nanosecondes).
+     */
+    private volatile long keepAliveTime = TimeUnit.SECONDS.toNanos(60);
+
+    /**
+     * Taille de la file déclenchant l'ajout d'un thread.
+     */
+    private volatile int scaleUpQueueSize = 16;
+
+    /**
+     * Temps d'attente d'une tâche déclenchant l'ajout d'un thread (en nanosecondes).
      */
-    private volatile boolean paused = false;
+    private volatile long scaleUpWaitTime = TimeUnit.MILLISECONDS.toNanos(50);
 
     /**
      * Nouveau groupe de Threads.
@@ -55,12 +202,30 @@ public abstract class ThreadPool extends ThreadGroup {
      * @param pooledName Nom de membre du groupe.
      */
     public ThreadPool(int numberOfThreads, String poolName, String pooledName) {
+        this(numberOfThreads, poolName, pooledName, ThreadPoolMode.SHARED_QUEUE);
+    }
+
+    /**
+     * Nouveau groupe de Threads.
+     *
+     * @param numberOfThreads Nombre de Thread dans le groupe.
+     * @param poolName Nom du groupe.
+     * @param pooledName Nom de membre du groupe.
+     * @param mode Mode de distribution des tâches.
+     */
+    public ThreadPool(int numberOfThreads, String poolName, String pooledName, ThreadPoolMode mode) {
         super(nextThreadPoolId() + "-" + poolName);
 
 //        setDaemon(true);
         alive = true;
-        taskQueue = new LinkedList<>();
-        pausedLock = new Object();
+        this.mode = (mode != null) ? mode : ThreadPoolMode.SHARED_QUEUE;
+        initialThreads = numberOfThreads;
+        rejectionCounters = new LongAdder[RejectionPolicy.values().length];
+
+        for (int i = 0; i < rejectionCounters.length; i++) {
+            rejectionCounters[i] = new LongAdder();
+        }
+
         this.pooledThreadName = pooledName;
 
         /*
@@ -80,6 +245,90 @@ public abstract class ThreadPool extends ThreadGroup {
         return THREAD_POOL_INDEX++;
     }
 
+    /**
+     * Retourne la file d'attente, créée à la première utilisation avec la console JMX du groupe.
+     * Elles ne sont pas créées par le constructeur: elles ne reçoivent qu'un groupe entièrement construit.
+     *
+     * @return
+     */
+    private TaskQueue getTaskQueue() {
+        TaskQueue queue = taskQueue;
+
+        if (queue == null) {
+            synchronized (taskQueueLock) {
+                queue = taskQueue;
+
+                if (queue == null) {
+                    queue = createTaskQueue();
+
+                    if (!monitorClosed) {
+                        monitor = new ThreadPoolMonitor(this);
+                        monitor.register();
+                    }
+
+                    taskQueue = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Réveille les threads en attente de la file, si elle existe.
+     */
+    private void wakeUpTaskQueue() {
+        TaskQueue queue = taskQueue;
+
+        if (queue != null) {
+            queue.wakeUpAll();
+        }
+    }
+
+    /**
+     * Retrait de la console JMX lorsque tous les threads du groupe fermé sont arrêtés.
+     */
+    private void checkTerminated() {
+        if (!alive && isTerminated()) {
+            synchronized (taskQueueLock) {
+                if (!monitorClosed) {
+                    monitorClosed = true;
+
+                    if (monitor != null) {
+                        monitor.unregister();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Création de la file d'attente adaptée au mode.
+     * En mode {@link ThreadPoolMode#FORK_JOIN}, le nombre de threads demandé vaut par défaut le nombre de processeurs.
+     *
+     * @return
+     */
+    private TaskQueue createTaskQueue() {
+        return switch (mode) {
+            case WORK_STEALING ->
+                new WorkStealingTaskQueue(this);
+            case PRIORITY_QUEUE ->
+                new PriorityTaskQueue(this);
+            case FORK_JOIN ->
+                new ForkJoinTaskQueue(this, (initialThreads > 0) ? initialThreads : Runtime.getRuntime().availableProcessors());
+            default ->
+                new SharedTaskQueue(this);
+        };
+    }
+
+    /**
+     * Retourne le mode de distribution des tâches.
+     *
+     * @return
+     */
+    public final ThreadPoolMode getMode() {
+        return mode;
+    }
+
     /**
      * Retourne le nom de base des threads membre du groupe.
      *
@@ -114,17 +363,176 @@ public abstract class ThreadPool extends ThreadGroup {
      *
      * @return
      */
-    public final synchronized int getPooledThreadIndex() {
-        return pooledThreadIndex;
+    public final int getPooledThreadIndex() {
+        return pooledThreadIndex.get();
+    }
+
+    /**
+     * Retourne le numéro du nom d'un nouveau thread géré par la file.
+     * Le numéro n'est jamais réattribué: chaque thread a un nom unique.
+     *
+     * @return
+     */
+    final int nextPooledThreadNameIndex() {
+        return pooledThreadNameIndex.getAndIncrement();
     }
 
     /**
      * Ajout d'un thread au groupe.
+     * En mode thread virtuel, chaque tâche dispose de son propre thread: aucun thread n'est ajouté.
+     * En mode {@link ThreadPoolMode#FORK_JOIN}, les threads sont gérés par le ForkJoinPool: aucun thread n'est ajouté.
      */
     public final synchronized void addPooledThread() {
-        // Nouveau Thread commun au groupe
-        PooledThread pooledThread = new PooledThread();
-        pooledThread.start();
+        if (hasPooledThreads()) {
+            // Nouveau Thread commun au groupe
+            PooledThread pooledThread = new PooledThread(null);
+            pooledThread.start();
+        }
+    }
+
+    /**
+     * Retourne le nombre de threads communs en activité.
+     *
+     * @return
+     */
+    public final int getPoolSize() {
+        return pooledThreadCount.get();
+    }
+
+    /**
+     * Active la gestion élastique du nombre de threads.
+     * Un thread est ajouté lorsque la file ou le temps d'attente des tâches dépasse son seuil,
+     * sauf si le système est surchargé d'après {@link PerformanceMeasurement}.
+     * Un thread excédentaire inactif au-delà du temps de maintien est arrêté.
+     * Sans effet en mode thread virtuel et en mode {@link ThreadPoolMode#FORK_JOIN}.
+     *
+     * @param corePoolSize Nombre minimum de threads conservés.
+     * @param maximumPoolSize Nombre maximum de threads, 0 pour une gestion manuelle.
+     */
+    public final void setPoolSize(int corePoolSize, int maximumPoolSize) {
+        if (hasPooledThreads()) {
+            this.corePoolSize = Math.max(0, corePoolSize);
+            this.maximumPoolSize = (maximumPoolSize > 0) ? Math.max(this.corePoolSize, maximumPoolSize) : 0;
+
+            // Démarrage des threads minimum
+            while (isElastic() && alive && pooledThreadCount.get() < this.corePoolSize) {
+                addPooledThread();
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre minimum de threads conservés en mode élastique.
+     *
+     * @return
+     */
+    public final int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    /**
+     * Retourne le nombre maximum de threads en mode élastique (0 pour une gestion manuelle).
+     *
+     * @return
+     */
+    public final int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * Change le temps d'inactivité avant l'arrêt d'un thread excédentaire.
+     *
+     * @param keepAliveTime
+     * @param unit
+     */
+    public final void setKeepAliveTime(long keepAliveTime, TimeUnit unit) {
+        if (keepAliveTime > 0 && unit != null) {
+            this.keepAliveTime = unit.toNanos(keepAliveTime);
+        }
+    }
+
+    /**
+     * Change les seuils déclenchant l'ajout d'un thread en mode élastique.
+     *
+     * @param queueSize Taille de la file.
+     * @param waitTime Temps d'attente d'une tâche.
+     * @param unit
+     */
+    public final void setScaleUpThresholds(int queueSize, long waitTime, TimeUnit unit) {
+        if (queueSize > 0) {
+            scaleUpQueueSize = queueSize;
+        }
+
+        if (waitTime > 0 && unit != null) {
+            scaleUpWaitTime = unit.toNanos(waitTime);
+        }
+    }
+
+    /**
+     * Détermine si le groupe exécute ses tâches par des threads communs prenant les tâches dans la file.
+     *
+     * @return
+     */
+    private boolean hasPooledThreads() {
+        return mode != ThreadPoolMode.VIRTUAL_THREAD && mode != ThreadPoolMode.FORK_JOIN;
+    }
+
+    /**
+     * Détermine si la gestion élastique du nombre de threads est active.
+     *
+     * @return
+     */
+    private boolean isElastic() {
+        return maximumPoolSize > 0;
+    }
+
+    /**
+     * Ajout d'un thread si le groupe est élastique et que sa limite n'est pas atteinte.
+     */
+    private void scaleUp() {
+        if (alive && pooledThreadCount.get() < maximumPoolSize && !isSystemOverloaded()) {
+            synchronized (this) {
+                if (alive && pooledThreadCount.get() < maximumPoolSize) {
+                    addPooledThread();
+                }
+            }
+        }
+    }
+
+    /**
+     * Détermine si le système est surchargé.
+     * Sans mesure des performances en cours, le système n'est jamais considéré surchargé.
+     *
+     * @return
+     */
+    private static boolean isSystemOverloaded() {
+        boolean overloaded = false;
+
+        if (FactoryManager.hasInstance(PerformanceMeasurement.class)) {
+            PerformanceMeasurement measurement = FactoryManager.getInstance(PerformanceMeasurement.class);
+            overloaded = measurement.running() && measurement.isOverloaded();
+        }
+        return overloaded;
+    }
+
+    /**
+     * Tentative d'arrêt d'un thread excédentaire.
+     *
+     * @return
+     */
+    private boolean tryRetirePooledThread() {
+        boolean retired = false;
+        int count = pooledThreadCount.get();
+
+        while (isElastic() && count > corePoolSize) {
+            if (pooledThreadCount.compareAndSet(count, count - 1)) {
+                retired = true;
+                break;
+            }
+
+            count = pooledThreadCount.get();
+        }
+        return retired;
     }
 
     /**
@@ -190,15 +598,17 @@ public abstract class ThreadPool extends ThreadGroup {
 
             for (ServiceProcess service : pooledThreads) {
                 if (service instanceof PooledThread pooledThread) {
-                    if (pooledThread.task != null) {
+                    ServiceProcess currentTask = FutureServiceProcess.unwrap(pooledThread.task);
+
+                    if (currentTask != null) {
                         boolean canRemove = false;
 
                         if (taskServiceClass != null) {
-                            if (pooledThread.task.getClass().isAssignableFrom(taskServiceClass)) {
+                            if (currentTask.getClass().isAssignableFrom(taskServiceClass)) {
                                 canRemove = true;
                             }
                         } else {
-                            if (pooledThread.task.equals(taskService)) {
+                            if (currentTask.equals(taskService)) {
                                 canRemove = true;
                             }
                         }
@@ -223,10 +633,28 @@ public abstract class ThreadPool extends ThreadGroup {
      */
     public Thread[] getPooledThreads() {
         Thread[] threads = new Thread[activeCount()];
-        enumerate(threads);
+        int count = enumerate(threads);
+
+        if (!virtualThreads.isEmpty()) {
+            List<Thread> pooledThreads = new ArrayList<>(count + virtualThreads.size());
+            pooledThreads.addAll(Arrays.asList(threads).subList(0, count));
+            pooledThreads.addAll(virtualThreads);
+            threads = pooledThreads.toArray(new Thread[0]);
+        } else if (count < threads.length) {
+            threads = Arrays.copyOf(threads, count);
+        }
         return threads;
     }
 
+    /**
+     * Retourne le nombre de threads en activité du groupe, threads virtuels inclus.
+     *
+     * @return
+     */
+    private int runningPooledCount() {
+        return pooledThreadCount.get() + virtualThreads.size();
+    }
+
     /**
      * Retourne la liste des services du groupe.
      *
@@ -244,14 +672,10 @@ public abstract class ThreadPool extends ThreadGroup {
      * @param paused
      */
     public final void setPaused(boolean paused) {
-        if (this.paused != paused) {
-            synchronized (pausedLock) {
-                this.paused = paused;
-
-                if (!paused) {
-                    pausedLock.notifyAll();
-                }
-            }
+        if (paused) {
+            pauseGate.pause();
+        } else {
+            pauseGate.resume();
         }
     }
 
@@ -261,68 +685,776 @@ public abstract class ThreadPool extends ThreadGroup {
      * @return
      */
     public final boolean isPaused() {
-        return paused;
+        return pauseGate.isPaused();
     }
 
     /**
-     * Vérifie si le groupe est encore en activité.
+     * Change le quota d'utilisation du processeur par les threads du groupe.
+     * <p>
+     * L'utilisation est mesurée par {@link PerformanceMeasurement} (qui doit être démarré).
+     * Au-delà du quota, les threads sont suspendus entre deux tâches
+     * pendant une durée proportionnelle au dépassement.
+     * Le temps processeur des threads virtuels n'est pas mesurable.
      *
-     * @return
+     * @param cpuQuota Pourcentage du temps processeur total (entre 1 et 100), 0 pour illimité.
      */
-    public final boolean isAlive() {
-        return alive;
+    public final void setCpuQuota(int cpuQuota) {
+        this.cpuQuota = MathHelper.bindValue(cpuQuota, 0, 100);
     }
 
     /**
-     * Nouvelle tâche à executer.
-     * <p>
-     * La tâche est ajouté à la liste,
-     * le prochain Thread libre l'executera.
+     * Retourne le quota d'utilisation du processeur (0 pour illimité).
      *
-     * @param task
+     * @return
      */
-    public final synchronized void runTask(ServiceProcess task) {
-        if (!alive) {
-            throw new IllegalStateException(getClass().getSimpleName() + " is not alive.");
-        }
+    public final int getCpuQuota() {
+        return cpuQuota;
+    }
 
-        if (taskQueue != null && task != null) {
-            taskQueue.add(task);
-            notifyAll();
-        }
+    /**
+     * Vérifie si les threads sont bridés par le quota processeur.
+     *
+     * @return
+     */
+    public final boolean isThrottled() {
+        return pauseGate.isThrottled();
     }
 
     /**
-     * Retourne la prochaine tâche. Cette méthode est bloquante.
+     * Mise à jour de l'utilisation du processeur par les threads du groupe.
+     * Au-delà du quota, les threads sont bridés jusqu'à revenir sous le quota sur l'intervalle suivant.
      *
-     * @param pooledThread
-     * @return Runnable Une tâche executable
-     * @throws InterruptedException
+     * @param usage Pourcentage du temps processeur total utilisé pendant l'intervalle.
+     * @param interval Durée de l'intervalle mesuré.
+     * @param unit
      */
-    private synchronized ServiceProcess getTask(ServiceProcess pooledThread) throws InterruptedException {
-        ServiceProcess service;
+    public final void updateCpuUsage(double usage, long interval, TimeUnit unit) {
+        statistics.onCpuUsage(usage);
 
-        // Si il n'y a pas eu d'initialisation...
-        if (taskQueue == null) {
-            service = null;
-        } else {
-            // Si la file est vide, on attend la prochaine tâche
-            while (taskQueue.isEmpty()) {
-                if (!alive && !pooledThread.running()) {
-                    // Traitement impossible
+        int quota = cpuQuota;
+
+        if (quota > 0 && usage > quota) {
+            // Temps de suspension nécessaire pour ramener l'utilisation au quota
+            long duration = (long) (unit.toNanos(interval) * (1 - quota / usage));
+
+            if (duration > 0) {
+                pauseGate.throttle(duration);
+                statistics.onThrottled(duration);
+                LoggerManager.getInstance().addDebug("{0} is throttled (CPU usage: {1}%, quota: {2}%).", getName(), Math.round(usage), quota);
+            }
+        }
+    }
+
+    /**
+     * Change le nombre maximum de tâches en attente.
+     * En mode thread virtuel, limite le nombre de tâches en cours d'exécution.
+     *
+     * @param capacity Nombre maximum de tâches, 0 pour une file illimitée.
+     */
+    public final void setCapacity(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        signalCapacity(true);
+    }
+
+    /**
+     * Retourne le nombre maximum de tâches en attente (0 pour illimité).
+     *
+     * @return
+     */
+    public final int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Change le traitement d'une nouvelle tâche lorsque la file est pleine.
+     *
+     * @param rejectionPolicy
+     */
+    public final void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+        if (rejectionPolicy != null) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+    }
+
+    /**
+     * Retourne le traitement d'une nouvelle tâche lorsque la file est pleine.
+     *
+     * @return
+     */
+    public final RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * Retourne le nombre de fois où la politique de rejet a été appliquée.
+     *
+     * @param policy
+     * @return
+     */
+    public final long getRejectionCount(RejectionPolicy policy) {
+        return (policy != null) ? rejectionCounters[policy.ordinal()].sum() : 0;
+    }
+
+    /**
+     * Change le traitement d'une tâche dont l'échéance est dépassée.
+     *
+     * @param deadlinePolicy
+     */
+    public final void setDeadlinePolicy(DeadlinePolicy deadlinePolicy) {
+        if (deadlinePolicy != null) {
+            this.deadlinePolicy = deadlinePolicy;
+        }
+    }
+
+    /**
+     * Retourne le traitement d'une tâche dont l'échéance est dépassée.
+     *
+     * @return
+     */
+    public final DeadlinePolicy getDeadlinePolicy() {
+        return deadlinePolicy;
+    }
+
+    /**
+     * Retourne les statistiques de la file par priorité de tâche.
+     *
+     * @return
+     */
+    public final TaskPriorityStatistics getPriorityStatistics() {
+        return priorityStatistics;
+    }
+
+    /**
+     * Retourne les statistiques d'exécution des tâches.
+     * Les statistiques sont aussi publiées via JMX ({@link ThreadPoolMXBean}).
+     *
+     * @return
+     */
+    public final ThreadPoolStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Retourne le résumé de l'activité du groupe.
+     *
+     * @return
+     */
+    public String getInformation() {
+        return "PoolSize=" + getPoolSize()
+               + " QueueSize=" + queueSize()
+               + " " + statistics.getInformation();
+    }
+
+    /**
+     * Vérifie si le groupe est encore en activité.
+     *
+     * @return
+     */
+    public final boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * Détermine si le groupe est fermé et que tous ses threads sont arrêtés.
+     *
+     * @return
+     */
+    public final boolean isTerminated() {
+        // En mode ForkJoin, les threads peuvent démarrer après la soumission des tâches
+        TaskQueue queue = taskQueue;
+        return !alive && runningPooledCount() == 0
+               && (mode != ThreadPoolMode.FORK_JOIN || !draining || queue == null || queue.size() == 0);
+    }
+
+    /**
+     * Détermine si les threads peuvent encore prendre des tâches dans la file.
+     *
+     * @return
+     */
+    final boolean canTakeTask() {
+        return alive || draining;
+    }
+
+    /**
+     * Change le temps accordé aux tâches pour se terminer lors de la fermeture du groupe.
+     *
+     * @param timeout
+     * @param unit
+     * @see #destroyProcess()
+     */
+    public final void setShutdownTimeout(long timeout, TimeUnit unit) {
+        shutdownTimeout = unit.toNanos(Math.max(0, timeout));
+    }
+
+    /**
+     * Retourne le temps accordé aux tâches pour se terminer lors de la fermeture du groupe.
+     *
+     * @param unit
+     * @return
+     */
+    public final long getShutdownTimeout(TimeUnit unit) {
+        return unit.convert(shutdownTimeout, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Nouvelle tâche à executer.
+     * <p>
+     * La tâche est ajouté à la liste,
+     * le prochain Thread libre l'executera.
+     * Si la file est pleine, la politique de rejet est appliquée.
+     * La tâche s'exécute avec le contexte de diagnostic courant ({@link LoggerContext}).
+     *
+     * @param task
+     */
+    public final void runTask(ServiceProcess task) {
+        runTask(task, TaskPriority.NORMAL, 0, null);
+    }
+
+    /**
+     * Nouvelle tâche prioritaire à executer.
+     * La priorité ordonne la file en mode {@link ThreadPoolMode#PRIORITY_QUEUE}.
+     *
+     * @param task
+     * @param priority
+     * @see #runTask(ServiceProcess)
+     */
+    public final void runTask(ServiceProcess task, TaskPriority priority) {
+        runTask(task, priority, 0, null);
+    }
+
+    /**
+     * Nouvelle tâche prioritaire à executer avant une échéance.
+     * Une tâche dont l'échéance est dépassée est traitée suivant {@link #getDeadlinePolicy()}.
+     *
+     * @param task
+     * @param priority
+     * @param timeout Délai d'exécution, 0 pour aucune échéance.
+     * @param unit
+     * @see #runTask(ServiceProcess)
+     */
+    public final void runTask(ServiceProcess task, TaskPriority priority, long timeout, TimeUnit unit) {
+        checkAlive();
+
+        if (task != null) {
+            statistics.onSubmitted();
+
+            if (acquireCapacity(task)) {
+                PooledTask pooledTask = new PooledTask(task, priority, (unit != null) ? unit.toNanos(timeout) : 0);
+                priorityStatistics.onQueued(pooledTask.priority);
+
+                if (mode == ThreadPoolMode.VIRTUAL_THREAD) {
+                    new PooledThread(pooledTask).start();
+                } else if (enqueueTask(pooledTask)) {
+                    if (isElastic() && getTaskQueue().size() >= scaleUpQueueSize) {
+                        scaleUp();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Nouvelle tâche à executer dont le résultat est retourné.
+     * <p>
+     * L'annulation du résultat arrête la tâche.
+     * Si la tâche est abandonnée par la politique de rejet, le résultat échoue avec {@link RejectedExecutionException}.
+     *
+     * @param <V>
+     * @param task
+     * @return
+     */
+    public final <V> CompletableFuture<V> submit(Callable<V> task) {
+        return submit(task, TaskPriority.NORMAL, 0, null);
+    }
+
+    /**
+     * Nouvelle tâche prioritaire à executer avant une échéance dont le résultat est retourné.
+     * Si l'échéance est dépassée avant l'exécution, le résultat échoue avec {@link RejectedExecutionException}.
+     *
+     * @param <V>
+     * @param task
+     * @param priority
+     * @param timeout Délai d'exécution, 0 pour aucune échéance.
+     * @param unit
+     * @return
+     * @see #submit(Callable)
+     */
+    public final <V> CompletableFuture<V> submit(Callable<V> task, TaskPriority priority, long timeout, TimeUnit unit) {
+        FutureServiceProcess<V> futureTask = new FutureServiceProcess<>(Objects.requireNonNull(task));
+        runTask(futureTask, priority, timeout, unit);
+        return futureTask.getFuture();
+    }
+
+    /**
+     * Nouvelle tâche à executer dont la fin est signalée.
+     *
+     * @param task
+     * @return
+     * @see #submit(Callable)
+     */
+    public final CompletableFuture<Void> submit(Runnable task) {
+        return submit(Executors.callable(Objects.requireNonNull(task), (Void) null));
+    }
+
+    /**
+     * Nouveau service à executer dont la fin est signalée.
+     * L'annulation du résultat appelle {@link ServiceProcess#stop()}.
+     *
+     * @param task
+     * @return
+     * @see #submit(Callable)
+     */
+    public final CompletableFuture<Void> submit(ServiceProcess task) {
+        FutureServiceProcess<Void> futureTask = FutureServiceProcess.of(Objects.requireNonNull(task));
+        runTask(futureTask);
+        return futureTask.getFuture();
+    }
+
+    /**
+     * Nouvelle tâche récursive à executer dont le résultat est retourné.
+     * La tâche est découpée et ses sous-tâches sont réparties sur tous les threads du groupe.
+     * L'annulation du résultat abandonne toutes les sous-tâches.
+     *
+     * @param <V>
+     * @param task
+     * @return
+     * @throws IllegalStateException Si le groupe n'est pas en mode {@link ThreadPoolMode#FORK_JOIN}.
+     */
+    public final <V> CompletableFuture<V> submit(RecursiveServiceTask<V> task) {
+        Objects.requireNonNull(task);
+
+        if (mode != ThreadPoolMode.FORK_JOIN) {
+            throw new IllegalStateException("Recursive tasks require the " + ThreadPoolMode.FORK_JOIN + " mode.");
+        }
+
+        CompletableFuture<V> future = submit(task::invoke);
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                task.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Nouveau groupe de tâches structuré exécuté par ce groupe de threads.
+     * Suivant la politique, le premier échec ou la première réussite arrête les autres tâches du groupe.
+     *
+     * @param policy
+     * @return
+     */
+    public final TaskGroup openTaskGroup(TaskGroupPolicy policy) {
+        checkAlive();
+        return new TaskGroup(this, policy);
+    }
+
+    /**
+     * Exécute toutes les tâches.
+     * Le résultat est la liste des résultats dans l'ordre des tâches,
+     * ou l'échec de la première tâche en erreur: les autres tâches sont alors annulées.
+     * L'annulation du résultat annule toutes les tâches.
+     *
+     * @param <V>
+     * @param tasks
+     * @return
+     */
+    public final <V> CompletableFuture<List<V>> invokeAll(Collection<? extends Callable<V>> tasks) {
+        CompletableFuture<List<V>> result = new CompletableFuture<>();
+        List<CompletableFuture<V>> futures = submitAll(tasks);
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+
+        for (CompletableFuture<V> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally((error instanceof CompletionException) ? error.getCause() : error);
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.complete(futures.stream().map(CompletableFuture::join).toList());
+                }
+            });
+        }
+
+        if (futures.isEmpty()) {
+            result.complete(List.of());
+        }
+
+        result.whenComplete((values, error) -> {
+            if (error != null) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Exécute toutes les tâches et retourne le résultat de la première tâche réussie.
+     * Les autres tâches sont alors annulées.
+     * Si toutes les tâches échouent, le résultat est l'échec de la dernière.
+     *
+     * @param <V>
+     * @param tasks
+     * @return
+     */
+    public final <V> CompletableFuture<V> invokeAny(Collection<? extends Callable<V>> tasks) {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("No task to invoke.");
+        }
+
+        CompletableFuture<V> result = new CompletableFuture<>();
+        List<CompletableFuture<V>> futures = submitAll(tasks);
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+
+        for (CompletableFuture<V> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+
+        result.whenComplete((value, error) -> futures.forEach(future -> future.cancel(true)));
+        return result;
+    }
+
+    /**
+     * Soumission d'un lot de tâches.
+     * Si une soumission échoue, les tâches déjà soumises sont annulées.
+     *
+     * @param <V>
+     * @param tasks
+     * @return
+     */
+    private <V> List<CompletableFuture<V>> submitAll(Collection<? extends Callable<V>> tasks) {
+        List<CompletableFuture<V>> futures = new ArrayList<>(tasks.size());
+
+        try {
+            for (Callable<V> task : tasks) {
+                futures.add(submit(task));
+            }
+        } catch (RuntimeException | Error ex) {
+            futures.forEach(future -> future.cancel(true));
+            throw ex;
+        }
+        return futures;
+    }
+
+    /**
+     * Vérifie que le groupe accepte encore des tâches.
+     */
+    private void checkAlive() {
+        if (!alive) {
+            throw new IllegalStateException(getClass().getSimpleName() + " is not alive.");
+        }
+    }
+
+    /**
+     * Ajout de la tâche à la file si le groupe est encore actif.
+     * L'ajout est exclusif avec le nettoyage de la file par {@link #shutdownNow()}:
+     * une tâche arrivée après la fermeture est refusée et sa place est libérée.
+     *
+     * @param pooledTask
+     * @return <code>true</code> si la tâche est dans la file.
+     */
+    private boolean enqueueTask(PooledTask pooledTask) {
+        boolean added;
+
+        synchronized (this) {
+            added = alive;
+
+            if (added) {
+                getTaskQueue().add(pooledTask);
+            }
+        }
+
+        if (!added) {
+            priorityStatistics.onRemoved(pooledTask.priority);
+            rejectTask(pooledTask.task, getClass().getSimpleName() + " is shut down.");
+            releaseCapacity(1);
+        }
+        return added;
+    }
+
+    /**
+     * Réserve une place dans la file pour la tâche.
+     * Retourne <code>false</code> si la tâche ne doit pas être ajoutée à la file.
+     *
+     * @param task
+     * @return
+     */
+    private boolean acquireCapacity(ServiceProcess task) {
+        boolean admitted = tryAcquireCapacity();
+
+        if (!admitted) {
+            RejectionPolicy policy = rejectionPolicy;
+
+            // Un thread du groupe ne peut pas attendre sa propre file
+            if (policy == RejectionPolicy.BLOCK && isPooledThread(Thread.currentThread())) {
+                policy = RejectionPolicy.CALLER_RUNS;
+            }
+
+            switch (policy) {
+                case BLOCK -> {
+                    admitted = awaitCapacity();
+
+                    if (!admitted) {
+                        // Attente interrompue ou groupe arrêté, la nouvelle tâche est abandonnée
+                        rejectTask(task, alive ? "Interrupted while waiting for the task queue." : getClass().getSimpleName() + " is shut down.");
+                    }
+                }
+                case DISCARD_OLDEST -> {
+                    // La place de la tâche abandonnée est attribuée à la nouvelle tâche
+                    PooledTask oldest = getTaskQueue().pollOldest();
+
+                    if (oldest != null) {
+                        priorityStatistics.onRemoved(oldest.priority);
+                        rejectTask(oldest.task, "Task discarded by a newer one.");
+                        admitted = true;
+                    } else {
+                        rejectTask(task, "Task queue is full.");
+                        policy = RejectionPolicy.DISCARD_NEWEST;
+                    }
+                }
+                case CALLER_RUNS ->
+                    runInCaller(task);
+                case DISCARD_NEWEST ->
+                    rejectTask(task, "Task queue is full.");
+            }
+
+            rejectionCounters[policy.ordinal()].increment();
+        }
+        return admitted;
+    }
+
+    /**
+     * Tentative de réservation d'une place sans attendre.
+     *
+     * @return
+     */
+    private boolean tryAcquireCapacity() {
+        boolean acquired = false;
+        int limit = capacity;
+
+        if (limit <= 0) {
+            pendingTasks.incrementAndGet();
+            acquired = true;
+        } else {
+            int current = pendingTasks.get();
+
+            while (current < limit) {
+                if (pendingTasks.compareAndSet(current, current + 1)) {
+                    acquired = true;
                     break;
                 }
 
-                wait();
+                current = pendingTasks.get();
+            }
+        }
+        return acquired;
+    }
+
+    /**
+     * Attente d'une place dans la file.
+     * Retourne <code>false</code> si l'attente est interrompue ou si le groupe est arrêté.
+     *
+     * @return
+     */
+    private boolean awaitCapacity() {
+        boolean acquired = false;
+        waitingProducers.incrementAndGet();
+        capacityLock.lock();
+
+        try {
+            while (!acquired && alive) {
+                acquired = tryAcquireCapacity();
+
+                if (!acquired) {
+                    capacityAvailable.await();
+                }
+            }
+        } catch (InterruptedException ex) {
+            // L'appelant conserve la demande d'interruption
+            Thread.currentThread().interrupt();
+        } finally {
+            capacityLock.unlock();
+            waitingProducers.decrementAndGet();
+        }
+        return acquired;
+    }
+
+    /**
+     * Libère la place d'une tâche prise en charge.
+     *
+     * @param count
+     */
+    private void releaseCapacity(int count) {
+        if (count > 0) {
+            pendingTasks.addAndGet(-count);
+            signalCapacity(false);
+        }
+    }
+
+    /**
+     * Réveille les appelants en attente d'une place.
+     *
+     * @param all
+     */
+    private void signalCapacity(boolean all) {
+        if (waitingProducers.get() > 0) {
+            capacityLock.lock();
+
+            try {
+                if (all) {
+                    capacityAvailable.signalAll();
+                } else {
+                    capacityAvailable.signal();
+                }
+            } finally {
+                capacityLock.unlock();
             }
+        }
+    }
+
+    /**
+     * Prise en charge d'une tâche sortie de la file.
+     * Retourne <code>false</code> si l'échéance de la tâche est dépassée et qu'elle est abandonnée.
+     *
+     * @param pooledTask
+     * @return
+     */
+    private boolean acceptTask(PooledTask pooledTask) {
+        boolean accepted = true;
+        long now = System.nanoTime();
+        long waitTime = pooledTask.getWaitTime(now);
+        priorityStatistics.onTaken(pooledTask.priority, waitTime);
+        statistics.onTaken(waitTime);
+
+        if (deadlinePolicy == DeadlinePolicy.DROP && pooledTask.isExpired(now)) {
+            priorityStatistics.onExpired(pooledTask.priority);
+            rejectTask(pooledTask.task, "Task deadline expired.");
+            accepted = false;
+        }
+        return accepted;
+    }
+
+    /**
+     * Exécution d'une tâche sortie de la file par un thread qui n'est pas un thread commun.
+     *
+     * @param pooledTask
+     * @param activity L'activité du thread, sinon <code>null</code>.
+     */
+    final void runPooledTask(PooledTask pooledTask, ThreadPoolStatistics.WorkerActivity activity) {
+        // Synchronisation sur le verrou de pause
+        try {
+            checkPauseLock();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
 
-            if (alive && pooledThread.running()) {
-                service = taskQueue.removeFirst();
+        releaseCapacity(1);
+
+        if (acceptTask(pooledTask)) {
+            if (canTakeTask()) {
+                executeTask(pooledTask.task, pooledTask.context, activity);
             } else {
-                service = null;
+                rejectTask(pooledTask.task, getClass().getSimpleName() + " is shut down.");
             }
         }
-        return service;
+    }
+
+    /**
+     * Signal qu'un thread géré par la file a démarré.
+     *
+     * @return L'activité du thread.
+     */
+    final ThreadPoolStatistics.WorkerActivity onWorkerStarted() {
+        pooledThreadIndex.incrementAndGet();
+        pooledThreadCount.incrementAndGet();
+        pooledThreadStarted();
+        return statistics.registerWorker();
+    }
+
+    /**
+     * Signal qu'un thread géré par la file est arrêté.
+     */
+    final void onWorkerStopped() {
+        try {
+            pooledThreadStopped();
+        } finally {
+            statistics.unregisterWorker();
+            pooledThreadIndex.decrementAndGet();
+            pooledThreadCount.decrementAndGet();
+            signalTermination();
+            checkTerminated();
+        }
+    }
+
+    /**
+     * Abandon d'une tâche qui ne sera jamais exécutée.
+     *
+     * @param task
+     * @param reason
+     */
+    private void rejectTask(ServiceProcess task, String reason) {
+        statistics.onRejected();
+        FutureServiceProcess.reject(task, reason);
+    }
+
+    /**
+     * Exécution de la tâche par l'appelant.
+     *
+     * @param task
+     */
+    private void runInCaller(ServiceProcess task) {
+        executeTask(task, null, null);
+    }
+
+    /**
+     * Exécution d'une tâche et mesure de son temps d'exécution.
+     *
+     * @param task
+     * @param context Le contexte de diagnostic de l'émetteur, <code>null</code> pour conserver celui du thread.
+     * @param activity L'activité du thread commun, sinon <code>null</code>.
+     */
+    private void executeTask(ServiceProcess task, LoggerContext context, ThreadPoolStatistics.WorkerActivity activity) {
+        boolean failed;
+        LoggerContext previousContext = (context != null) ? LoggerContext.attach(context) : null;
+        long startTime = System.nanoTime();
+
+        if (activity != null) {
+            activity.onTaskStarted(startTime);
+        }
+
+        try {
+            task.start();
+            task.run();
+            failed = FutureServiceProcess.isFailed(task);
+        } catch (Throwable t) {
+            failed = true;
+            uncaughtException(Thread.currentThread(), t);
+        } finally {
+            if (previousContext != null) {
+                LoggerContext.attach(previousContext);
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (activity != null) {
+            activity.onTaskStopped(endTime);
+        }
+
+        statistics.onExecuted(endTime - startTime, failed);
+    }
+
+    /**
+     * Détermine si le thread est membre du groupe.
+     *
+     * @param thread
+     * @return
+     */
+    private boolean isPooledThread(Thread thread) {
+        return thread.getThreadGroup() == this || virtualThreads.contains(thread);
     }
 
     /**
@@ -330,84 +1462,201 @@ public abstract class ThreadPool extends ThreadGroup {
      *
      * @return
      */
-    protected final synchronized int queueSize() {
-        return taskQueue.size();
+    protected final int queueSize() {
+        TaskQueue queue = taskQueue;
+        return (queue != null) ? queue.size() : 0;
     }
 
     /**
      * Ferme le groupe de Threads.
      * <p>
-     * Toutes les tâches en cours sont arrêtées.
-     * Toutes les tâches en attentes sont perdues.
+     * Les tâches en attente et en cours disposent de {@link #getShutdownTimeout(TimeUnit)} pour se terminer.
+     * Au-delà, les tâches en cours sont arrêtées et les tâches en attente sont perdues.
+     *
+     * @see #shutdown(long, TimeUnit)
      */
     public void destroyProcess() {
-        if (alive) {
-            // Désactivation du groupe et nettoyage de la file
-            synchronized (this) {
+        shutdown(shutdownTimeout, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Fermeture du groupe en deux temps.
+     * <p>
+     * Les nouvelles tâches sont refusées, puis les tâches en attente et en cours
+     * disposent du temps demandé pour se terminer.
+     * Au-delà, les tâches en cours sont arrêtées.
+     *
+     * @param timeout
+     * @param unit
+     * @return Les tâches qui n'ont jamais été exécutées.
+     */
+    public final List<ServiceProcess> shutdown(long timeout, TimeUnit unit) {
+        shutdown();
+
+        try {
+            awaitTermination(timeout, unit);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return shutdownNow();
+    }
+
+    /**
+     * Refuse les nouvelles tâches.
+     * Les tâches en attente et en cours sont encore exécutées.
+     * Cette méthode n'est pas bloquante.
+     *
+     * @see #awaitTermination(long, TimeUnit)
+     */
+    public final void shutdown() {
+        synchronized (this) {
+            if (alive) {
                 alive = false;
+                draining = true;
+            }
+        }
+
+        // Les threads sans tâche s'arrêtent, les producteurs en attente sont refusés
+        wakeUpTaskQueue();
+        signalCapacity(true);
+        signalTermination();
+        checkTerminated();
+    }
+
+    /**
+     * Attente de l'arrêt de tous les threads du groupe après {@link #shutdown()}.
+     *
+     * @param timeout
+     * @param unit
+     * @return <code>true</code> si tous les threads sont arrêtés, <code>false</code> si le temps d'attente est écoulé.
+     * @throws InterruptedException
+     */
+    public final boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return awaitSignal(this::isTerminated, unit.toNanos(timeout));
+    }
+
+    /**
+     * Arrêt immédiat du groupe.
+     * Les nouvelles tâches sont refusées, les tâches en attente sont retirées
+     * et les tâches en cours sont arrêtées puis interrompues.
+     *
+     * @return Les tâches qui n'ont jamais été exécutées.
+     */
+    public final List<ServiceProcess> shutdownNow() {
+        List<ServiceProcess> lostServices = new ArrayList<>();
+
+        // Désactivation du groupe et nettoyage de la file
+        synchronized (this) {
+            alive = false;
+            draining = false;
+            // Un groupe jamais utilisé n'a pas de file: elle n'est pas créée pour la fermeture
+            TaskQueue queue = taskQueue;
+            List<PooledTask> lostTasks = (queue != null) ? queue.drainTasks() : Collections.emptyList();
+
+            for (PooledTask lostTask : lostTasks) {
+                priorityStatistics.onRemoved(lostTask.priority);
+                rejectTask(lostTask.task, getClass().getSimpleName() + " is shut down.");
+                lostServices.add(FutureServiceProcess.unwrap(lostTask.task));
+            }
 
-                if (taskQueue != null) {
-                    taskQueue.clear();
+            releaseCapacity(lostTasks.size());
+
+            // Tâches des threads virtuels qui n'ont pas encore démarré
+            for (Thread virtualThread : virtualThreads) {
+                if (SystemHelper.getService(virtualThread) instanceof PooledThread pooledThread) {
+                    PooledTask lostTask = pooledThread.takeVirtualTask();
+
+                    if (lostTask != null) {
+                        priorityStatistics.onRemoved(lostTask.priority);
+                        rejectTask(lostTask.task, getClass().getSimpleName() + " is shut down.");
+                        lostServices.add(FutureServiceProcess.unwrap(lostTask.task));
+                    }
                 }
             }
+        }
+        wakeUpTaskQueue();
+        signalCapacity(true);
 
+        if (!isTerminated()) {
             ServiceProcess[] services = getServices();
 
-            for (ServiceProcess pooledThread : services) {
-                pooledThread.stop();
+            for (ServiceProcess service : services) {
+                if (service instanceof PooledThread pooledThread) {
+                    // Le temps accordé aux tâches est déjà écoulé
+                    pooledThread.stop(false);
+                } else {
+                    service.stop();
+                }
             }
 
-            waitForInterrupt(null);
-
             try {
                 interrupt();
             } catch (Exception e) {
                 LoggerManager.getInstance().addError(e);
             }
         }
+
+        checkTerminated();
+        return lostServices;
     }
 
     /**
-     * Attente avant interruption.
+     * Attente d'une condition signalée par la fin d'une tâche ou d'un thread.
      *
-     * @param pooledThread
+     * @param condition
+     * @param timeout Temps d'attente maximum en nanosecondes.
+     * @return <code>true</code> si la condition est remplie, <code>false</code> si le temps d'attente est écoulé.
+     * @throws InterruptedException
      */
-    private void waitForInterrupt(PooledThread pooledThread) {
-        int counter = 0;
+    private boolean awaitSignal(BooleanSupplier condition, long timeout) throws InterruptedException {
+        boolean done = condition.getAsBoolean();
+
+        if (!done && timeout > 0) {
+            terminationWaiters.incrementAndGet();
+            terminationLock.lock();
 
-        while (counter < 100
-               && ((pooledThread == null && activeCount() > 0)
-                   || (pooledThread != null && pooledThread.task != null))) {
             try {
-                Thread.sleep(5);
-            } catch (InterruptedException ex) {
-                LoggerManager.getInstance().addError(ex);
+                long remaining = timeout;
+                done = condition.getAsBoolean();
+
+                while (!done && remaining > 0) {
+                    remaining = terminationSignal.awaitNanos(remaining);
+                    done = condition.getAsBoolean();
+                }
+            } finally {
+                terminationLock.unlock();
+                terminationWaiters.decrementAndGet();
             }
+        }
+        return done;
+    }
 
-            counter++;
+    /**
+     * Réveille les appelants en attente de la fin des tâches.
+     */
+    private void signalTermination() {
+        if (terminationWaiters.get() > 0) {
+            terminationLock.lock();
+
+            try {
+                terminationSignal.signalAll();
+            } finally {
+                terminationLock.unlock();
+            }
         }
     }
 
     /**
      * Suspend le groupe et attend que tous les Threads en cours termine leurs travail.
+     * Les tâches en attente sont exécutées avant l'arrêt.
      */
     public void join() {
-        // Notifie les threads de se groupe qu'ils ne sont plus actifs
-        synchronized (this) {
-            alive = false;
-            notifyAll();
-        }
-
-        // Attente de la fin du travail
-        Thread[] threads = new Thread[activeCount()];
-        int count = enumerate(threads);
+        shutdown();
 
-        for (int i = 0; i < count; i++) {
-            try {
-                threads[i].join();
-            } catch (InterruptedException ex) {
-                LoggerManager.getInstance().addError(ex);
-            }
+        try {
+            awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -422,18 +1671,14 @@ public abstract class ThreadPool extends ThreadGroup {
     protected abstract void pooledThreadStopped();
 
     /**
-     * Vérifie l'état de pause.
+     * Vérifie l'état de pause et de bridage.
+     * Hors pause et bridage, aucun verrou n'est pris.
      *
      * @throws InterruptedException
      */
     protected final void checkPauseLock() throws InterruptedException {
-        // Synchronisation via le verrou
-        synchronized (pausedLock) {
-            // Si une pause a été demandé, on arrête
-            while (paused) {
-                pausedLock.wait();
-            }
-        }
+        // Si une pause a été demandé, on arrête
+        pauseGate.await();
     }
 
     /**
@@ -441,6 +1686,11 @@ public abstract class ThreadPool extends ThreadGroup {
      */
     private class PooledThread implements ServiceProcess {
 
+        /**
+         * La tâche unique d'un thread virtuel.
+         */
+        private final PooledTask virtualTask;
+
         /**
          * Détermine l'état local de la procédure.
          */
@@ -449,47 +1699,184 @@ public abstract class ThreadPool extends ThreadGroup {
         /**
          * La tâtche en cours d'execution.
          */
-        private ServiceProcess task = null;
+        private volatile ServiceProcess task = null;
+
+        /**
+         * Détermine si le thread a été arrêté pour inactivité.
+         */
+        private boolean retired = false;
+
+        /**
+         * Activité du thread commun (<code>null</code> pour un thread virtuel).
+         */
+        private ThreadPoolStatistics.WorkerActivity activity = null;
+
+        /**
+         * Détermine si la tâche unique du thread virtuel est prise en charge.
+         */
+        private final AtomicBoolean virtualTaskTaken = new AtomicBoolean();
+
+        /**
+         * Nouveau membre du groupe.
+         *
+         * @param virtualTask La tâche unique pour un thread virtuel, sinon <code>null</code>.
+         */
+        private PooledThread(PooledTask virtualTask) {
+            this.virtualTask = virtualTask;
+        }
+
+        /**
+         * Prise en charge de la tâche unique du thread virtuel, par le thread lui-même ou par la fermeture du groupe.
+         *
+         * @return La tâche, <code>null</code> si elle est déjà prise en charge ou s'il ne s'agit pas d'un thread virtuel.
+         */
+        private PooledTask takeVirtualTask() {
+            return (virtualTask != null && virtualTaskTaken.compareAndSet(false, true)) ? virtualTask : null;
+        }
 
         @Override
         public void run() {
             try {
+                getTaskQueue().register(this);
+
+                if (virtualTask == null) {
+                    activity = statistics.registerWorker();
+                }
+
                 // Signal que le Thread a démarré
                 pooledThreadStarted();
 
-                while (alive && running) {
-                    // Synchronisation sur le verrou de pause
-                    try {
-                        checkPauseLock();
-                    } catch (InterruptedException ex) {
-                        LoggerManager.getInstance().addError(ex);
+                if (virtualTask != null) {
+                    runVirtualTask();
+                } else {
+                    runTasks();
+                }
+
+                // Signal la fin du Thread
+                pooledThreadStopped();
+            } finally {
+                running = false;
+                getTaskQueue().unregister(this);
+
+                if (activity != null) {
+                    statistics.unregisterWorker();
+                }
+
+                if (virtualTask != null) {
+                    virtualThreads.remove(Thread.currentThread());
+                } else if (!retired) {
+                    pooledThreadCount.decrementAndGet();
+                }
+
+                signalTermination();
+                checkTerminated();
+            }
+        }
+
+        /**
+         * Exécution des tâches de la file d'attente.
+         */
+        private void runTasks() {
+            // Pendant la fermeture, les tâches en attente sont encore exécutées
+            while (running && (alive || (draining && getTaskQueue().size() > 0))) {
+                // Synchronisation sur le verrou de pause
+                try {
+                    checkPauseLock();
+                } catch (InterruptedException ex) {
+                    LoggerManager.getInstance().addError(ex);
+                }
+
+                // Récupération de la tâche
+                PooledTask pooledTask = null;
+                long timeout = isElastic() ? keepAliveTime : 0;
+
+                try {
+                    pooledTask = getTaskQueue().take(this, timeout);
+                } catch (InterruptedException ex) {
+                    LoggerManager.getInstance().addError(ex);
+                }
+
+                if (pooledTask != null) {
+                    releaseCapacity(1);
+
+                    // La tâche a trop attendu: le groupe manque de threads
+                    if (isElastic() && pooledTask.getWaitTime(System.nanoTime()) >= scaleUpWaitTime) {
+                        scaleUp();
                     }
 
-                    // Récupération de la tâche
-                    try {
-                        task = getTask(this);
-                    } catch (InterruptedException ex) {
-                        LoggerManager.getInstance().addError(ex);
+                    if (acceptTask(pooledTask)) {
+                        task = pooledTask.task;
+                        executeTask(pooledTask.context);
                     }
+                } else if (timeout > 0 && alive && running && tryRetirePooledThread()) {
+                    // Thread excédentaire inactif
+                    retire();
+                }
+            }
+        }
 
-                    // Vérification de la tâche
-                    if (task != null) {
-                        // Execution de la tâche
-                        try {
-                            task.start();
-                            task.run();
-                        } catch (Throwable t) {
-                            ThreadPool.this.uncaughtException(Thread.currentThread(), t);
-                        }
+        /**
+         * Arrêt du thread pour inactivité.
+         */
+        private void retire() {
+            retired = true;
+            running = false;
+            pooledThreadIndex.decrementAndGet();
+        }
 
-                        task = null;
-                    }
+        /**
+         * Exécution de la tâche unique du thread virtuel.
+         */
+        private void runVirtualTask() {
+            try {
+                // Synchronisation sur le verrou de pause
+                boolean interrupted = false;
+
+                try {
+                    checkPauseLock();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
                 }
 
-                // Signal la fin du Thread
-                pooledThreadStopped();
+                if (!interrupted && canTakeTask() && running) {
+                    // La fermeture du groupe a pu rejeter la tâche entre-temps
+                    PooledTask pooledTask = takeVirtualTask();
+
+                    if (pooledTask != null && acceptTask(pooledTask)) {
+                        task = pooledTask.task;
+                        executeTask(pooledTask.context);
+                    }
+                } else {
+                    PooledTask pooledTask;
+
+                    // Après la fermeture du groupe qui retient les tâches perdues
+                    synchronized (ThreadPool.this) {
+                        pooledTask = takeVirtualTask();
+                    }
+
+                    if (pooledTask != null) {
+                        priorityStatistics.onRemoved(pooledTask.priority);
+                        rejectTask(pooledTask.task, ThreadPool.this.getClass().getSimpleName() + " is shut down.");
+                    }
+                }
             } finally {
-                running = false;
+                releaseCapacity(1);
+            }
+        }
+
+        /**
+         * Exécution de la tâche courante.
+         *
+         * @param context Le contexte de diagnostic de l'émetteur.
+         */
+        private void executeTask(LoggerContext context) {
+            // Vérification de la tâche
+            if (task != null) {
+                // Execution de la tâche
+                ThreadPool.this.executeTask(task, context, activity);
+                task = null;
+                signalTermination();
             }
         }
 
@@ -497,14 +1884,34 @@ public abstract class ThreadPool extends ThreadGroup {
         public void start() {
             running = true;
 
-            Thread pooledThread = new ThreadHolderTask(ThreadPool.this, this, pooledThreadIndex + "-" + pooledThreadName);
-            pooledThread.start();
+            if (virtualTask != null) {
+                Thread pooledThread = ThreadHolderTask.startVirtual(this, pooledThreadName);
+                virtualThreads.add(pooledThread);
 
-            pooledThreadIndex++;
+                // Le thread a pu se terminer avant son enregistrement
+                if (!running) {
+                    virtualThreads.remove(pooledThread);
+                }
+            } else {
+                // Le numéro du nom n'est jamais réattribué: chaque thread a un nom unique
+                Thread pooledThread = new ThreadHolderTask(ThreadPool.this, this, pooledThreadNameIndex.getAndIncrement() + "-" + pooledThreadName);
+                pooledThreadIndex.incrementAndGet();
+                pooledThreadCount.incrementAndGet();
+                pooledThread.start();
+            }
         }
 
         @Override
         public void stop() {
+            stop(true);
+        }
+
+        /**
+         * Arrêt du thread.
+         *
+         * @param waitTask Détermine si la tâche en cours dispose du temps de fermeture pour se terminer.
+         */
+        private void stop(boolean waitTask) {
             if (running) {
                 running = false;
 
@@ -521,11 +1928,16 @@ public abstract class ThreadPool extends ThreadGroup {
                     if (service != null) {
                         if (service.equals(this)) {
                             // Donne une chance à la tache de se terminer toute seule
-                            waitForInterrupt(this);
+                            if (waitTask) {
+                                awaitTaskStopped();
+                            }
 
                             // Coupure du Thread
                             pooledThread.interrupt();
-                            pooledThreadIndex--;
+
+                            if (virtualTask == null) {
+                                pooledThreadIndex.decrementAndGet();
+                            }
                             break;
                         }
                     }
@@ -537,5 +1949,16 @@ public abstract class ThreadPool extends ThreadGroup {
         public boolean running() {
             return running;
         }
+
+        /**
+         * Attente de la fin de la tâche en cours.
+         */
+        private void awaitTaskStopped() {
+            try {
+                awaitSignal(() -> task == null, shutdownTimeout);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 }
@@ -0,0 +1,68 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+
+/**
+ * Console JMX d'un groupe de threads.
+ * Les durées sont exprimées en microsecondes.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+public interface ThreadPoolMXBean {
+
+    public String getPoolName();
+
+    public String getMode();
+
+    public int getPoolSize();
+
+    public int getQueueSize();
+
+    public boolean isPaused();
+
+    public long getSubmittedCount();
+
+    public long getCompletedCount();
+
+    public long getFailedCount();
+
+    public long getRejectedCount();
+
+    public long getQueueWaitTimeMean();
+
+    public long getQueueWaitTimeP50();
+
+    public long getQueueWaitTimeP99();
+
+    public long getQueueWaitTimeMax();
+
+    public long getRunTimeMean();
+
+    public long getRunTimeP50();
+
+    public long getRunTimeP99();
+
+    public long getRunTimeMax();
+
+    public double getAverageBusyRatio();
+
+    public Map<String, Double> getWorkerBusyRatios();
+
+    public int getCpuQuota();
+
+    public void setCpuQuota(int cpuQuota);
+
+    public double getCpuUsage();
+
+    public boolean isThrottled();
+
+    public long getThrottledCount();
+
+    public long getThrottledTime();
+
+    /**
+     * Remise à zéro des statistiques.
+     */
+    public void resetStatistics();
+}
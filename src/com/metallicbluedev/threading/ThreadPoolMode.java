@@ -0,0 +1,35 @@
+package com.metallicbluedev.threading;
+
+/**
+ * Mode de distribution des tâches d'un groupe de threads.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+public enum ThreadPoolMode {
+    /**
+     * File unique partagée par tous les threads du groupe (mode historique).
+     */
+    SHARED_QUEUE,
+
+    /**
+     * File de soumission sans verrou et file locale par thread avec vol de tâches.
+     */
+    WORK_STEALING,
+
+    /**
+     * Un thread virtuel par tâche, sans limite de taille du groupe.
+     */
+    VIRTUAL_THREAD,
+
+    /**
+     * File unique partagée ordonnée par priorité puis par ordre d'arrivée.
+     */
+    PRIORITY_QUEUE,
+
+    /**
+     * Tâches exécutées par un {@link java.util.concurrent.ForkJoinPool} dont les threads appartiennent au groupe.
+     * Les tâches récursives ({@link RecursiveServiceTask}) sont découpées et réparties par vol de tâches.
+     */
+    FORK_JOIN;
+}
@@ -0,0 +1,192 @@
+package com.metallicbluedev.threading;
+
+import com.metallicbluedev.logger.*;
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.management.*;
+
+/**
+ * Publication JMX des statistiques d'un groupe de threads.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+final class ThreadPoolMonitor implements ThreadPoolMXBean {
+
+    /**
+     * Domaine JMX des groupes de threads.
+     */
+    private static final String DOMAIN = "com.metallicbluedev.threading";
+
+    private final ThreadPool pool;
+
+    /**
+     * Nom JMX de la console, <code>null</code> si elle n'est pas publiée.
+     */
+    private ObjectName objectName = null;
+
+    ThreadPoolMonitor(ThreadPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Publication de la console.
+     */
+    synchronized void register() {
+        if (objectName == null) {
+            try {
+                ObjectName name = new ObjectName(DOMAIN + ":type=ThreadPool,name=" + ObjectName.quote(pool.getName()));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+                objectName = name;
+            } catch (JMException | SecurityException ex) {
+                LoggerManager.getInstance().addWarning("Unable to register the thread pool MBean: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Retrait de la console.
+     */
+    synchronized void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException | SecurityException ex) {
+                LoggerManager.getInstance().addWarning("Unable to unregister the thread pool MBean: " + ex.getMessage());
+            }
+
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String getPoolName() {
+        return pool.getName();
+    }
+
+    @Override
+    public String getMode() {
+        return pool.getMode().name();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return pool.queueSize();
+    }
+
+    @Override
+    public boolean isPaused() {
+        return pool.isPaused();
+    }
+
+    @Override
+    public long getSubmittedCount() {
+        return pool.getStatistics().getSubmittedCount();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return pool.getStatistics().getCompletedCount();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return pool.getStatistics().getFailedCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return pool.getStatistics().getRejectedCount();
+    }
+
+    @Override
+    public long getQueueWaitTimeMean() {
+        return pool.getStatistics().getQueueWaitTimes().getMean(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getQueueWaitTimeP50() {
+        return pool.getStatistics().getQueueWaitTimes().getPercentile(50, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getQueueWaitTimeP99() {
+        return pool.getStatistics().getQueueWaitTimes().getPercentile(99, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getQueueWaitTimeMax() {
+        return pool.getStatistics().getQueueWaitTimes().getMaximum(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getRunTimeMean() {
+        return pool.getStatistics().getRunTimes().getMean(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getRunTimeP50() {
+        return pool.getStatistics().getRunTimes().getPercentile(50, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getRunTimeP99() {
+        return pool.getStatistics().getRunTimes().getPercentile(99, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getRunTimeMax() {
+        return pool.getStatistics().getRunTimes().getMaximum(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getAverageBusyRatio() {
+        return pool.getStatistics().getAverageBusyRatio();
+    }
+
+    @Override
+    public Map<String, Double> getWorkerBusyRatios() {
+        return pool.getStatistics().getWorkerBusyRatios();
+    }
+
+    @Override
+    public int getCpuQuota() {
+        return pool.getCpuQuota();
+    }
+
+    @Override
+    public void setCpuQuota(int cpuQuota) {
+        pool.setCpuQuota(cpuQuota);
+    }
+
+    @Override
+    public double getCpuUsage() {
+        return pool.getStatistics().getCpuUsage();
+    }
+
+    @Override
+    public boolean isThrottled() {
+        return pool.isThrottled();
+    }
+
+    @Override
+    public long getThrottledCount() {
+        return pool.getStatistics().getThrottledCount();
+    }
+
+    @Override
+    public long getThrottledTime() {
+        return pool.getStatistics().getThrottledTime(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public void resetStatistics() {
+        pool.getStatistics().reset();
+    }
+}
@@ -0,0 +1,321 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Statistiques d'exécution des tâches d'un groupe de threads.
+ *
+ * @version 1.01.01
+ * @author Sebastien Villemain
+ */
+public final class ThreadPoolStatistics {
+
+    /**
+     * Nombre de tâches soumises.
+     */
+    private final LongAdder submittedCount = new LongAdder();
+
+    /**
+     * Nombre de tâches terminées sans erreur.
+     */
+    private final LongAdder completedCount = new LongAdder();
+
+    /**
+     * Nombre de tâches terminées en erreur.
+     */
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * Nombre de tâches abandonnées sans exécution.
+     */
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * Nombre de bridages imposés par le quota processeur.
+     */
+    private final LongAdder throttledCount = new LongAdder();
+
+    /**
+     * Durée cumulée des bridages (en nanosecondes).
+     */
+    private final LongAdder throttledTime = new LongAdder();
+
+    /**
+     * Dernière utilisation mesurée du processeur (en pourcentage du temps processeur total).
+     */
+    private volatile double cpuUsage = 0;
+
+    /**
+     * Temps d'attente des tâches dans la file.
+     */
+    private final LatencyHistogram queueWaitTimes = new LatencyHistogram();
+
+    /**
+     * Temps d'exécution des tâches.
+     */
+    private final LatencyHistogram runTimes = new LatencyHistogram();
+
+    /**
+     * Activité des threads communs.
+     */
+    private final Map<Thread, WorkerActivity> workers = new ConcurrentHashMap<>();
+
+    ThreadPoolStatistics() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Retourne le nombre de tâches soumises.
+     *
+     * @return
+     */
+    public long getSubmittedCount() {
+        return submittedCount.sum();
+    }
+
+    /**
+     * Retourne le nombre de tâches terminées sans erreur.
+     *
+     * @return
+     */
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * Retourne le nombre de tâches terminées en erreur.
+     *
+     * @return
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * Retourne le nombre de tâches abandonnées sans exécution
+     * (file pleine, échéance dépassée, attente interrompue ou groupe fermé).
+     *
+     * @return
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Retourne la dernière utilisation mesurée du processeur par les threads du groupe
+     * (en pourcentage du temps processeur total).
+     * La mesure est fournie par {@link com.metallicbluedev.core.PerformanceMeasurement}.
+     *
+     * @return
+     */
+    public double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    /**
+     * Retourne le nombre de bridages imposés par le quota processeur.
+     *
+     * @return
+     */
+    public long getThrottledCount() {
+        return throttledCount.sum();
+    }
+
+    /**
+     * Retourne la durée cumulée des bridages.
+     *
+     * @param unit
+     * @return
+     */
+    public long getThrottledTime(TimeUnit unit) {
+        return unit.convert(throttledTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Retourne l'histogramme des temps d'attente dans la file.
+     *
+     * @return
+     */
+    public LatencyHistogram getQueueWaitTimes() {
+        return queueWaitTimes;
+    }
+
+    /**
+     * Retourne l'histogramme des temps d'exécution.
+     *
+     * @return
+     */
+    public LatencyHistogram getRunTimes() {
+        return runTimes;
+    }
+
+    /**
+     * Retourne la part du temps passé à exécuter des tâches par chaque thread commun (entre 0 et 1).
+     * Chaque thread est identifié par son nom et son identifiant: deux threads de même nom restent distincts.
+     *
+     * @return
+     */
+    public Map<String, Double> getWorkerBusyRatios() {
+        long now = System.nanoTime();
+        Map<String, Double> ratios = new TreeMap<>();
+
+        for (Map.Entry<Thread, WorkerActivity> worker : workers.entrySet()) {
+            Thread thread = worker.getKey();
+            ratios.put(thread.getName() + "#" + thread.threadId(), worker.getValue().getBusyRatio(now));
+        }
+        return ratios;
+    }
+
+    /**
+     * Retourne la part moyenne du temps passé à exécuter des tâches par les threads communs (entre 0 et 1).
+     *
+     * @return
+     */
+    public double getAverageBusyRatio() {
+        long now = System.nanoTime();
+        double total = 0;
+        int count = 0;
+
+        for (WorkerActivity activity : workers.values()) {
+            total += activity.getBusyRatio(now);
+            count++;
+        }
+        return (count > 0) ? total / count : 0;
+    }
+
+    /**
+     * Remise à zéro des compteurs et des histogrammes.
+     */
+    public void reset() {
+        submittedCount.reset();
+        completedCount.reset();
+        failedCount.reset();
+        rejectedCount.reset();
+        throttledCount.reset();
+        throttledTime.reset();
+        queueWaitTimes.reset();
+        runTimes.reset();
+    }
+
+    /**
+     * Retourne le résumé des statistiques.
+     *
+     * @return
+     */
+    public String getInformation() {
+        return "Submitted=" + getSubmittedCount()
+               + " Completed=" + getCompletedCount()
+               + " Failed=" + getFailedCount()
+               + " Rejected=" + getRejectedCount()
+               + " QueueWaitP50=" + queueWaitTimes.getPercentile(50, TimeUnit.MICROSECONDS) + "us"
+               + " QueueWaitP99=" + queueWaitTimes.getPercentile(99, TimeUnit.MICROSECONDS) + "us"
+               + " RunTimeP50=" + runTimes.getPercentile(50, TimeUnit.MICROSECONDS) + "us"
+               + " RunTimeP99=" + runTimes.getPercentile(99, TimeUnit.MICROSECONDS) + "us"
+               + " BusyRatio=" + Math.round(getAverageBusyRatio() * 100) + "%"
+               + " CpuUsage=" + Math.round(cpuUsage) + "%"
+               + " Throttled=" + getThrottledCount()
+               + " ThrottledTime=" + getThrottledTime(TimeUnit.MILLISECONDS) + "ms";
+    }
+
+    void onSubmitted() {
+        submittedCount.increment();
+    }
+
+    void onRejected() {
+        rejectedCount.increment();
+    }
+
+    void onTaken(long waitTime) {
+        queueWaitTimes.record(waitTime);
+    }
+
+    void onCpuUsage(double usage) {
+        cpuUsage = usage;
+    }
+
+    void onThrottled(long duration) {
+        throttledCount.increment();
+        throttledTime.add(duration);
+    }
+
+    void onExecuted(long runTime, boolean failed) {
+        runTimes.record(runTime);
+
+        if (failed) {
+            failedCount.increment();
+        } else {
+            completedCount.increment();
+        }
+    }
+
+    /**
+     * Enregistre le thread courant comme thread commun.
+     *
+     * @return
+     */
+    WorkerActivity registerWorker() {
+        WorkerActivity activity = new WorkerActivity();
+        workers.put(Thread.currentThread(), activity);
+        return activity;
+    }
+
+    /**
+     * Retire le thread courant des threads communs.
+     */
+    void unregisterWorker() {
+        workers.remove(Thread.currentThread());
+    }
+
+    /**
+     * Activité d'un thread commun.
+     * Mise à jour par son thread uniquement.
+     */
+    static final class WorkerActivity {
+
+        /**
+         * Date de démarrage du thread (en nanosecondes).
+         */
+        private final long startTime = System.nanoTime();
+
+        /**
+         * Temps d'exécution des tâches terminées (en nanosecondes).
+         */
+        private volatile long busyTime = 0;
+
+        /**
+         * Date de début de la tâche en cours (en nanosecondes).
+         */
+        private volatile long taskStartTime = 0;
+
+        /**
+         * Détermine si une tâche est en cours.
+         */
+        private volatile boolean busy = false;
+
+        private WorkerActivity() {
+            // NE RIEN FAIRE
+        }
+
+        void onTaskStarted(long now) {
+            taskStartTime = now;
+            busy = true;
+        }
+
+        void onTaskStopped(long now) {
+            busy = false;
+            busyTime += now - taskStartTime;
+        }
+
+        private double getBusyRatio(long now) {
+            long elapsedTime = now - startTime;
+            long currentBusyTime = busyTime;
+
+            if (busy) {
+                currentBusyTime += now - taskStartTime;
+            }
+            return (elapsedTime > 0) ? Math.min(1, (double) currentBusyTime / elapsedTime) : 0;
+        }
+    }
+}
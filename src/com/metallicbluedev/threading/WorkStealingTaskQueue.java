@@ -0,0 +1,303 @@
+package com.metallicbluedev.threading;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * File de tâches avec vol de travail.
+ * <p>
+ * Les tâches soumises depuis l'extérieur du groupe passent par une file de soumission sans verrou.
+ * Les tâches soumises par un thread du groupe sont ajoutées à sa file locale.
+ * Un thread sans travail vole les tâches les plus anciennes des autres threads.
+ * Seul un thread inactif est réveillé pour chaque nouvelle tâche.
+ * Un thread inactif n'est inscrit qu'une fois par période d'attente.
+ *
+ * @version 1.02.01
+ * @author Sebastien Villemain
+ */
+final class WorkStealingTaskQueue implements TaskQueue {
+
+    private static final WorkerDeque[] EMPTY_DEQUES = new WorkerDeque[0];
+
+    /**
+     * Le groupe propriétaire.
+     */
+    private final ThreadPool pool;
+
+    /**
+     * File de soumission des tâches externes.
+     */
+    private final Queue<PooledTask> submissionQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Files locales des threads du groupe, remplacées à chaque inscription.
+     * Le vol parcourt le tableau courant sans verrou ni allocation.
+     */
+    private volatile WorkerDeque[] workerDeques = EMPTY_DEQUES;
+
+    /**
+     * Verrou de modification des files locales.
+     */
+    private final Object dequesLock = new Object();
+
+    /**
+     * Threads en attente d'une tâche.
+     */
+    private final Queue<WorkerDeque> idleWorkers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * File locale du thread courant.
+     */
+    private final ThreadLocal<WorkerDeque> localDeque = new ThreadLocal<>();
+
+    /**
+     * Nombre de tâches en attente.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    WorkStealingTaskQueue(ThreadPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void register(ServiceProcess worker) {
+        WorkerDeque deque = new WorkerDeque(worker, Thread.currentThread());
+        localDeque.set(deque);
+
+        synchronized (dequesLock) {
+            WorkerDeque[] current = workerDeques;
+            WorkerDeque[] newDeques = Arrays.copyOf(current, current.length + 1);
+            newDeques[current.length] = deque;
+            workerDeques = newDeques;
+        }
+    }
+
+    @Override
+    public void unregister(ServiceProcess worker) {
+        WorkerDeque deque = localDeque.get();
+
+        if (deque != null && deque.worker == worker) {
+            localDeque.remove();
+            removeDeque(deque);
+
+            // Les tâches restantes sont confiées aux autres threads
+            PooledTask task;
+
+            while ((task = deque.tasks.pollFirst()) != null) {
+                submissionQueue.add(task);
+            }
+            signalWork();
+        }
+    }
+
+    @Override
+    public void add(PooledTask task) {
+        WorkerDeque deque = localDeque.get();
+
+        if (deque != null) {
+            deque.tasks.addLast(task);
+        } else {
+            submissionQueue.add(task);
+        }
+
+        size.incrementAndGet();
+        signalWork();
+    }
+
+    @Override
+    public PooledTask take(ServiceProcess worker, long timeout) throws InterruptedException {
+        PooledTask service = null;
+        WorkerDeque deque = localDeque.get();
+        long deadline = System.nanoTime() + timeout;
+
+        try {
+            // Pendant la fermeture, les tâches restantes sont encore distribuées
+            while (service == null && (pool.isAlive() || (pool.canTakeTask() && size.get() > 0)) && worker.running()) {
+                service = poll(deque);
+
+                if (service == null) {
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+
+                    // Signale l'inactivité avant la dernière vérification pour ne pas perdre de réveil
+                    // Le thread reste inscrit jusqu'à son réveil par une nouvelle tâche ou sa sortie
+                    if (deque != null && deque.idle.compareAndSet(false, true)) {
+                        idleWorkers.add(deque);
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+
+                    if (size.get() == 0 && pool.isAlive() && worker.running()) {
+                        if (timeout <= 0) {
+                            LockSupport.park(this);
+                        } else if (remaining > 0) {
+                            LockSupport.parkNanos(this, remaining);
+                        }
+                    }
+
+                    if (timeout > 0 && remaining <= 0) {
+                        // Temps d'attente écoulé
+                        break;
+                    }
+                }
+            }
+        } finally {
+            // Le thread n'attend plus, son inscription n'est plus valide
+            if (deque != null && deque.idle.getAndSet(false)) {
+                idleWorkers.remove(deque);
+            }
+        }
+        return service;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public PooledTask pollOldest() {
+        return poll(null);
+    }
+
+    @Override
+    public List<PooledTask> drainTasks() {
+        List<PooledTask> drained = new ArrayList<>();
+        PooledTask task;
+
+        while ((task = poll(null)) != null) {
+            drained.add(task);
+        }
+        return drained;
+    }
+
+    @Override
+    public void wakeUpAll() {
+        for (WorkerDeque deque : workerDeques) {
+            LockSupport.unpark(deque.owner);
+        }
+    }
+
+    /**
+     * Retourne une tâche sans attendre.
+     * Ordre de recherche: file locale (dernière tâche), file de soumission, puis vol chez les autres threads.
+     *
+     * @param deque
+     * @return PooledTask or <code>null</code>.
+     */
+    private PooledTask poll(WorkerDeque deque) {
+        PooledTask service = null;
+
+        if (deque != null) {
+            service = deque.tasks.pollLast();
+        }
+
+        if (service == null) {
+            service = submissionQueue.poll();
+        }
+
+        if (service == null) {
+            service = steal(deque);
+        }
+
+        if (service != null) {
+            size.decrementAndGet();
+        }
+        return service;
+    }
+
+    /**
+     * Vol de la tâche la plus ancienne d'un autre thread.
+     *
+     * @param thief
+     * @return PooledTask or <code>null</code>.
+     */
+    private PooledTask steal(WorkerDeque thief) {
+        PooledTask service = null;
+        WorkerDeque[] deques = workerDeques;
+
+        if (deques.length > 0) {
+            int start = ThreadLocalRandom.current().nextInt(deques.length);
+
+            for (int i = 0; i < deques.length && service == null; i++) {
+                WorkerDeque victim = deques[(start + i) % deques.length];
+
+                if (victim != thief) {
+                    service = victim.tasks.pollFirst();
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Retire la file d'un thread du groupe.
+     *
+     * @param deque
+     */
+    private void removeDeque(WorkerDeque deque) {
+        synchronized (dequesLock) {
+            WorkerDeque[] current = workerDeques;
+            int index = current.length - 1;
+
+            while (index >= 0 && current[index] != deque) {
+                index--;
+            }
+
+            if (index >= 0) {
+                WorkerDeque[] newDeques = (current.length == 1) ? EMPTY_DEQUES : new WorkerDeque[current.length - 1];
+                System.arraycopy(current, 0, newDeques, 0, index);
+                System.arraycopy(current, index + 1, newDeques, index, current.length - index - 1);
+                workerDeques = newDeques;
+            }
+        }
+    }
+
+    /**
+     * Réveille un seul thread inactif.
+     */
+    private void signalWork() {
+        WorkerDeque deque;
+
+        while ((deque = idleWorkers.poll()) != null) {
+            if (deque.idle.compareAndSet(true, false)) {
+                LockSupport.unpark(deque.owner);
+                break;
+            }
+        }
+    }
+
+    /**
+     * File locale d'un thread du groupe.
+     */
+    private static class WorkerDeque {
+
+        /**
+         * Le membre du groupe.
+         */
+        private final ServiceProcess worker;
+
+        /**
+         * Le thread propriétaire de la file.
+         */
+        private final Thread owner;
+
+        /**
+         * Tâches locales.
+         */
+        private final Deque<PooledTask> tasks = new ConcurrentLinkedDeque<>();
+
+        /**
+         * Etat d'attente du thread.
+         */
+        private final AtomicBoolean idle = new AtomicBoolean();
+
+        private WorkerDeque(ServiceProcess worker, Thread owner) {
+            this.worker = worker;
+            this.owner = owner;
+        }
+    }
+}
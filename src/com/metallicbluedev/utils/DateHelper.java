@@ -2,6 +2,7 @@ package com.metallicbluedev.utils;
 
 import com.metallicbluedev.logger.*;
 import java.text.*;
+import java.time.format.*;
 import java.util.*;
 
 /**
@@ -15,6 +16,11 @@ public class DateHelper {
      */
     public static final String INTERNATIONAL_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
+    /**
+     * Mise en forme {@link #INTERNATIONAL_FORMAT}, sans fuseau horaire (réutilisable entre threads).
+     */
+    public static final DateTimeFormatter INTERNATIONAL_FORMATTER = DateTimeFormatter.ofPattern(INTERNATIONAL_FORMAT);
+
     public static String formatInternational(Date date) {
         SimpleDateFormat sdf = new SimpleDateFormat(INTERNATIONAL_FORMAT);
         return sdf.format(date);
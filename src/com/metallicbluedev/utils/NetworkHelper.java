@@ -1,8 +1,11 @@
 package com.metallicbluedev.utils;
 
 import com.metallicbluedev.logger.*;
+import com.metallicbluedev.threading.*;
 import java.io.*;
 import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  *
@@ -10,26 +13,76 @@ import java.net.*;
  */
 public class NetworkHelper {
 
+    /**
+     * Exécuteur des tentatives par défaut: un thread virtuel par tentative.
+     */
+    private static final Executor REACHABILITY_EXECUTOR = task -> Thread.ofVirtual().name(NetworkHelper.class.getSimpleName()).start(task);
+
+    /**
+     * Attente de la disponibilité d'un hôte.
+     * Cette méthode est bloquante.
+     *
+     * @param ipAddress
+     * @param maxRetry
+     * @param timeout Délai de chaque tentative et entre deux tentatives (en millisecondes).
+     */
     public static void waitForHostReachable(String ipAddress, int maxRetry, int timeout) {
-        boolean isReachable;
+        awaitHostReachable(ipAddress, maxRetry, timeout);
+    }
 
-        do {
-            maxRetry--;
+    /**
+     * Attente de la disponibilité d'un hôte.
+     * Cette méthode est bloquante.
+     *
+     * @param ipAddress
+     * @param maxRetry
+     * @param timeout Délai de chaque tentative et entre deux tentatives (en millisecondes).
+     * @return <code>true</code> si l'hôte est joignable.
+     */
+    public static boolean awaitHostReachable(String ipAddress, int maxRetry, int timeout) {
+        boolean isReachable = false;
 
-            try {
-                isReachable = isHostReachable(ipAddress, timeout);
-            } catch (IOException ex) {
-                isReachable = false;
-            }
+        try {
+            isReachable = waitForHostReachableAsync(ipAddress, maxRetry, timeout).join();
+        } catch (CancellationException | CompletionException ex) {
+            LoggerManager.getInstance().addError(ex);
+        }
+        return isReachable;
+    }
 
-            if (!isReachable) {
-                try {
-                    Thread.sleep(timeout);
-                } catch (InterruptedException ex) {
-                    LoggerManager.getInstance().addError(ex);
-                }
-            }
-        } while (!isReachable && maxRetry > 0);
+    /**
+     * Attente de la disponibilité d'un hôte.
+     * Chaque tentative est exécutée par un thread virtuel dédié aux tests réseau:
+     * les threads du {@link TaskScheduler} ne sont jamais bloqués par un hôte injoignable.
+     *
+     * @param ipAddress
+     * @param maxRetry
+     * @param timeout Délai de chaque tentative et entre deux tentatives (en millisecondes).
+     * @return
+     * @see #waitForHostReachableAsync(String, int, int, Executor)
+     */
+    public static CompletableFuture<Boolean> waitForHostReachableAsync(String ipAddress, int maxRetry, int timeout) {
+        return waitForHostReachableAsync(ipAddress, maxRetry, timeout, REACHABILITY_EXECUTOR);
+    }
+
+    /**
+     * Attente de la disponibilité d'un hôte.
+     * Le délai entre deux tentatives est planifié par le {@link TaskScheduler}: aucun thread n'est bloqué entre deux tentatives.
+     * Les tentatives, bloquantes, sont exécutées par l'exécuteur et jamais par le thread de la roue du planificateur.
+     * L'annulation du résultat arrête les tentatives.
+     * Une tentative refusée par l'exécuteur ou une planification abandonnée par le planificateur termine le résultat en erreur.
+     *
+     * @param ipAddress
+     * @param maxRetry
+     * @param timeout Délai de chaque tentative et entre deux tentatives (en millisecondes).
+     * @param executor Exécuteur des tentatives.
+     * @return
+     */
+    public static CompletableFuture<Boolean> waitForHostReachableAsync(String ipAddress, int maxRetry, int timeout, Executor executor) {
+        Objects.requireNonNull(executor);
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        tryHostReachable(ipAddress, Math.max(1, maxRetry), timeout, executor, result);
+        return result;
     }
 
     public static boolean isHostReachable(String ipAddress, int timeout)
@@ -37,4 +90,71 @@ public class NetworkHelper {
         InetAddress hostAddress = InetAddress.getByName(ipAddress);
         return hostAddress.isReachable(timeout);
     }
+
+    /**
+     * Tentative de connexion à l'hôte, puis planification de la suivante.
+     *
+     * @param ipAddress
+     * @param remainingRetry Nombre de tentatives restantes, celle-ci comprise.
+     * @param timeout
+     * @param executor
+     * @param result
+     */
+    private static void tryHostReachable(String ipAddress, int remainingRetry, int timeout, Executor executor, CompletableFuture<Boolean> result) {
+        if (!result.isDone()) {
+            try {
+                CompletableFuture.supplyAsync(() -> {
+                    boolean isReachable;
+
+                    try {
+                        isReachable = !result.isDone() && isHostReachable(ipAddress, timeout);
+                    } catch (IOException ex) {
+                        isReachable = false;
+                    }
+                    return isReachable;
+                }, executor).whenComplete((isReachable, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                    } else if (isReachable) {
+                        result.complete(true);
+                    } else if (remainingRetry <= 1) {
+                        result.complete(false);
+                    } else if (!result.isDone()) {
+                        scheduleHostReachable(ipAddress, remainingRetry - 1, timeout, executor, result);
+                    }
+                });
+            } catch (RejectedExecutionException | IllegalStateException ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * Planification de la prochaine tentative après le délai.
+     *
+     * @param ipAddress
+     * @param remainingRetry
+     * @param timeout
+     * @param executor
+     * @param result
+     */
+    private static void scheduleHostReachable(String ipAddress, int remainingRetry, int timeout, Executor executor, CompletableFuture<Boolean> result) {
+        try {
+            ScheduledFuture<?> retryTask = TaskScheduler.getInstance().schedule(
+                () -> tryHostReachable(ipAddress, remainingRetry, timeout, executor, result),
+                Math.max(1, timeout), TimeUnit.MILLISECONDS);
+            result.whenComplete((isReachable, ex) -> retryTask.cancel(false));
+
+            // Une planification annulée ou refusée par le planificateur termine le résultat
+            if (retryTask instanceof CompletionStage<?> retryStage) {
+                retryStage.whenComplete((retry, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                    }
+                });
+            }
+        } catch (IllegalStateException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
 }
@@ -10,7 +10,7 @@ import java.util.regex.*;
 /**
  * Aide à la manipulation du système d'exploitation.
  *
- * @version 1.15.02
+ * @version 1.18.00
  * @author Sebastien Villemain
  */
 public class SystemHelper {
@@ -256,7 +256,12 @@ public class SystemHelper {
                     service = sProcess;
                 case ThreadHolderTask threadHolderTask ->
                     service = threadHolderTask.getTask();
+                case ForkJoinPooledThread forkJoinPooledThread ->
+                    service = forkJoinPooledThread.getTask();
                 default -> {
+                    if (thread.isVirtual()) {
+                        service = ThreadHolderTask.getVirtualTask(thread);
+                    }
                 }
             }
         }
@@ -288,13 +293,21 @@ public class SystemHelper {
 
     /**
      * Retourne la liste des threads supportant un service.
+     * Les threads virtuels exécutant un service sont inclus.
      *
      * @return
      */
     public static Thread[] getServices() {
         List<Thread> services = new ArrayList<>();
-        Thread[] threads = new Thread[Thread.activeCount()];
-        int count = Thread.enumerate(threads);
+
+        // Recherche du groupe le plus en haut de la hiérarchie (le thread courant peut appartenir à un groupe de threads)
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+
+        Thread[] threads = new Thread[root.activeCount() * 2];
+        int count = root.enumerate(threads, true);
 
         for (int i = 0; i < count; i++) {
             Thread thread = threads[i];
@@ -304,6 +317,9 @@ public class SystemHelper {
             }
         }
 
+        // Les threads virtuels ne sont pas énumérables
+        services.addAll(Arrays.asList(ThreadHolderTask.getVirtualThreads()));
+
         Thread[] servicesList = new Thread[services.size()];
         return services.toArray(servicesList);
     }